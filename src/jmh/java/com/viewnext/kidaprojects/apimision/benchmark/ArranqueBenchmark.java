@@ -0,0 +1,61 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * La clase {@code ArranqueBenchmark} mide el arranque y la parada del contexto
+ * de la aplicación, sin servidor web y sobre una base de datos H2 vacía, con el
+ * repositorio JPA ({@code repositorio=jpa}) y con el JDBC
+ * ({@code repositorio=jdbc}).
+ *
+ * <p>
+ * Hibernate arranca en ambos casos, ya que {@code Mision} sigue siendo una
+ * entidad y el servicio usa el {@code EntityManager}. Con JDBC se deshabilitan
+ * los repositorios de Spring Data JPA, de modo que se ahorra la creación del
+ * repositorio y la validación de sus consultas JPQL.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArranqueBenchmark {
+
+	@Param({ "jpa", "jdbc" })
+	public String repositorio;
+
+	private final AtomicInteger arranques = new AtomicInteger();
+
+	@Benchmark
+	public ConfigurableApplicationContext arrancar() {
+		ConfigurableApplicationContext contexto = ContextoBenchmark.arrancarAplicacion(
+				"arranque-" + repositorio + "-" + arranques.incrementAndGet(),
+				"--spring.main.web-application-type=none", "--apimision.repositorio=" + repositorio,
+				"--spring.data.jpa.repositories.enabled=" + "jpa".equals(repositorio));
+		contexto.close();
+		return contexto;
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * La clase {@code CargaHilosBenchmark} es una prueba de carga HTTP que compara
+ * el servidor con el pool de hilos de Tomcat ({@code modo=plataforma}) y con
+ * hilos virtuales ({@code modo=virtual}).
+ *
+ * <p>
+ * Arranca la aplicación con servidor web en un puerto libre y lanza
+ * {@code GET /mision?limite=20&cursor=...} desde 64 clientes concurrentes. La
+ * paginación por clave no pasa por la caché, de modo que cada petición ocupa
+ * una conexión del pool. El modo {@code Throughput} da las peticiones por
+ * segundo y el modo {@code SampleTime} los percentiles de latencia, entre ellos
+ * el p99. Los contadores {@code correctas} y {@code rechazadas} separan las
+ * respuestas 200 de las 503 del límite de concurrencia.
+ * </p>
+ *
+ * <p>
+ * El pool de Tomcat se limita a {@code hilosTomcat} hilos para que, con menos
+ * hilos que clientes, el modo {@code plataforma} haga cola igual que en
+ * producción bajo carga.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class CargaHilosBenchmark {
+
+	/**
+	 * Número de misiones de la tabla. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "1000" })
+	public int tamano;
+
+	@Param({ "plataforma", "virtual" })
+	public String modo;
+
+	/**
+	 * Hilos máximos de Tomcat en el modo {@code plataforma}.
+	 */
+	@Param({ "16" })
+	public int hilosTomcat;
+
+	private ConfigurableApplicationContext contexto;
+	private HttpClient cliente;
+	private String base;
+
+	@Setup(Level.Trial)
+	public void arrancar() throws InterruptedException {
+		contexto = ContextoBenchmark.arrancarAplicacion("carga-" + modo + "-" + tamano,
+				"--server.port=0",
+				"--server.tomcat.threads.max=" + hilosTomcat,
+				"--apimision.hilos-virtuales.habilitado=" + "virtual".equals(modo));
+		ContextoBenchmark.cargar(contexto, tamano);
+
+		base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/mision";
+		cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void detener() {
+		contexto.close();
+	}
+
+	/**
+	 * Respuestas recibidas por cada cliente, publicadas por JMH como contadores
+	 * por segundo.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Respuestas {
+		public long correctas;
+		public long rechazadas;
+	}
+
+	@Benchmark
+	public int paginaPorCursor(Respuestas respuestas) throws IOException, InterruptedException {
+		int cursor = ThreadLocalRandom.current().nextInt(0, tamano);
+		HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "?limite=20&cursor=" + cursor)).GET().build();
+		HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+
+		if (respuesta.statusCode() == 200) {
+			respuestas.correctas++;
+		} else {
+			respuestas.rechazadas++;
+		}
+		return respuesta.statusCode();
+	}
+
+}
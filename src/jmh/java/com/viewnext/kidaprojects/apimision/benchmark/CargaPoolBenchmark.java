@@ -0,0 +1,126 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * La clase {@code CargaPoolBenchmark} es una prueba de carga HTTP del pool de
+ * conexiones con la configuración por defecto ({@code perfil=defecto}) y con el
+ * perfil {@code produccion} ({@code perfil=produccion}).
+ *
+ * <p>
+ * La base de datos es H2 en memoria en modo MySQL, por lo que las propiedades
+ * del driver MySQL no intervienen; la prueba valida que el perfil arranca, que
+ * el pool aguanta {@code GET /mision?limite=20&cursor=...} desde 64 clientes
+ * con más clientes que conexiones sin agotar la espera, y el efecto de las
+ * opciones de Hikari e Hibernate. Al terminar cada caso imprime las métricas
+ * {@code hikaricp.connections.*}: peticiones de conexión, espera media y
+ * máxima, tiempo medio de uso y esperas agotadas.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class CargaPoolBenchmark {
+
+	/**
+	 * Número de misiones de la tabla. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "1000" })
+	public int tamano;
+
+	@Param({ "defecto", "produccion" })
+	public String perfil;
+
+	private ConfigurableApplicationContext contexto;
+	private HttpClient cliente;
+	private String base;
+
+	@Setup(Level.Trial)
+	public void arrancar() throws InterruptedException {
+		contexto = ContextoBenchmark.arrancarAplicacion("pool-" + perfil + "-" + tamano,
+				"--server.port=0",
+				"--spring.profiles.active=" + ("produccion".equals(perfil) ? "test,produccion" : "test"));
+		ContextoBenchmark.cargar(contexto, tamano);
+
+		base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/mision";
+		cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void detener() {
+		MeterRegistry registro = contexto.getBean(MeterRegistry.class);
+		Timer espera = registro.find("hikaricp.connections.acquire").timer();
+		Timer uso = registro.find("hikaricp.connections.usage").timer();
+		if (espera != null && uso != null) {
+			System.out.printf("%nPool (%s): %d conexiones pedidas, espera media %.3f ms y máxima %.3f ms, "
+					+ "uso medio %.3f ms, %.0f esperas agotadas%n", perfil, espera.count(),
+					espera.mean(TimeUnit.MILLISECONDS), espera.max(TimeUnit.MILLISECONDS),
+					uso.mean(TimeUnit.MILLISECONDS),
+					registro.get("hikaricp.connections.timeout").counter().count());
+		}
+		contexto.close();
+	}
+
+	/**
+	 * Respuestas recibidas por cada cliente, publicadas por JMH como contadores
+	 * por segundo.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Respuestas {
+		public long correctas;
+		public long errores;
+	}
+
+	@Benchmark
+	public int paginaPorCursor(Respuestas respuestas) throws IOException, InterruptedException {
+		int cursor = ThreadLocalRandom.current().nextInt(0, tamano);
+		HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "?limite=20&cursor=" + cursor)).GET().build();
+		HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+
+		if (respuesta.statusCode() == 200) {
+			respuestas.correctas++;
+		} else {
+			respuestas.errores++;
+		}
+		return respuesta.statusCode();
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viewnext.kidaprojects.apimision.service.MisionService;
+
+/**
+ * La clase {@code CargaSuperadasBenchmark} es una prueba de carga HTTP de
+ * {@code PUT /mision/{idMision}} desde 64 clientes sobre misiones al azar, con
+ * la escritura síncrona ({@code modo=sincrono}) y con la escritura diferida por
+ * lotes ({@code modo=diferido}).
+ *
+ * <p>
+ * Las misiones se reinician antes de cada iteración para que casi todas las
+ * peticiones cambien el estado de la misión. Los contadores separan las
+ * respuestas 200, las 202 de los cambios encolados y las 503 de la cola llena.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class CargaSuperadasBenchmark {
+
+	/**
+	 * Número de misiones de la tabla. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "100000" })
+	public int tamano;
+
+	@Param({ "sincrono", "diferido" })
+	public String modo;
+
+	private ConfigurableApplicationContext contexto;
+	private HttpClient cliente;
+	private String base;
+
+	@Setup(Level.Trial)
+	public void arrancar() throws InterruptedException {
+		contexto = ContextoBenchmark.arrancarAplicacion("superadas-" + modo + "-" + tamano,
+				"--server.port=0",
+				"--apimision.escritura-diferida.habilitada=" + "diferido".equals(modo));
+		ContextoBenchmark.cargar(contexto, tamano);
+
+		base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/mision/";
+		cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@Setup(Level.Iteration)
+	public void reiniciar() {
+		contexto.getBean(MisionService.class).reiniciarMisiones();
+	}
+
+	@TearDown(Level.Trial)
+	public void detener() {
+		contexto.close();
+	}
+
+	/**
+	 * Respuestas recibidas por cada cliente, publicadas por JMH como contadores
+	 * por segundo.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Respuestas {
+		public long aplicadas;
+		public long encoladas;
+		public long rechazadas;
+	}
+
+	@Benchmark
+	public int marcarSuperada(Respuestas respuestas) throws IOException, InterruptedException {
+		int idMision = ThreadLocalRandom.current().nextInt(1, tamano + 1);
+		HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + idMision))
+				.PUT(HttpRequest.BodyPublishers.noBody()).build();
+		HttpResponse<byte[]> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+
+		switch (respuesta.statusCode()) {
+		case 200:
+			respuestas.aplicadas++;
+			break;
+		case 202:
+			respuestas.encoladas++;
+			break;
+		default:
+			respuestas.rechazadas++;
+		}
+		return respuesta.statusCode();
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * La clase {@code CatalogoBenchmark} mide {@code GET /mision} sin paginar,
+ * llamando directamente al controlador.
+ *
+ * <p>
+ * {@code instantanea} es el camino actual, que responde con los bytes de
+ * {@code CatalogoSerializado}. {@code jackson} y {@code jacksonGzip} reproducen
+ * el coste de serializar la lista, y además comprimirla, en cada petición.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogoBenchmark {
+
+	@Benchmark
+	public ResponseEntity<?> instantanea(ContextoBenchmark contexto) {
+		return contexto.controller.showAllMisiones(null, 0, contexto.peticion);
+	}
+
+	@Benchmark
+	public byte[] jackson(ContextoBenchmark contexto) throws IOException {
+		return contexto.objectMapper.writeValueAsBytes(contexto.service.showAll());
+	}
+
+	@Benchmark
+	public byte[] jacksonGzip(ContextoBenchmark contexto) throws IOException {
+		ByteArrayOutputStream comprimidos = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(comprimidos)) {
+			contexto.objectMapper.writeValue(gzip, contexto.service.showAll());
+		}
+		return comprimidos.toByteArray();
+	}
+
+}
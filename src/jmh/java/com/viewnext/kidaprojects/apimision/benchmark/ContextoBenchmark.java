@@ -0,0 +1,164 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.apimision.ApiMisionApplication;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.restcontroller.MisionRestController;
+import com.viewnext.kidaprojects.apimision.service.CatalogoSerializado;
+import com.viewnext.kidaprojects.apimision.service.IndiceNivel;
+import com.viewnext.kidaprojects.apimision.service.IndiceNombres;
+import com.viewnext.kidaprojects.apimision.service.MisionService;
+
+/**
+ * La clase {@code ContextoBenchmark} arranca la aplicación, sin servidor web,
+ * sobre una base de datos H2 en memoria (perfil {@code test}) y la carga con
+ * {@code tamano} misiones antes de cada ensayo.
+ *
+ * <p>
+ * Las misiones se cargan a través de {@code MisionService}, de modo que los
+ * índices en memoria quedan al día igual que en producción.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+
+	/**
+	 * Número de misiones de la tabla. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "1000" })
+	public int tamano;
+
+	private ConfigurableApplicationContext contexto;
+
+	MisionService service;
+	MisionRestController controller;
+	CatalogoSerializado catalogoSerializado;
+	ObjectMapper objectMapper;
+	JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Petición GET sin cabeceras condicionales para llamar a los métodos del
+	 * controlador que las resuelven.
+	 */
+	final WebRequest peticion = new ServletWebRequest(new MockHttpServletRequest("GET", "/mision"),
+			new MockHttpServletResponse());
+
+	@Setup(Level.Trial)
+	public void arrancar() throws InterruptedException {
+		contexto = arrancarAplicacion("benchmark-" + tamano, "--spring.main.web-application-type=none");
+
+		service = contexto.getBean(MisionService.class);
+		controller = contexto.getBean(MisionRestController.class);
+		objectMapper = contexto.getBean(ObjectMapper.class);
+		jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		catalogoSerializado = contexto.getBean(CatalogoSerializado.class);
+
+		cargar(contexto, tamano);
+
+		long limite = System.currentTimeMillis() + 60_000;
+		while (catalogoSerializado.getActual() == null && System.currentTimeMillis() < limite) {
+			Thread.sleep(50);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void detener() {
+		contexto.close();
+	}
+
+	/**
+	 * @return Un identificador de misión existente elegido al azar.
+	 */
+	int idAleatorio() {
+		return ThreadLocalRandom.current().nextInt(1, tamano + 1);
+	}
+
+	/**
+	 * @return Un identificador al azar que no corresponde a ninguna misión.
+	 */
+	int idInexistente() {
+		return tamano + idAleatorio();
+	}
+
+	/**
+	 * Genera misiones de prueba con 50 niveles, recompensas repartidas y una
+	 * descripción de longitud realista.
+	 *
+	 * @param cantidad El número de misiones a generar.
+	 * @return Las misiones generadas, sin identificador.
+	 */
+	static List<Mision> generarMisiones(int cantidad) {
+		List<Mision> misiones = new ArrayList<>(cantidad);
+		for (int i = 1; i <= cantidad; i++) {
+			Mision mision = new Mision("Misión " + i,
+					"Descripción de la misión " + i + ": explora la zona, recupera el objeto y vuelve a la base "
+							+ "antes de que anochezca sin ser detectado por las patrullas.",
+					i % 50 + 1, (i * 37) % 1000);
+			misiones.add(mision);
+		}
+		return misiones;
+	}
+
+	/**
+	 * Arranca la aplicación con el perfil {@code test} sobre una base de datos H2
+	 * en memoria propia.
+	 *
+	 * @param baseDatos  El nombre de la base de datos en memoria.
+	 * @param argumentos Argumentos adicionales de la aplicación.
+	 * @return El contexto de la aplicación.
+	 */
+	static ConfigurableApplicationContext arrancarAplicacion(String baseDatos, String... argumentos) {
+		List<String> todos = new ArrayList<>(List.of(
+				"--spring.profiles.active=test",
+				"--spring.datasource.url=jdbc:h2:mem:" + baseDatos
+						+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN"));
+		todos.addAll(List.of(argumentos));
+		return SpringApplication.run(ApiMisionApplication.class, todos.toArray(String[]::new));
+	}
+
+	/**
+	 * Espera a que los índices en memoria estén construidos y carga
+	 * {@code tamano} misiones a través de {@code MisionService}.
+	 *
+	 * @param contexto El contexto de la aplicación.
+	 * @param tamano   El número de misiones a cargar.
+	 */
+	static void cargar(ConfigurableApplicationContext contexto, int tamano) throws InterruptedException {
+		IndiceNombres indiceNombres = contexto.getBean(IndiceNombres.class);
+		IndiceNivel indiceNivel = contexto.getBean(IndiceNivel.class);
+		long limite = System.currentTimeMillis() + 60_000;
+
+		while (!(indiceNombres.isListo() && indiceNivel.isListo()) && System.currentTimeMillis() < limite) {
+			Thread.sleep(50);
+		}
+		contexto.getBean(MisionService.class).importarMisiones(generarMisiones(tamano).iterator());
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.apimision.config.FormatosBinariosConfig;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+/**
+ * La clase {@code FormatoBenchmark} compara la codificación y decodificación de
+ * una lista de {@code tamano} misiones en JSON, CBOR con misiones posicionales y
+ * Smile, con los mismos {@code ObjectMapper} que usan los convertidores de la
+ * API. El tamaño de cada formato se imprime al preparar el estado.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatoBenchmark {
+
+	/**
+	 * Número de misiones de la lista. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "1000" })
+	public int tamano;
+
+	private ObjectMapper json;
+	private ObjectMapper cbor;
+	private ObjectMapper smile;
+	private JavaType tipoLista;
+	private List<Mision> misiones;
+	private byte[] bytesJson;
+	private byte[] bytesCbor;
+	private byte[] bytesSmile;
+
+	@Setup(Level.Trial)
+	public void preparar() throws IOException {
+		json = Jackson2ObjectMapperBuilder.json().build();
+		cbor = FormatosBinariosConfig.misionCompacta(Jackson2ObjectMapperBuilder.cbor()).build();
+		smile = Jackson2ObjectMapperBuilder.smile().build();
+		tipoLista = json.getTypeFactory().constructCollectionType(List.class, Mision.class);
+		misiones = ContextoBenchmark.generarMisiones(tamano);
+		for (int i = 0; i < misiones.size(); i++) {
+			misiones.get(i).setIdMision(i + 1);
+		}
+
+		bytesJson = json.writeValueAsBytes(misiones);
+		bytesCbor = cbor.writeValueAsBytes(misiones);
+		bytesSmile = smile.writeValueAsBytes(misiones);
+		System.out.printf("%n%d misiones: JSON %d bytes, CBOR %d bytes, Smile %d bytes%n", tamano,
+				bytesJson.length, bytesCbor.length, bytesSmile.length);
+	}
+
+	@Benchmark
+	public byte[] codificarJson() throws IOException {
+		return json.writeValueAsBytes(misiones);
+	}
+
+	@Benchmark
+	public byte[] codificarCbor() throws IOException {
+		return cbor.writeValueAsBytes(misiones);
+	}
+
+	@Benchmark
+	public byte[] codificarSmile() throws IOException {
+		return smile.writeValueAsBytes(misiones);
+	}
+
+	@Benchmark
+	public List<Mision> decodificarJson() throws IOException {
+		return json.readValue(bytesJson, tipoLista);
+	}
+
+	@Benchmark
+	public List<Mision> decodificarCbor() throws IOException {
+		return cbor.readValue(bytesCbor, tipoLista);
+	}
+
+	@Benchmark
+	public List<Mision> decodificarSmile() throws IOException {
+		return smile.readValue(bytesSmile, tipoLista);
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.viewnext.kidaprojects.apimision.config.LimitePeticionesFilter;
+import com.viewnext.kidaprojects.apimision.config.LimitePeticionesFilter.Grupo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+/**
+ * La clase {@code LimitePeticionesBenchmark} mide el coste de
+ * {@code LimitePeticionesFilter} por petición desde 8 hilos, con todas las
+ * peticiones de un mismo cliente ({@code clientes=1}, el caso de máxima
+ * contención sobre un cubo) y repartidas entre muchos clientes. La tasa es lo
+ * bastante alta como para que no se rechace ninguna petición.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LimitePeticionesBenchmark {
+
+	@Param({ "1", "1000" })
+	public int clientes;
+
+	private LimitePeticionesFilter filtro;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		Set<String> claves = new HashSet<>();
+		for (int i = 0; i < clientes; i++) {
+			claves.add("cliente-" + i);
+		}
+		filtro = new LimitePeticionesFilter("X-API-Key", claves, 1e9, 1_000_000, 100_000,
+				Map.of(Grupo.LECTURA, 1, Grupo.LISTADO, 5, Grupo.CAMBIOS, 1, Grupo.ESCRITURA, 1, Grupo.REINICIO, 50),
+				Map.of(Grupo.LECTURA, 1000, Grupo.LISTADO, 1000, Grupo.CAMBIOS, 1000, Grupo.ESCRITURA, 1000,
+						Grupo.REINICIO, 1),
+				new SimpleMeterRegistry());
+	}
+
+	/**
+	 * Petición de cada hilo, reutilizada entre invocaciones.
+	 */
+	@State(Scope.Thread)
+	public static class Peticion {
+
+		private MockHttpServletRequest[] peticiones;
+		private int siguiente;
+
+		@Setup(Level.Trial)
+		public void preparar(LimitePeticionesBenchmark benchmark) {
+			peticiones = new MockHttpServletRequest[benchmark.clientes];
+			for (int i = 0; i < peticiones.length; i++) {
+				peticiones[i] = new MockHttpServletRequest("GET", "/mision/1");
+				peticiones[i].addHeader("X-API-Key", "cliente-" + i);
+			}
+		}
+
+		MockHttpServletRequest siguiente() {
+			siguiente = (siguiente + 1) % peticiones.length;
+			return peticiones[siguiente];
+		}
+
+	}
+
+	@Benchmark
+	public int filtrar(Peticion peticion) throws ServletException, IOException {
+		MockHttpServletResponse respuesta = new MockHttpServletResponse();
+		filtro.doFilter(peticion.siguiente(), respuesta, new MockFilterChain());
+		return respuesta.getStatus();
+	}
+
+}
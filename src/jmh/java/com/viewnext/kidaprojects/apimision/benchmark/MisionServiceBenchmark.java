@@ -0,0 +1,62 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+/**
+ * La clase {@code MisionServiceBenchmark} mide las operaciones de lectura de
+ * {@code MisionService} sobre una tabla de {@code tamano} misiones.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MisionServiceBenchmark {
+
+	@Benchmark
+	public Optional<Mision> showById(ContextoBenchmark contexto) {
+		return contexto.service.showById(contexto.idAleatorio());
+	}
+
+	@Benchmark
+	public Optional<Integer> getRecompensa(ContextoBenchmark contexto) {
+		return contexto.service.getRecompensa(contexto.idAleatorio());
+	}
+
+	@Benchmark
+	public List<Mision> showByNivel(ContextoBenchmark contexto) {
+		return contexto.service.showByNivel(5);
+	}
+
+	@Benchmark
+	public List<Mision> showByNivelPaginado(ContextoBenchmark contexto) {
+		return contexto.service.showByNivel(
+				new ConsultaNivel(10, 20, true, ConsultaNivel.Orden.RECOMPENSA_DESC, 0, 50));
+	}
+
+	@Benchmark
+	public List<Mision> showByNombreLike(ContextoBenchmark contexto) {
+		return contexto.service.showByNombreLike("mision 1", 100);
+	}
+
+}
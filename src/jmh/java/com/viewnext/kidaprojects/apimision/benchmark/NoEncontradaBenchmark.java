@@ -0,0 +1,62 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * La clase {@code NoEncontradaBenchmark} mide {@code GET /mision/{idMision}}
+ * con identificadores inexistentes, llamando directamente al controlador.
+ *
+ * <p>
+ * {@code optionalVacio} es el camino actual, en el que el servicio devuelve un
+ * {@code Optional} vacío. {@code excepcion} reproduce el camino anterior, en el
+ * que el servicio lanzaba {@code EntityNotFoundException} y el controlador la
+ * capturaba. Con el perfilador {@code gc} (activo por defecto en el perfil
+ * {@code benchmark}), {@code gc.alloc.rate.norm} da los bytes asignados por
+ * petición de cada camino.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoEncontradaBenchmark {
+
+	@Benchmark
+	public ResponseEntity<?> optionalVacio(ContextoBenchmark contexto) {
+		return contexto.controller.showMisionById(contexto.idInexistente(), contexto.peticion);
+	}
+
+	@Benchmark
+	public ResponseEntity<?> excepcion(ContextoBenchmark contexto) {
+		try {
+			Mision mision = contexto.service.showById(contexto.idInexistente())
+					.orElseThrow(EntityNotFoundException::new);
+			return ResponseEntity.ok(mision);
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Misión/es no encontrada");
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
+
+/**
+ * La clase {@code ReinicioBenchmark} mide {@code reiniciarMisiones} sobre una
+ * tabla en la que todas las misiones están superadas, de modo que cada
+ * invocación modifica todas las filas.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReinicioBenchmark {
+
+	@State(Scope.Thread)
+	public static class MisionesSuperadas {
+
+		@Setup(Level.Invocation)
+		public void marcarSuperadas(ContextoBenchmark contexto) {
+			contexto.jdbcTemplate.update("UPDATE misiones SET superada = true");
+		}
+	}
+
+	@Benchmark
+	public ResultadoReinicio reiniciarMisiones(ContextoBenchmark contexto, MisionesSuperadas superadas) {
+		return contexto.service.reiniciarMisiones();
+	}
+
+}
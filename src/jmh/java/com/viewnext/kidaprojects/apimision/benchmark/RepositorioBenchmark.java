@@ -0,0 +1,141 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+import com.viewnext.kidaprojects.apimision.service.MisionService;
+
+/**
+ * La clase {@code RepositorioBenchmark} compara las consultas de
+ * {@code MisionRepository} con la implementación de Spring Data JPA
+ * ({@code repositorio=jpa}) y con {@code MisionRepositoryJdbc}
+ * ({@code repositorio=jdbc}), llamando al repositorio directamente para que
+ * {@code MisionCache} y los índices en memoria no oculten la diferencia.
+ *
+ * <p>
+ * Con el perfilador {@code gc}, {@code gc.alloc.rate.norm} da los bytes
+ * reservados por consulta. {@code guardar} lee una misión y la guarda con una
+ * recompensa distinta en la misma transacción: con JPA la escritura la hace la
+ * comprobación de cambios al confirmar, con JDBC un {@code UPDATE} explícito.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositorioBenchmark {
+
+	/**
+	 * Número de misiones de la tabla. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "1000" })
+	public int tamano;
+
+	@Param({ "jpa", "jdbc" })
+	public String repositorio;
+
+	private ConfigurableApplicationContext contexto;
+	private MisionRepository misionRepository;
+	private MisionService service;
+	private TransactionTemplate lectura;
+	private TransactionTemplate escritura;
+
+	@Setup(Level.Trial)
+	public void arrancar() throws InterruptedException {
+		contexto = ContextoBenchmark.arrancarAplicacion("repositorio-" + repositorio + "-" + tamano,
+				"--spring.main.web-application-type=none", "--apimision.repositorio=" + repositorio,
+				"--spring.data.jpa.repositories.enabled=" + "jpa".equals(repositorio));
+		ContextoBenchmark.cargar(contexto, tamano);
+
+		misionRepository = contexto.getBean(MisionRepository.class);
+		service = contexto.getBean(MisionService.class);
+		PlatformTransactionManager transactionManager = contexto.getBean(PlatformTransactionManager.class);
+		lectura = new TransactionTemplate(transactionManager);
+		lectura.setReadOnly(true);
+		escritura = new TransactionTemplate(transactionManager);
+	}
+
+	@TearDown(Level.Trial)
+	public void detener() {
+		contexto.close();
+	}
+
+	private int idAleatorio() {
+		return ThreadLocalRandom.current().nextInt(1, tamano + 1);
+	}
+
+	@Benchmark
+	public Optional<Mision> findById() {
+		return misionRepository.findById(idAleatorio());
+	}
+
+	@Benchmark
+	public Optional<Integer> findRecompensaById() {
+		return misionRepository.findRecompensaById(idAleatorio());
+	}
+
+	@Benchmark
+	public List<Mision> findSiguientes() {
+		return misionRepository.findSiguientes(idAleatorio(), PageRequest.of(0, 100));
+	}
+
+	@Benchmark
+	public List<Mision> findByNivelEntre() {
+		return misionRepository.findByNivelEntre(10, 20, true,
+				PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "recompensa").and(Sort.by("idMision"))));
+	}
+
+	@Benchmark
+	public void recorrerTodas(Blackhole blackhole) {
+		service.recorrerTodas(blackhole::consume);
+	}
+
+	@Benchmark
+	public Mision guardar() {
+		int idMision = idAleatorio();
+		return escritura.execute(estado -> {
+			Mision mision = misionRepository.findById(idMision).orElseThrow();
+			mision.setRecompensa(mision.getRecompensa() + 1);
+			return misionRepository.save(mision);
+		});
+	}
+
+	@Benchmark
+	public Optional<Mision> findByIdEnTransaccion() {
+		return lectura.execute(estado -> misionRepository.findById(idAleatorio()));
+	}
+
+}
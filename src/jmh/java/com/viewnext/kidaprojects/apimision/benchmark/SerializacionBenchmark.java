@@ -0,0 +1,67 @@
+package com.viewnext.kidaprojects.apimision.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+/**
+ * La clase {@code SerializacionBenchmark} mide la codificación JSON de una
+ * lista de {@code tamano} misiones con un {@code ObjectMapper} configurado como
+ * el de Spring Boot.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+	/**
+	 * Número de misiones de la lista. Se configura con {@code -p tamano=...}.
+	 */
+	@Param({ "1000" })
+	public int tamano;
+
+	private ObjectMapper objectMapper;
+	private List<Mision> misiones;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		misiones = ContextoBenchmark.generarMisiones(tamano);
+		for (int i = 0; i < misiones.size(); i++) {
+			misiones.get(i).setIdMision(i + 1);
+		}
+	}
+
+	@Benchmark
+	public byte[] codificarListaJson() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(misiones);
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viewnext.kidaprojects.apimision.service.VersionCatalogo;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Clase {@code EnrutadorDataSource} que envía cada conexión a la base de datos
+ * primaria o a una de sus réplicas de lectura.
+ *
+ * <p>
+ * Las transacciones de solo lectura van a una réplica, elegida por turnos
+ * ({@link Seleccion#ROUND_ROBIN}) o la que tenga menos conexiones en uso
+ * ({@link Seleccion#MENOS_CARGADA}); el resto, y cualquier acceso sin
+ * transacción, a la primaria. Durante {@code ventanaLectura} tras cada escritura
+ * registrada en {@code VersionCatalogo}, también las lecturas van a la
+ * primaria, de modo que un cliente lee lo que acaba de escribir mientras el
+ * retraso de las réplicas no supere la ventana. Si una réplica no entrega la
+ * conexión, se usa la primaria. Las lecturas que no admiten ningún retraso,
+ * como la de la versión de una misión antes de actualizarla, deben hacerse en
+ * una transacción que no sea de solo lectura.
+ * </p>
+ *
+ * <p>
+ * La decisión se toma al pedir la conexión, por lo que el enrutador debe usarse
+ * detrás de un {@code LazyConnectionDataSourceProxy}: así la conexión se pide en
+ * la primera sentencia, cuando la transacción ya está marcada como de solo
+ * lectura. El resto de operaciones, como {@code unwrap}, se delegan en la
+ * primaria.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class EnrutadorDataSource extends DelegatingDataSource implements MeterBinder, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EnrutadorDataSource.class);
+
+	/**
+	 * Clave de la base de datos primaria.
+	 */
+	public static final String PRIMARIA = "primaria";
+
+	/**
+	 * Criterio para elegir la réplica de cada lectura.
+	 */
+	public enum Seleccion {
+		/** Las réplicas por turnos. */
+		ROUND_ROBIN,
+		/** La réplica con menos conexiones en uso; a igualdad, la primera. */
+		MENOS_CARGADA
+	}
+
+	private final HikariDataSource primaria;
+	private final List<HikariDataSource> replicas;
+	private final List<String> claves = new ArrayList<>();
+	private final Map<String, HikariDataSource> destinos = new HashMap<>();
+	private final Seleccion seleccion;
+	private final long ventanaLecturaMs;
+	private final VersionCatalogo versionCatalogo;
+	private final AtomicInteger turno = new AtomicInteger();
+	private final Map<String, LongAdder> conexiones = new HashMap<>();
+	private final Map<String, LongAdder> fallos = new HashMap<>();
+
+	/**
+	 * @param primaria        La base de datos primaria.
+	 * @param replicas        Las réplicas de lectura, en orden.
+	 * @param seleccion       El criterio para elegir réplica.
+	 * @param ventanaLectura  El tiempo tras una escritura en que las lecturas van
+	 *                        a la primaria.
+	 * @param versionCatalogo La versión del catálogo, que registra las escrituras.
+	 */
+	public EnrutadorDataSource(HikariDataSource primaria, List<HikariDataSource> replicas, Seleccion seleccion,
+			Duration ventanaLectura, VersionCatalogo versionCatalogo) {
+		super(primaria);
+		this.primaria = primaria;
+		this.replicas = List.copyOf(replicas);
+		this.seleccion = seleccion;
+		this.ventanaLecturaMs = ventanaLectura.toMillis();
+		this.versionCatalogo = versionCatalogo;
+
+		destinos.put(PRIMARIA, primaria);
+		conexiones.put(PRIMARIA, new LongAdder());
+		fallos.put(PRIMARIA, new LongAdder());
+		for (int i = 0; i < this.replicas.size(); i++) {
+			String clave = "replica-" + i;
+			claves.add(clave);
+			destinos.put(clave, this.replicas.get(i));
+			conexiones.put(clave, new LongAdder());
+			fallos.put(clave, new LongAdder());
+		}
+	}
+
+	/**
+	 * @return La clave de la base de datos a la que va la siguiente conexión.
+	 */
+	private String destino() {
+		if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				|| System.currentTimeMillis() - versionCatalogo.getUltimaModificacion() < ventanaLecturaMs) {
+			return PRIMARIA;
+		}
+		return claves.get(seleccion == Seleccion.MENOS_CARGADA ? menosCargada() : siguienteTurno());
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		String clave = destino();
+		HikariDataSource destino = destinos.get(clave);
+		try {
+			Connection conexion = destino.getConnection();
+			conexiones.get(clave).increment();
+			return conexion;
+		} catch (SQLException e) {
+			fallos.get(clave).increment();
+			if (destino == primaria) {
+				throw e;
+			}
+			LOGGER.warn("Réplica {} no disponible; la lectura va a la primaria: {}", clave, e.getMessage());
+			Connection conexion = primaria.getConnection();
+			conexiones.get(PRIMARIA).increment();
+			return conexion;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("Las credenciales se configuran en cada pool");
+	}
+
+	/**
+	 * @return El índice de la siguiente réplica por turnos.
+	 */
+	private int siguienteTurno() {
+		return Math.floorMod(turno.getAndIncrement(), replicas.size());
+	}
+
+	/**
+	 * @return El índice de la réplica con menos conexiones en uso.
+	 */
+	private int menosCargada() {
+		int elegida = 0;
+		int minimo = Integer.MAX_VALUE;
+		for (int i = 0; i < replicas.size(); i++) {
+			HikariPoolMXBean pool = replicas.get(i).getHikariPoolMXBean();
+			int activas = pool != null ? pool.getActiveConnections() : 0;
+			if (activas < minimo) {
+				minimo = activas;
+				elegida = i;
+			}
+		}
+		return elegida;
+	}
+
+	/**
+	 * Publica las conexiones entregadas y los fallos de cada base de datos y, para
+	 * las réplicas cuyo pool aún no ha arrancado, las métricas
+	 * {@code hikaricp.connections.*} de Hikari. Las de la primaria las publica
+	 * Spring Boot.
+	 *
+	 * @param registry El registro de métricas.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Map.Entry<String, LongAdder> entrada : conexiones.entrySet()) {
+			FunctionCounter.builder("mision.datasource.conexiones", entrada.getValue(), LongAdder::sum)
+					.description("Conexiones entregadas por base de datos")
+					.tag("datasource", entrada.getKey())
+					.register(registry);
+			FunctionCounter.builder("mision.datasource.fallos", fallos.get(entrada.getKey()), LongAdder::sum)
+					.description("Conexiones que una base de datos no ha podido entregar")
+					.tag("datasource", entrada.getKey())
+					.register(registry);
+		}
+		for (HikariDataSource replica : replicas) {
+			if (replica.getHikariPoolMXBean() == null && replica.getMetricsTrackerFactory() == null) {
+				replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			}
+		}
+	}
+
+	/**
+	 * Cierra los pools de las réplicas. El de la primaria lo cierra Spring.
+	 */
+	@Override
+	public void destroy() {
+		replicas.forEach(HikariDataSource::close);
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+/**
+ * Clase {@code FormatosBinariosConfig} con los formatos binarios que la API
+ * ofrece además de JSON: {@code application/cbor} y
+ * {@code application/x-jackson-smile}.
+ *
+ * <p>
+ * En CBOR cada {@code Mision} se codifica como un array posicional, sin nombres
+ * de campo, según el esquema {@code static/mision.cddl}. Smile mantiene los
+ * nombres de campo, pero en una lista solo escribe cada nombre la primera vez y
+ * después lo referencia, por lo que no necesita esquema. El convertidor de Smile
+ * es el que Spring MVC registra por defecto al encontrar la librería.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Configuration
+@Profile("!reactivo")
+public class FormatosBinariosConfig {
+
+	/**
+	 * Tipo de contenido de Smile, que {@code MediaType} no define.
+	 */
+	public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+	/**
+	 * Valor de {@link #APPLICATION_SMILE} para los atributos {@code produces} y
+	 * {@code consumes}.
+	 */
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	/**
+	 * Sustituye el convertidor CBOR por defecto por uno que codifica las misiones
+	 * como arrays posicionales.
+	 *
+	 * @return El convertidor de {@code application/cbor}.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+		return new MappingJackson2CborHttpMessageConverter(misionCompacta(Jackson2ObjectMapperBuilder.cbor()).build());
+	}
+
+	/**
+	 * Configura un constructor de {@code ObjectMapper} para codificar las misiones
+	 * como arrays posicionales.
+	 *
+	 * @param builder El constructor a configurar.
+	 * @return El mismo constructor.
+	 */
+	public static Jackson2ObjectMapperBuilder misionCompacta(Jackson2ObjectMapperBuilder builder) {
+		return builder.mixIn(Mision.class, MisionCompacta.class);
+	}
+
+	/**
+	 * Orden de los campos de una {@code Mision} codificada como array. Debe
+	 * coincidir con {@code static/mision.cddl}; los campos nuevos se añaden al
+	 * final.
+	 */
+	@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+	@JsonPropertyOrder({ "idMision", "nombre", "descripcion", "nivel", "recompensa", "superada", "activa",
+			"version" })
+	abstract static class MisionCompacta {
+	}
+
+}
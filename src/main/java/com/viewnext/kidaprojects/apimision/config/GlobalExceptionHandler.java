@@ -6,6 +6,8 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
 /**
  * Clase {@code GlobalExceptionHandler} que proporciona un controlador de excepciones globales
  * para manejar errores relacionados con solicitudes en formato JSON y argumentos inválidos.
@@ -35,6 +37,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_FORMAT);
     }
 
+    /**
+     * Maneja la excepción {@code JsonProcessingException} que se produce cuando un
+     * cuerpo JSON leído directamente como flujo no tiene un formato válido.
+     *
+     * @param ex La excepción {@code JsonProcessingException} que se produjo.
+     * @return Una respuesta HTTP con un estado de error 400 (Bad Request) y un mensaje de error.
+     */
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<String> handleJsonProcessingException(JsonProcessingException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_FORMAT);
+    }
+
     /**
      * Maneja la excepción {@code NumberFormatException} que se produce cuando se intenta
      * convertir una cadena en un número y el formato es inválido.
@@ -0,0 +1,87 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Clase {@code HilosVirtualesConfig} que, con
+ * {@code apimision.hilos-virtuales.habilitado=true}, atiende las peticiones de
+ * Tomcat y las tareas asíncronas de Spring MVC con hilos virtuales.
+ *
+ * <p>
+ * Las llamadas a {@code MisionService} se ejecutan en el hilo de la petición,
+ * así que también pasan a hilos virtuales. Para no desbordar el pool de
+ * conexiones, las peticiones a {@code /mision} pasan por un
+ * {@link LimiteConcurrenciaFilter} dimensionado con el tamaño del pool, salvo
+ * la suscripción a {@code GET /mision/cambios}, que no ocupa una conexión
+ * mientras sigue abierta.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Configuration
+@Profile("!reactivo")
+@ConditionalOnProperty(name = "apimision.hilos-virtuales.habilitado", havingValue = "true")
+public class HilosVirtualesConfig {
+
+	/**
+	 * Sustituye el pool de hilos de Tomcat por un hilo virtual por petición.
+	 *
+	 * @return El personalizador del conector de Tomcat.
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> hilosVirtualesTomcat() {
+		return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	/**
+	 * Ejecutor de las tareas asíncronas, como la escritura de las respuestas
+	 * {@code StreamingResponseBody}, con un hilo virtual por tarea.
+	 *
+	 * @return El ejecutor de tareas de la aplicación.
+	 */
+	@Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor" })
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	/**
+	 * Registra el límite de concurrencia delante de las rutas de misiones.
+	 *
+	 * @param peticionesMaximas Las peticiones simultáneas admitidas.
+	 * @param esperaMaxima      La espera máxima por un permiso.
+	 * @param registry          El registro de métricas.
+	 * @return El registro del filtro.
+	 */
+	@Bean
+	public FilterRegistrationBean<LimiteConcurrenciaFilter> limiteConcurrencia(
+			@Value("${apimision.hilos-virtuales.peticiones-maximas:${spring.datasource.hikari.maximum-pool-size:10}}") int peticionesMaximas,
+			@Value("${apimision.hilos-virtuales.espera-maxima:PT1S}") Duration esperaMaxima,
+			MeterRegistry registry) {
+		FilterRegistrationBean<LimiteConcurrenciaFilter> registro = new FilterRegistrationBean<>(
+				new LimiteConcurrenciaFilter(peticionesMaximas, esperaMaxima, registry));
+		registro.addUrlPatterns("/mision", "/mision/*");
+		registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+		return registro;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Clase {@code LiberacionPermiso} que devuelve a su semáforo el permiso de una
+ * petición cuando esta termina de verdad.
+ *
+ * <p>
+ * Una petición asíncrona, como el listado en NDJSON de {@code GET /mision},
+ * sale de la cadena de filtros en cuanto se inicia y sigue leyendo de la base
+ * de datos hasta que se completa, falla o expira. Liberar el permiso al salir
+ * del filtro dejaría pasar a otras tantas peticiones mientras la primera sigue
+ * abierta, así que en ese caso se libera desde un {@link AsyncListener}. El
+ * permiso se libera una sola vez aunque lleguen varios avisos, como
+ * {@code onError} seguido de {@code onComplete}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+final class LiberacionPermiso implements AsyncListener {
+
+	private final Semaphore semaforo;
+	private final AtomicBoolean liberado = new AtomicBoolean();
+
+	private LiberacionPermiso(Semaphore semaforo) {
+		this.semaforo = semaforo;
+	}
+
+	/**
+	 * Libera el permiso de una petición que acaba de salir de la cadena de
+	 * filtros: al momento si ha terminado o, si ha iniciado el modo asíncrono,
+	 * cuando este termine.
+	 *
+	 * @param request  La petición.
+	 * @param semaforo El semáforo del que se obtuvo el permiso.
+	 */
+	static void alTerminar(HttpServletRequest request, Semaphore semaforo) {
+		if (request.isAsyncStarted()) {
+			request.getAsyncContext().addListener(new LiberacionPermiso(semaforo));
+		} else {
+			semaforo.release();
+		}
+	}
+
+	@Override
+	public void onComplete(AsyncEvent event) {
+		liberar();
+	}
+
+	@Override
+	public void onTimeout(AsyncEvent event) {
+		liberar();
+	}
+
+	@Override
+	public void onError(AsyncEvent event) {
+		liberar();
+	}
+
+	@Override
+	public void onStartAsync(AsyncEvent event) {
+		// Un nuevo ciclo asíncrono de la misma petición mantiene el permiso
+		event.getAsyncContext().addListener(this);
+	}
+
+	private void liberar() {
+		if (liberado.compareAndSet(false, true)) {
+			semaforo.release();
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Clase {@code LimiteConcurrenciaFilter} que limita el número de peticiones que
+ * se atienden a la vez.
+ *
+ * <p>
+ * Con hilos virtuales el servidor no tiene un máximo de hilos que haga de
+ * límite, y todas las peticiones acabarían esperando por una conexión del pool.
+ * Este filtro admite como mucho {@code peticionesMaximas} peticiones
+ * simultáneas. Las demás esperan un permiso durante {@code esperaMaxima} y, si
+ * no lo obtienen, reciben un 503 (Service Unavailable). Una petición
+ * asíncrona, como el listado en NDJSON, ocupa su permiso hasta que se completa,
+ * ya que sigue leyendo de la base de datos después de salir del filtro.
+ * </p>
+ *
+ * <p>
+ * La suscripción a {@code GET /mision/cambios} queda fuera del límite: la
+ * conexión SSE puede durar hasta {@code apimision.cambios.duracion-maxima} sin
+ * ocupar una conexión del pool y ya tiene su propio máximo de suscriptores, así
+ * que unos pocos suscriptores bastarían para agotar los permisos y dejar sin
+ * servicio al resto de rutas.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+	private static final String SERVICIO_SATURADO = "Servicio saturado, inténtelo de nuevo más tarde.";
+	private static final String RUTA_CAMBIOS = "/mision/cambios";
+
+	private final Semaphore permisos;
+	private final long esperaMaximaNanos;
+	private final long reintentarSegundos;
+	private final Counter rechazadas;
+
+	public LimiteConcurrenciaFilter(int peticionesMaximas, Duration esperaMaxima, MeterRegistry registry) {
+		this.permisos = new Semaphore(peticionesMaximas, true);
+		this.esperaMaximaNanos = esperaMaxima.toNanos();
+		this.reintentarSegundos = Math.max(1, esperaMaxima.toSeconds());
+		this.rechazadas = Counter.builder("mision.concurrencia.rechazadas")
+				.description("Peticiones rechazadas por superar el límite de concurrencia")
+				.register(registry);
+		Gauge.builder("mision.concurrencia.disponibles", permisos, Semaphore::availablePermits)
+				.description("Permisos de concurrencia libres")
+				.register(registry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return RUTA_CAMBIOS.equals(request.getRequestURI().substring(request.getContextPath().length()));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean adquirido;
+		try {
+			adquirido = permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			adquirido = false;
+		}
+
+		if (!adquirido) {
+			rechazadas.increment();
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarSegundos));
+			response.setContentType("text/plain;charset=UTF-8");
+			response.getWriter().write(SERVICIO_SATURADO);
+			return;
+		}
+
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			LiberacionPermiso.alTerminar(request, permisos);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import com.viewnext.kidaprojects.apimision.config.LimitePeticionesFilter.Grupo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Clase {@code LimitePeticionesConfig} que, con
+ * {@code apimision.limite-peticiones.habilitado=true}, registra un
+ * {@link LimitePeticionesFilter} delante de las rutas de misiones.
+ *
+ * <p>
+ * El filtro se ejecuta antes que {@link LimiteConcurrenciaFilter}, de modo que
+ * las peticiones que sobran se rechazan sin llegar a esperar un permiso.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Configuration
+@Profile("!reactivo")
+@ConditionalOnProperty(name = "apimision.limite-peticiones.habilitado", havingValue = "true")
+public class LimitePeticionesConfig {
+
+	/**
+	 * Registra el límite de tasa por cliente y de concurrencia por grupo de rutas.
+	 *
+	 * @param cabeceraClave        La cabecera con la clave de API.
+	 * @param claves               Las claves de API conocidas.
+	 * @param peticionesPorSegundo Los tokens por segundo de cada cliente.
+	 * @param rafaga               Los tokens máximos de cada cliente.
+	 * @param maximoClientes       Los cubos de tokens que se guardan como
+	 *                             máximo.
+	 * @param costeLectura         Los tokens de una consulta.
+	 * @param costeListado         Los tokens de {@code GET /mision}.
+	 * @param costeCambios         Los tokens de {@code GET /mision/cambios}.
+	 * @param costeEscritura       Los tokens de un alta o cambio de estado.
+	 * @param costeReinicio        Los tokens de {@code POST /mision/reinicio}.
+	 * @param concurrenciaLectura  Las consultas simultáneas.
+	 * @param concurrenciaListado  Los {@code GET /mision} simultáneos.
+	 * @param concurrenciaCambios  Las suscripciones a los cambios simultáneas.
+	 * @param concurrenciaEscritura Las escrituras simultáneas.
+	 * @param concurrenciaReinicio Los reinicios simultáneos.
+	 * @param registry             El registro de métricas.
+	 * @return El registro del filtro.
+	 */
+	@Bean
+	public FilterRegistrationBean<LimitePeticionesFilter> limitePeticiones(
+			@Value("${apimision.limite-peticiones.cabecera-clave:X-API-Key}") String cabeceraClave,
+			@Value("${apimision.limite-peticiones.claves:}") List<String> claves,
+			@Value("${apimision.limite-peticiones.peticiones-por-segundo:50}") double peticionesPorSegundo,
+			@Value("${apimision.limite-peticiones.rafaga:100}") int rafaga,
+			@Value("${apimision.limite-peticiones.maximo-clientes:10000}") int maximoClientes,
+			@Value("${apimision.limite-peticiones.coste.lectura:1}") int costeLectura,
+			@Value("${apimision.limite-peticiones.coste.listado:5}") int costeListado,
+			@Value("${apimision.limite-peticiones.coste.cambios:1}") int costeCambios,
+			@Value("${apimision.limite-peticiones.coste.escritura:1}") int costeEscritura,
+			@Value("${apimision.limite-peticiones.coste.reinicio:50}") int costeReinicio,
+			@Value("${apimision.limite-peticiones.concurrencia.lectura:200}") int concurrenciaLectura,
+			@Value("${apimision.limite-peticiones.concurrencia.listado:8}") int concurrenciaListado,
+			@Value("${apimision.limite-peticiones.concurrencia.cambios:${apimision.cambios.maximo-suscriptores:1000}}") int concurrenciaCambios,
+			@Value("${apimision.limite-peticiones.concurrencia.escritura:50}") int concurrenciaEscritura,
+			@Value("${apimision.limite-peticiones.concurrencia.reinicio:1}") int concurrenciaReinicio,
+			MeterRegistry registry) {
+		Set<String> conocidas = new HashSet<>();
+		for (String clave : claves) {
+			if (!clave.isBlank()) {
+				conocidas.add(clave.trim());
+			}
+		}
+		LimitePeticionesFilter filtro = new LimitePeticionesFilter(cabeceraClave, conocidas, peticionesPorSegundo,
+				rafaga, maximoClientes,
+				Map.of(Grupo.LECTURA, costeLectura, Grupo.LISTADO, costeListado, Grupo.CAMBIOS, costeCambios,
+						Grupo.ESCRITURA, costeEscritura, Grupo.REINICIO, costeReinicio),
+				Map.of(Grupo.LECTURA, concurrenciaLectura, Grupo.LISTADO, concurrenciaListado, Grupo.CAMBIOS,
+						concurrenciaCambios, Grupo.ESCRITURA, concurrenciaEscritura, Grupo.REINICIO,
+						concurrenciaReinicio),
+				registry);
+
+		FilterRegistrationBean<LimitePeticionesFilter> registro = new FilterRegistrationBean<>(filtro);
+		registro.addUrlPatterns("/mision", "/mision/*");
+		registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+		return registro;
+	}
+
+}
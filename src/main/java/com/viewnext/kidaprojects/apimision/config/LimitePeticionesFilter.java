@@ -0,0 +1,266 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Clase {@code LimitePeticionesFilter} que limita la tasa de peticiones de cada
+ * cliente y la concurrencia de cada grupo de rutas, rechazando al momento lo
+ * que sobra en lugar de encolarlo.
+ *
+ * <p>
+ * Cada cliente, identificado por la cabecera de la clave de API si es una de
+ * las claves configuradas o, si no, por su dirección IP, tiene un cubo de
+ * tokens que se rellena a
+ * {@code peticionesPorSegundo} hasta {@code rafaga} tokens. Cada petición
+ * consume los tokens de su {@link Grupo}: las lecturas son baratas y el listado
+ * completo y el reinicio cuestan más. Sin tokens suficientes se responde 429
+ * (Too Many Requests) con el tiempo de espera en {@code Retry-After}.
+ * </p>
+ *
+ * <p>
+ * Además, cada grupo admite un número máximo de peticiones en curso entre todos
+ * los clientes; por encima se responde 503 (Service Unavailable) sin esperar.
+ * Una petición asíncrona, como una conexión SSE, mantiene su permiso hasta que
+ * se completa y no solo hasta que sale del filtro; por eso las suscripciones a
+ * {@code GET /mision/cambios} tienen su propio grupo y no agotan los permisos
+ * de las consultas.
+ * El cubo es un único {@code AtomicLong} que se actualiza con CAS, de modo que
+ * el filtro no añade bloqueos. Los cubos se guardan en una caché de como mucho
+ * {@code maximoClientes} entradas que descarta los que llevan sin usarse el
+ * tiempo de rellenar una ráfaga, ya que entonces están llenos y no guardan nada
+ * que no tenga un cubo nuevo.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class LimitePeticionesFilter extends OncePerRequestFilter {
+
+	private static final String DEMASIADAS_PETICIONES = "Demasiadas peticiones, inténtelo de nuevo más tarde.";
+	private static final String SERVICIO_SATURADO = "Servicio saturado, inténtelo de nuevo más tarde.";
+	private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * Grupos de rutas con su propio coste en tokens y su propio límite de
+	 * concurrencia.
+	 */
+	public enum Grupo {
+		/** Consultas {@code GET} salvo el listado completo y los cambios. */
+		LECTURA,
+		/** {@code GET /mision}, que puede devolver toda la tabla. */
+		LISTADO,
+		/**
+		 * {@code GET /mision/cambios}, cuya conexión SSE sigue abierta mientras dura
+		 * la suscripción.
+		 */
+		CAMBIOS,
+		/** Altas y cambios de estado. */
+		ESCRITURA,
+		/** {@code POST /mision/reinicio}, que actualiza toda la tabla. */
+		REINICIO;
+
+		/**
+		 * @param request La petición.
+		 * @return El grupo de la ruta de la petición.
+		 */
+		static Grupo de(HttpServletRequest request) {
+			String ruta = request.getRequestURI().substring(request.getContextPath().length());
+			if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+				if ("/mision".equals(ruta)) {
+					return LISTADO;
+				}
+				return "/mision/cambios".equals(ruta) ? CAMBIOS : LECTURA;
+			}
+			return "/mision/reinicio".equals(ruta) ? REINICIO : ESCRITURA;
+		}
+	}
+
+	/**
+	 * Cubo de tokens sin bloqueos, en la forma del algoritmo GCRA: en lugar de los
+	 * tokens se guarda el instante teórico en que el cubo volverá a estar lleno.
+	 * Consumir {@code n} tokens lo adelanta {@code n} intervalos, siempre que no
+	 * quede más allá de una ráfaga completa desde ahora.
+	 */
+	static final class CuboTokens {
+
+		private final AtomicLong lleno;
+
+		CuboTokens(long ahora) {
+			this.lleno = new AtomicLong(ahora);
+		}
+
+		/**
+		 * @param coste     Los tokens a consumir.
+		 * @param intervalo Los nanosegundos que tarda en reponerse un token.
+		 * @param capacidad Los nanosegundos que tarda en llenarse el cubo vacío.
+		 * @param ahora     El instante actual, en nanosegundos.
+		 * @return 0 si se han consumido los tokens, o los nanosegundos que faltan
+		 *         para tenerlos.
+		 */
+		long consumir(int coste, long intervalo, long capacidad, long ahora) {
+			while (true) {
+				long actual = lleno.get();
+				long siguiente = Math.max(actual, ahora) + coste * intervalo;
+				long exceso = siguiente - ahora - capacidad;
+				if (exceso > 0) {
+					return exceso;
+				}
+				if (lleno.compareAndSet(actual, siguiente)) {
+					return 0;
+				}
+			}
+		}
+
+	}
+
+	private final String cabeceraClave;
+	private final Set<String> claves;
+	private final long intervalo;
+	private final long capacidad;
+	private final Map<Grupo, Integer> costes;
+	private final Map<Grupo, Semaphore> permisos = new EnumMap<>(Grupo.class);
+	private final Cache<String, CuboTokens> cubos;
+	private final Map<Grupo, Counter> limitadas = new EnumMap<>(Grupo.class);
+	private final Map<Grupo, Counter> saturadas = new EnumMap<>(Grupo.class);
+
+	/**
+	 * @param cabeceraClave        La cabecera con la clave de API del cliente.
+	 * @param claves               Las claves de API conocidas; con cualquier otra
+	 *                             el cliente se identifica por su IP.
+	 * @param peticionesPorSegundo Los tokens que recupera cada cliente por
+	 *                             segundo.
+	 * @param rafaga               Los tokens máximos de cada cliente.
+	 * @param maximoClientes       Los cubos que se guardan como máximo.
+	 * @param costes               Los tokens que consume una petición de cada
+	 *                             grupo.
+	 * @param concurrencia         Las peticiones simultáneas de cada grupo.
+	 * @param registry             El registro de métricas.
+	 */
+	public LimitePeticionesFilter(String cabeceraClave, Set<String> claves, double peticionesPorSegundo, int rafaga,
+			int maximoClientes, Map<Grupo, Integer> costes, Map<Grupo, Integer> concurrencia,
+			MeterRegistry registry) {
+		this.cabeceraClave = cabeceraClave;
+		this.claves = Set.copyOf(claves);
+		this.intervalo = (long) (NANOS_POR_SEGUNDO / peticionesPorSegundo);
+		this.capacidad = rafaga * intervalo;
+		// Un cubo sin usar durante una ráfaga completa está lleno y equivale a uno nuevo
+		this.cubos = Caffeine.newBuilder()
+				.maximumSize(maximoClientes)
+				.expireAfterAccess(Duration.ofNanos(capacidad))
+				.build();
+		this.costes = new EnumMap<>(Grupo.class);
+		for (Grupo grupo : Grupo.values()) {
+			// Un coste mayor que la ráfaga no se podría pagar nunca
+			this.costes.put(grupo, Math.max(1, Math.min(costes.get(grupo), rafaga)));
+		}
+
+		for (Grupo grupo : Grupo.values()) {
+			Semaphore semaforo = new Semaphore(concurrencia.get(grupo));
+			String etiqueta = grupo.name().toLowerCase();
+			permisos.put(grupo, semaforo);
+			limitadas.put(grupo, Counter.builder("mision.limite.rechazadas")
+					.description("Peticiones rechazadas por límite de tasa (429) o de concurrencia (503)")
+					.tag("grupo", etiqueta)
+					.tag("motivo", "tasa")
+					.register(registry));
+			saturadas.put(grupo, Counter.builder("mision.limite.rechazadas")
+					.description("Peticiones rechazadas por límite de tasa (429) o de concurrencia (503)")
+					.tag("grupo", etiqueta)
+					.tag("motivo", "concurrencia")
+					.register(registry));
+			Gauge.builder("mision.limite.disponibles", semaforo, Semaphore::availablePermits)
+					.description("Permisos de concurrencia libres por grupo de rutas")
+					.tag("grupo", etiqueta)
+					.register(registry);
+		}
+		Gauge.builder("mision.limite.clientes", cubos, Cache::estimatedSize)
+				.description("Clientes con cubo de tokens")
+				.register(registry);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Grupo grupo = Grupo.de(request);
+		long ahora = System.nanoTime();
+
+		long espera = cubos.get(cliente(request), c -> new CuboTokens(ahora)).consumir(costes.get(grupo), intervalo, capacidad, ahora);
+		if (espera > 0) {
+			limitadas.get(grupo).increment();
+			rechazar(response, HttpStatus.TOO_MANY_REQUESTS, espera, DEMASIADAS_PETICIONES);
+			return;
+		}
+
+		Semaphore semaforo = permisos.get(grupo);
+		if (!semaforo.tryAcquire()) {
+			saturadas.get(grupo).increment();
+			rechazar(response, HttpStatus.SERVICE_UNAVAILABLE, 0, SERVICIO_SATURADO);
+			return;
+		}
+
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			LiberacionPermiso.alTerminar(request, semaforo);
+		}
+	}
+
+	/**
+	 * Identifica al cliente. Una clave de API que no es de las configuradas no se
+	 * tiene en cuenta, para que no baste con cambiarla en cada petición para
+	 * obtener un cubo nuevo.
+	 *
+	 * @param request La petición.
+	 * @return La clave de API del cliente si es conocida o, si no, su dirección
+	 *         IP.
+	 */
+	private String cliente(HttpServletRequest request) {
+		String clave = request.getHeader(cabeceraClave);
+		return clave != null && claves.contains(clave) ? "clave:" + clave : "ip:" + request.getRemoteAddr();
+	}
+
+	/**
+	 * Responde a una petición rechazada.
+	 *
+	 * @param response La respuesta.
+	 * @param estado   429 o 503.
+	 * @param espera   Los nanosegundos hasta poder repetir la petición, o 0.
+	 * @param mensaje  El cuerpo de la respuesta.
+	 */
+	private static void rechazar(HttpServletResponse response, HttpStatus estado, long espera, String mensaje)
+			throws IOException {
+		response.setStatus(estado.value());
+		long segundos = Math.max(1, (espera + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO);
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write(mensaje);
+	}
+
+}
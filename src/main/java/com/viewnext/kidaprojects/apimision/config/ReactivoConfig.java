@@ -0,0 +1,36 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Clase {@code ReactivoConfig} con la configuración del perfil {@code reactivo}.
+ *
+ * <p>
+ * Con Tomcat y Reactor Netty en el classpath, Spring Boot arrancaría la
+ * aplicación reactiva sobre Tomcat. Declarar la fábrica de Netty hace que las
+ * conexiones se atiendan con su bucle de eventos, sin un hilo por conexión.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Configuration
+@Profile("reactivo")
+public class ReactivoConfig {
+
+	/**
+	 * @return La fábrica del servidor web reactivo sobre Netty.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+}
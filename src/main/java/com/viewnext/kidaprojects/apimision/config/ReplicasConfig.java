@@ -0,0 +1,121 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.viewnext.kidaprojects.apimision.service.VersionCatalogo;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Clase {@code ReplicasConfig} que, con
+ * {@code apimision.replicas.habilitado=true}, sustituye el {@code DataSource}
+ * de Spring Boot por un {@link EnrutadorDataSource} que reparte las
+ * transacciones de solo lectura entre las réplicas de
+ * {@code apimision.replicas.urls}.
+ *
+ * <p>
+ * La primaria se configura como siempre, con {@code spring.datasource.*} y
+ * {@code spring.datasource.hikari.*}. Cada réplica es un pool Hikari con la
+ * misma configuración que la primaria, su propia URL y el nombre
+ * {@code <pool de la primaria>-replica-<n>}; si la primaria no tiene nombre, se
+ * llama {@code misiones}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Configuration
+@Profile("!reactivo")
+@ConditionalOnProperty(name = "apimision.replicas.habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+	/**
+	 * Pool de la base de datos primaria, igual que el que crearía Spring Boot.
+	 *
+	 * @param propiedades Las propiedades {@code spring.datasource.*}.
+	 * @return El pool de la primaria.
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSourcePrimaria(DataSourceProperties propiedades) {
+		HikariDataSource primaria = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		if (propiedades.getName() != null) {
+			primaria.setPoolName(propiedades.getName());
+		}
+		return primaria;
+	}
+
+	/**
+	 * Enrutador entre la primaria y las réplicas.
+	 *
+	 * @param primaria        El pool de la primaria.
+	 * @param urls            Las URL JDBC de las réplicas.
+	 * @param usuario         El usuario de las réplicas.
+	 * @param contrasena      La contraseña de las réplicas.
+	 * @param seleccion       El criterio para elegir réplica.
+	 * @param ventanaLectura  El tiempo tras una escritura en que las lecturas van
+	 *                        a la primaria.
+	 * @param versionCatalogo La versión del catálogo, que registra las escrituras.
+	 * @return El enrutador.
+	 */
+	@Bean
+	public EnrutadorDataSource enrutadorDataSource(@Qualifier("dataSourcePrimaria") HikariDataSource primaria,
+			@Value("${apimision.replicas.urls:}") List<String> urls,
+			@Value("${apimision.replicas.usuario:${spring.datasource.username:}}") String usuario,
+			@Value("${apimision.replicas.contrasena:${spring.datasource.password:}}") String contrasena,
+			@Value("${apimision.replicas.seleccion:ROUND_ROBIN}") EnrutadorDataSource.Seleccion seleccion,
+			@Value("${apimision.replicas.ventana-lectura:PT1S}") Duration ventanaLectura,
+			VersionCatalogo versionCatalogo) {
+		if (primaria.getPoolName() == null) {
+			primaria.setPoolName("misiones");
+		}
+		List<HikariDataSource> replicas = new ArrayList<>();
+		for (String url : urls) {
+			if (url.isBlank()) {
+				continue;
+			}
+			HikariDataSource replica = new HikariDataSource();
+			primaria.copyStateTo(replica);
+			replica.setJdbcUrl(url.trim());
+			replica.setUsername(usuario);
+			replica.setPassword(contrasena);
+			replica.setPoolName(primaria.getPoolName() + "-replica-" + replicas.size());
+			replicas.add(replica);
+		}
+		return new EnrutadorDataSource(primaria, replicas, seleccion, ventanaLectura, versionCatalogo);
+	}
+
+	/**
+	 * {@code DataSource} de la aplicación, que JPA y {@code JdbcTemplate} usan en
+	 * lugar del de Spring Boot. Retrasa la petición de la conexión hasta la
+	 * primera sentencia, para que el enrutador sepa si la transacción es de solo
+	 * lectura.
+	 *
+	 * @param enrutador El enrutador entre la primaria y las réplicas.
+	 * @return El {@code DataSource} de la aplicación.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(EnrutadorDataSource enrutador) {
+		return new LazyConnectionDataSourceProxy(enrutador);
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+/**
+ * La clase {@code BloqueImportacion} describe el resultado de insertar un
+ * bloque de misiones durante una importación masiva: su posición, el número de
+ * misiones, el tiempo empleado y, si falló, el motivo.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class BloqueImportacion {
+
+	private final int indice;
+	private final int misiones;
+	private final long duracionMs;
+	private final String error;
+
+	public BloqueImportacion(int indice, int misiones, long duracionMs, String error) {
+		super();
+		this.indice = indice;
+		this.misiones = misiones;
+		this.duracionMs = duracionMs;
+		this.error = error;
+	}
+
+	public int getIndice() {
+		return indice;
+	}
+
+	public int getMisiones() {
+		return misiones;
+	}
+
+	public long getDuracionMs() {
+		return duracionMs;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "BloqueImportacion [indice=" + indice + ", misiones=" + misiones + ", duracionMs=" + duracionMs
+				+ ", error=" + error + "]";
+	}
+
+}
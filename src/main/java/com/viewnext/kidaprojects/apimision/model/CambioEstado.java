@@ -0,0 +1,70 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+/**
+ * La clase {@code CambioEstado} es el resultado de un cambio de estado sobre una
+ * misión: si se ha aplicado y la versión de la misión tras la operación.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class CambioEstado {
+
+	/**
+	 * Resultado de un cambio de estado.
+	 */
+	public enum Resultado {
+		/** La misión ha cambiado de estado y su versión se ha incrementado. */
+		CAMBIADA,
+		/** La misión ya estaba en el estado pedido; no se ha modificado. */
+		SIN_CAMBIOS,
+		/** La misión no tiene la versión esperada; no se ha modificado. */
+		CONFLICTO,
+		/** No existe ninguna misión con el identificador indicado. */
+		NO_ENCONTRADA,
+		/**
+		 * El cambio se ha aceptado y se escribirá en la base de datos en el próximo
+		 * vaciado de {@code EscrituraDiferida}.
+		 */
+		PENDIENTE,
+		/** La cola de {@code EscrituraDiferida} está llena; no se ha aceptado. */
+		SATURADA
+	}
+
+	private final Resultado resultado;
+	private final Mision mision;
+
+	/**
+	 * @param resultado El resultado del cambio.
+	 * @param mision    La misión tras la operación, o {@code null} si no existe.
+	 */
+	public CambioEstado(Resultado resultado, Mision mision) {
+		super();
+		this.resultado = resultado;
+		this.mision = mision;
+	}
+
+	public Resultado getResultado() {
+		return resultado;
+	}
+
+	public Mision getMision() {
+		return mision;
+	}
+
+	/**
+	 * @return {@code true} si la misión ha cambiado de estado.
+	 */
+	public boolean isCambiada() {
+		return resultado == Resultado.CAMBIADA;
+	}
+
+	@Override
+	public String toString() {
+		return "CambioEstado [resultado=" + resultado + ", mision=" + mision + "]";
+	}
+
+}
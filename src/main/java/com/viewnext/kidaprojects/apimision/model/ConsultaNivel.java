@@ -0,0 +1,101 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+import java.util.Objects;
+
+/**
+ * La clase {@code ConsultaNivel} reúne los criterios de una búsqueda de
+ * misiones por nivel: el rango de niveles (ambos extremos incluidos), si solo
+ * se quieren misiones activas, el orden por recompensa y la página a devolver.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class ConsultaNivel {
+
+	/**
+	 * Orden de los resultados. Sin orden por recompensa, las misiones se devuelven
+	 * ordenadas por identificador.
+	 */
+	public enum Orden {
+		ID, RECOMPENSA_ASC, RECOMPENSA_DESC
+	}
+
+	private final int nivelMin;
+	private final int nivelMax;
+	private final boolean soloActivas;
+	private final Orden orden;
+	private final int pagina;
+	private final int tamano;
+
+	/**
+	 * @param nivelMin    El nivel mínimo, incluido.
+	 * @param nivelMax    El nivel máximo, incluido.
+	 * @param soloActivas Si solo deben devolverse misiones activas.
+	 * @param orden       El orden de los resultados.
+	 * @param pagina      El número de página, empezando en 0.
+	 * @param tamano      El tamaño de página, o {@link Integer#MAX_VALUE} para
+	 *                    devolver todos los resultados.
+	 */
+	public ConsultaNivel(int nivelMin, int nivelMax, boolean soloActivas, Orden orden, int pagina, int tamano) {
+		super();
+		this.nivelMin = nivelMin;
+		this.nivelMax = nivelMax;
+		this.soloActivas = soloActivas;
+		this.orden = orden;
+		this.pagina = pagina;
+		this.tamano = tamano;
+	}
+
+	public int getNivelMin() {
+		return nivelMin;
+	}
+
+	public int getNivelMax() {
+		return nivelMax;
+	}
+
+	public boolean isSoloActivas() {
+		return soloActivas;
+	}
+
+	public Orden getOrden() {
+		return orden;
+	}
+
+	public int getPagina() {
+		return pagina;
+	}
+
+	public int getTamano() {
+		return tamano;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(nivelMin, nivelMax, soloActivas, orden, pagina, tamano);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ConsultaNivel other = (ConsultaNivel) obj;
+		return nivelMin == other.nivelMin && nivelMax == other.nivelMax && soloActivas == other.soloActivas
+				&& orden == other.orden && pagina == other.pagina && tamano == other.tamano;
+	}
+
+	@Override
+	public String toString() {
+		return "ConsultaNivel [nivelMin=" + nivelMin + ", nivelMax=" + nivelMax + ", soloActivas=" + soloActivas
+				+ ", orden=" + orden + ", pagina=" + pagina + ", tamano=" + tamano + "]";
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+/**
+ * La clase {@code EstadisticaNivel} resume las misiones de un nivel: cuántas
+ * hay, cuántas están activas y superadas, y la suma de sus recompensas.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class EstadisticaNivel {
+
+	private final int nivel;
+	private final long misiones;
+	private final long activas;
+	private final long superadas;
+	private final long recompensa;
+
+	public EstadisticaNivel(int nivel, long misiones, long activas, long superadas, long recompensa) {
+		super();
+		this.nivel = nivel;
+		this.misiones = misiones;
+		this.activas = activas;
+		this.superadas = superadas;
+		this.recompensa = recompensa;
+	}
+
+	public int getNivel() {
+		return nivel;
+	}
+
+	public long getMisiones() {
+		return misiones;
+	}
+
+	public long getActivas() {
+		return activas;
+	}
+
+	public long getSuperadas() {
+		return superadas;
+	}
+
+	public long getRecompensa() {
+		return recompensa;
+	}
+
+	/**
+	 * Indica si los totales coinciden con los de otra estadística del mismo
+	 * nivel.
+	 *
+	 * @param otra La estadística con la que comparar.
+	 * @return {@code true} si todos los totales son iguales.
+	 */
+	public boolean mismosTotales(EstadisticaNivel otra) {
+		return misiones == otra.misiones && activas == otra.activas && superadas == otra.superadas
+				&& recompensa == otra.recompensa;
+	}
+
+	@Override
+	public String toString() {
+		return "EstadisticaNivel [nivel=" + nivel + ", misiones=" + misiones + ", activas=" + activas
+				+ ", superadas=" + superadas + ", recompensa=" + recompensa + "]";
+	}
+
+}
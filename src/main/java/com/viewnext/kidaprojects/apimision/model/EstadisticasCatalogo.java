@@ -0,0 +1,70 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+import java.util.List;
+
+/**
+ * La clase {@code EstadisticasCatalogo} contiene los totales del catálogo y su
+ * desglose por nivel, junto con su origen: {@code memoria} si proceden de los
+ * contadores que se mantienen con cada escritura, o {@code base-datos} si se
+ * han calculado con una consulta de agregación.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class EstadisticasCatalogo {
+
+	public static final String ORIGEN_MEMORIA = "memoria";
+	public static final String ORIGEN_BASE_DATOS = "base-datos";
+
+	private final String origen;
+	private final long misiones;
+	private final long activas;
+	private final long superadas;
+	private final long recompensa;
+	private final List<EstadisticaNivel> niveles;
+
+	public EstadisticasCatalogo(String origen, List<EstadisticaNivel> niveles) {
+		super();
+		this.origen = origen;
+		this.niveles = niveles;
+		this.misiones = niveles.stream().mapToLong(EstadisticaNivel::getMisiones).sum();
+		this.activas = niveles.stream().mapToLong(EstadisticaNivel::getActivas).sum();
+		this.superadas = niveles.stream().mapToLong(EstadisticaNivel::getSuperadas).sum();
+		this.recompensa = niveles.stream().mapToLong(EstadisticaNivel::getRecompensa).sum();
+	}
+
+	public String getOrigen() {
+		return origen;
+	}
+
+	public long getMisiones() {
+		return misiones;
+	}
+
+	public long getActivas() {
+		return activas;
+	}
+
+	public long getSuperadas() {
+		return superadas;
+	}
+
+	public long getRecompensa() {
+		return recompensa;
+	}
+
+	public List<EstadisticaNivel> getNiveles() {
+		return niveles;
+	}
+
+	@Override
+	public String toString() {
+		return "EstadisticasCatalogo [origen=" + origen + ", misiones=" + misiones + ", activas=" + activas
+				+ ", superadas=" + superadas + ", recompensa=" + recompensa + ", niveles=" + niveles + "]";
+	}
+
+}
@@ -0,0 +1,144 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * La clase {@code EventoCatalogo} describe una escritura confirmada en el
+ * catálogo de misiones, numerada en el orden en que se ha publicado.
+ *
+ * <p>
+ * Los eventos de una sola misión llevan la misión completa, con su versión; los
+ * de un lote llevan solo los identificadores y los de un reinicio, ninguno, ya
+ * que afectan a todas las misiones. Los de un bloque importado llevan solo el
+ * número de misiones y el intervalo de identificadores que ocupan, para que el
+ * canal no retenga las misiones de una importación grande: el suscriptor las
+ * lee por páginas con {@code GET /mision?cursor=<desde - 1>&limite=} hasta
+ * pasar de {@code hasta}, o parte de una instantánea. Aplicar un evento dos veces deja el mismo resultado que
+ * aplicarlo una.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoCatalogo {
+
+	/**
+	 * Tipo de escritura.
+	 */
+	public enum Tipo {
+		/** Se ha creado una misión. */
+		CREADA,
+		/**
+		 * Se han importado {@code total} misiones con identificadores entre
+		 * {@code desde} y {@code hasta}.
+		 */
+		IMPORTADAS,
+		/** Una misión ha pasado a superada. */
+		SUPERADA,
+		/** Una misión ha pasado a inactiva. */
+		INACTIVA,
+		/** Las misiones de {@code ids} han pasado a superadas. */
+		SUPERADAS,
+		/** Las misiones de {@code ids} han pasado a inactivas. */
+		INACTIVAS,
+		/** Todas las misiones han pasado a activas y no superadas. */
+		REINICIO
+	}
+
+	private final long secuencia;
+	private final Tipo tipo;
+	private final long instante;
+	private final List<Mision> misiones;
+	private final List<Integer> ids;
+	private final Integer total;
+	private final Integer desde;
+	private final Integer hasta;
+
+	/**
+	 * @param secuencia El número de orden del evento.
+	 * @param tipo      El tipo de escritura.
+	 * @param instante  El instante de la publicación, en milisegundos desde la
+	 *                  época.
+	 * @param misiones  Las misiones tras la escritura, o {@code null}.
+	 * @param ids       Los identificadores de las misiones del lote, o
+	 *                  {@code null}.
+	 */
+	public EventoCatalogo(long secuencia, Tipo tipo, long instante, List<Mision> misiones, List<Integer> ids) {
+		super();
+		this.secuencia = secuencia;
+		this.tipo = tipo;
+		this.instante = instante;
+		this.misiones = misiones;
+		this.ids = ids;
+		this.total = null;
+		this.desde = null;
+		this.hasta = null;
+	}
+
+	/**
+	 * @param secuencia El número de orden del evento.
+	 * @param tipo      El tipo de escritura.
+	 * @param instante  El instante de la publicación, en milisegundos desde la
+	 *                  época.
+	 * @param total     El número de misiones escritas.
+	 * @param desde     El menor identificador de las misiones escritas.
+	 * @param hasta     El mayor identificador de las misiones escritas.
+	 */
+	public EventoCatalogo(long secuencia, Tipo tipo, long instante, int total, int desde, int hasta) {
+		super();
+		this.secuencia = secuencia;
+		this.tipo = tipo;
+		this.instante = instante;
+		this.misiones = null;
+		this.ids = null;
+		this.total = total;
+		this.desde = desde;
+		this.hasta = hasta;
+	}
+
+	public long getSecuencia() {
+		return secuencia;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public long getInstante() {
+		return instante;
+	}
+
+	public List<Mision> getMisiones() {
+		return misiones;
+	}
+
+	public List<Integer> getIds() {
+		return ids;
+	}
+
+	public Integer getTotal() {
+		return total;
+	}
+
+	public Integer getDesde() {
+		return desde;
+	}
+
+	public Integer getHasta() {
+		return hasta;
+	}
+
+	@Override
+	public String toString() {
+		return "EventoCatalogo [secuencia=" + secuencia + ", tipo=" + tipo + ", instante=" + instante + ", misiones="
+				+ misiones + ", ids=" + ids + ", total=" + total + ", desde=" + desde + ", hasta=" + hasta + "]";
+	}
+
+}
@@ -6,10 +6,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "misiones")
+@Table(name = "misiones", indexes = @Index(name = "idx_misiones_nivel_activa_recompensa", columnList = "nivel, activa, recompensa"))
 public class Mision {
 
 	/**
@@ -34,6 +36,13 @@ public class Mision {
 	private int recompensa;
 	private boolean superada;
 	private boolean activa;
+
+	/**
+	 * Versión de la fila, que se incrementa con cada cambio de estado. Se usa para
+	 * el bloqueo optimista y como {@code ETag} de la misión.
+	 */
+	@Version
+	private long version;
 	
 	public Mision(String nombre, String descripcion, int nivel, int recompensa) {
 		super();
@@ -49,6 +58,24 @@ public class Mision {
 		super();
 	}
 
+	/**
+	 * Crea una copia de la misión indicada, para aplicar cambios de estado sin
+	 * modificar instancias compartidas.
+	 *
+	 * @param otra La misión a copiar.
+	 */
+	public Mision(Mision otra) {
+		super();
+		this.idMision = otra.idMision;
+		this.nombre = otra.nombre;
+		this.descripcion = otra.descripcion;
+		this.nivel = otra.nivel;
+		this.recompensa = otra.recompensa;
+		this.superada = otra.superada;
+		this.activa = otra.activa;
+		this.version = otra.version;
+	}
+
 	public int getIdMision() {
 		return idMision;
 	}
@@ -107,6 +134,14 @@ public class Mision {
 		this.activa = activa;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(idMision);
@@ -127,7 +162,7 @@ public class Mision {
 	@Override
 	public String toString() {
 		return "Mision [idMision=" + idMision + ", nombre=" + nombre + ", descripcion=" + descripcion + ", nivel="
-				+ nivel + ", recompensa=" + recompensa + ", superada=" + superada + ", activa=" + activa + "]";
+				+ nivel + ", recompensa=" + recompensa + ", superada=" + superada + ", activa=" + activa + ", version=" + version + "]";
 	}
 
 	
@@ -0,0 +1,26 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+/**
+ * La interfaz {@code MisionNombre} es una proyección de {@code Mision} que
+ * contiene únicamente el identificador y el nombre de la misión, para construir
+ * índices en memoria sin cargar la entidad completa.
+ *
+ * <p>
+ * El autor de esta interfaz es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public interface MisionNombre {
+
+	/**
+	 * @return El identificador de la misión.
+	 */
+	int getIdMision();
+
+	/**
+	 * @return El nombre de la misión.
+	 */
+	String getNombre();
+}
@@ -0,0 +1,26 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+/**
+ * La interfaz {@code MisionRecompensa} es una proyección de {@code Mision} que
+ * contiene únicamente el identificador y la recompensa de la misión, para
+ * consultar recompensas sin cargar la entidad completa.
+ *
+ * <p>
+ * El autor de esta interfaz es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public interface MisionRecompensa {
+
+	/**
+	 * @return El identificador de la misión.
+	 */
+	int getIdMision();
+
+	/**
+	 * @return La recompensa de la misión.
+	 */
+	int getRecompensa();
+}
@@ -0,0 +1,41 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+import java.util.List;
+
+/**
+ * La clase {@code PaginaMisiones} representa una página de misiones obtenida
+ * mediante paginación por clave. Contiene las misiones de la página y el cursor
+ * con el que solicitar la siguiente, o {@code null} si no quedan más.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class PaginaMisiones {
+
+	private final List<Mision> misiones;
+	private final Integer siguienteCursor;
+
+	public PaginaMisiones(List<Mision> misiones, Integer siguienteCursor) {
+		super();
+		this.misiones = misiones;
+		this.siguienteCursor = siguienteCursor;
+	}
+
+	public List<Mision> getMisiones() {
+		return misiones;
+	}
+
+	public Integer getSiguienteCursor() {
+		return siguienteCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "PaginaMisiones [misiones=" + misiones + ", siguienteCursor=" + siguienteCursor + "]";
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+import java.util.List;
+
+/**
+ * La clase {@code ResultadoImportacion} resume una importación masiva de
+ * misiones: misiones insertadas y fallidas, duración total y el detalle de
+ * cada bloque.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class ResultadoImportacion {
+
+	private final int insertadas;
+	private final int fallidas;
+	private final long duracionMs;
+	private final List<BloqueImportacion> bloques;
+
+	public ResultadoImportacion(int insertadas, int fallidas, long duracionMs, List<BloqueImportacion> bloques) {
+		super();
+		this.insertadas = insertadas;
+		this.fallidas = fallidas;
+		this.duracionMs = duracionMs;
+		this.bloques = bloques;
+	}
+
+	public int getInsertadas() {
+		return insertadas;
+	}
+
+	public int getFallidas() {
+		return fallidas;
+	}
+
+	public long getDuracionMs() {
+		return duracionMs;
+	}
+
+	public List<BloqueImportacion> getBloques() {
+		return bloques;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoImportacion [insertadas=" + insertadas + ", fallidas=" + fallidas + ", duracionMs="
+				+ duracionMs + ", bloques=" + bloques + "]";
+	}
+
+}
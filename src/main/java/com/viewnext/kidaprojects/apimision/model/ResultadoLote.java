@@ -0,0 +1,41 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+import java.util.List;
+
+/**
+ * La clase {@code ResultadoLote} resume un cambio de estado aplicado a varias
+ * misiones a la vez, separando los identificadores actualizados de los que no
+ * corresponden a ninguna misión.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class ResultadoLote {
+
+	private final List<Integer> actualizadas;
+	private final List<Integer> noEncontradas;
+
+	public ResultadoLote(List<Integer> actualizadas, List<Integer> noEncontradas) {
+		super();
+		this.actualizadas = actualizadas;
+		this.noEncontradas = noEncontradas;
+	}
+
+	public List<Integer> getActualizadas() {
+		return actualizadas;
+	}
+
+	public List<Integer> getNoEncontradas() {
+		return noEncontradas;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoLote [actualizadas=" + actualizadas + ", noEncontradas=" + noEncontradas + "]";
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.viewnext.kidaprojects.apimision.model;
+
+/**
+ * La clase {@code ResultadoReinicio} resume la ejecución de un reinicio de
+ * misiones: cuántas filas se han modificado, en cuántos bloques se ha dividido
+ * la operación y cuánto ha tardado.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class ResultadoReinicio {
+
+	private final int filasAfectadas;
+	private final int bloques;
+	private final long duracionMs;
+
+	public ResultadoReinicio(int filasAfectadas, int bloques, long duracionMs) {
+		super();
+		this.filasAfectadas = filasAfectadas;
+		this.bloques = bloques;
+		this.duracionMs = duracionMs;
+	}
+
+	public int getFilasAfectadas() {
+		return filasAfectadas;
+	}
+
+	public int getBloques() {
+		return bloques;
+	}
+
+	public long getDuracionMs() {
+		return duracionMs;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoReinicio [filasAfectadas=" + filasAfectadas + ", bloques=" + bloques + ", duracionMs="
+				+ duracionMs + "]";
+	}
+
+}
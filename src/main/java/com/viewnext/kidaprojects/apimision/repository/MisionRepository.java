@@ -1,42 +1,228 @@
 package com.viewnext.kidaprojects.apimision.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Pageable;
 
+import com.viewnext.kidaprojects.apimision.model.EstadisticaNivel;
 import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.MisionNombre;
+import com.viewnext.kidaprojects.apimision.model.MisionRecompensa;
 
 /**
  * La interfaz {@code MisionRepository} define métodos de acceso a la base de datos para la entidad {@code Mision}.
  * Permite realizar operaciones de búsqueda y persistencia de misiones.
  *
  * <p>
+ * Contiene solo las operaciones que usan los servicios. La implementan
+ * {@code MisionRepositoryJpa}, con Spring Data JPA, y, con
+ * {@code apimision.repositorio=jdbc}, {@code MisionRepositoryJdbc}. Las consultas
+ * se ejecutan en transacciones de solo lectura, que con réplicas habilitadas
+ * pueden resolverse en una réplica; las que modifican declaran su propia
+ * transacción.
+ * </p>
+ *
+ * <p>
  * El autor de esta interfaz es Víctor Colorado "Kid A".
  * </p>
  *
  * @version 1.0
  * @since 4 de Octubre de 2023
  */
-public interface MisionRepository extends JpaRepository<Mision, Integer> {
+public interface MisionRepository extends MisionRepositoryCustom {
+
+    /**
+     * Obtiene todas las misiones.
+     *
+     * @return Una lista con todas las misiones, vacía si no hay ninguna.
+     */
+    List<Mision> findAll();
+
+    /**
+     * Obtiene en una única consulta las misiones con los identificadores indicados.
+     *
+     * @param idsMision Los identificadores de las misiones.
+     * @return Las misiones existentes, en cualquier orden.
+     */
+    List<Mision> findAllById(Iterable<Integer> idsMision);
+
+    /**
+     * Busca una misión por su identificador.
+     *
+     * @param idMision El identificador de la misión.
+     * @return La misión, o vacío si no existe.
+     */
+    Optional<Mision> findById(Integer idMision);
 
     /**
-     * Busca misiones cuyos nombres comiencen con el prefijo especificado.
+     * Inserta la misión si no tiene identificador y, si lo tiene, la actualiza
+     * comprobando su versión; si la misión no existe o su versión ha cambiado, lanza
+     * {@code OptimisticLockingFailureException}.
      *
-     * @param prefijo El prefijo con el que deben comenzar los nombres de las misiones.
+     * @param <S>    El tipo de la misión.
+     * @param mision La misión a guardar.
+     * @return La misión guardada, con el identificador generado o la versión nueva.
+     */
+    <S extends Mision> S save(S mision);
+
+    /**
+     * Busca misiones cuyos nombres comiencen con el prefijo especificado, ordenadas por
+     * nombre. Los caracteres {@code %}, {@code _} y {@code !} del prefijo deben venir
+     * escapados con {@code !}.
+     *
+     * @param prefijo  El prefijo, ya escapado, con el que deben comenzar los nombres de las
+     *                 misiones.
+     * @param pageable La página a recuperar; limita el número de resultados.
      * @return Una lista de misiones que cumplen con el criterio de búsqueda.
      */
-    @Query("SELECT m FROM Mision m WHERE m.nombre LIKE :prefijo%")
-    List<Mision> findByNombrePrefijo(@Param("prefijo") String prefijo);
+    List<Mision> findByNombrePrefijo(String prefijo, Pageable pageable);
+
+    /**
+     * Recorre el identificador y el nombre de todas las misiones. Debe invocarse dentro
+     * de una transacción y el {@code Stream} debe cerrarse tras su uso.
+     *
+     * @return Un {@code Stream} con el identificador y el nombre de cada misión.
+     */
+    Stream<MisionNombre> streamNombres();
 
     /**
-     * Busca misiones cuyo nivel de dificultad sea igual o menor que el nivel especificado.
+     * Busca misiones cuyo nivel de dificultad esté entre los niveles especificados, ambos
+     * incluidos. El orden y la página se indican en {@code pageable}.
      *
-     * @param nivel El nivel de dificultad máximo de las misiones a buscar.
+     * @param nivelMin    El nivel de dificultad mínimo de las misiones a buscar.
+     * @param nivelMax    El nivel de dificultad máximo de las misiones a buscar.
+     * @param soloActivas Si solo deben devolverse misiones activas.
+     * @param pageable    La página y el orden de los resultados.
      * @return Una lista de misiones que cumplen con el criterio de búsqueda.
      */
-    @Query("SELECT m FROM Mision m WHERE m.nivel <= :nivel")
-    List<Mision> findByNivel(@Param("nivel") int nivel);
-}
+    List<Mision> findByNivelEntre(int nivelMin, int nivelMax,
+            boolean soloActivas, Pageable pageable);
+
+    /**
+     * Obtiene únicamente la recompensa de una misión, sin cargar la entidad.
+     *
+     * @param idMision El identificador de la misión.
+     * @return La recompensa de la misión, o vacío si no existe.
+     */
+    Optional<Integer> findRecompensaById(int idMision);
+
+    /**
+     * Obtiene el identificador y la recompensa de las misiones indicadas en una única
+     * consulta, sin cargar las entidades.
+     *
+     * @param idsMision Los identificadores de las misiones.
+     * @return Las recompensas de las misiones existentes.
+     */
+    List<MisionRecompensa> findRecompensasByIds(Collection<Integer> idsMision);
+
+    /**
+     * Busca, ordenadas por identificador, las misiones cuyo identificador sea mayor que
+     * el cursor indicado (paginación por clave). El tamaño de la página lo determina
+     * {@code pageable}; no se ejecuta consulta de recuento.
+     *
+     * @param cursor   El último identificador ya recibido por el cliente.
+     * @param pageable La página a recuperar; se utiliza solo su tamaño.
+     * @return Una lista con, como máximo, {@code pageable.getPageSize()} misiones.
+     */
+    List<Mision> findSiguientes(int cursor, Pageable pageable);
+
+    /**
+     * Recorre todas las misiones, ordenadas por identificador, a medida que se leen del
+     * cursor JDBC. Debe invocarse dentro de una transacción y el {@code Stream} debe
+     * cerrarse tras su uso.
+     *
+     * @return Un {@code Stream} con todas las misiones.
+     */
+    Stream<Mision> streamAll();
 
+    /**
+     * Reinicia, mediante una única sentencia {@code UPDATE}, todas las misiones que no
+     * estén ya activas y sin superar. No se carga ninguna entidad en memoria.
+     *
+     * @return El número de misiones modificadas.
+     */
+    int reiniciarTodas();
+
+    /**
+     * Reinicia las misiones cuyo identificador se encuentre en el rango indicado (ambos
+     * extremos incluidos) y que no estén ya activas y sin superar. Cada llamada se
+     * ejecuta en su propia transacción.
+     *
+     * @param desde El identificador inicial del rango.
+     * @param hasta El identificador final del rango.
+     * @return El número de misiones modificadas.
+     */
+    int reiniciarRango(int desde, int hasta);
+
+    /**
+     * Marca como superada una misión si tiene la versión indicada y no lo estaba ya,
+     * incrementando su versión.
+     *
+     * @param idMision El identificador de la misión.
+     * @param version  La versión que debe tener la misión.
+     * @return 1 si la misión ha cambiado de estado, 0 en otro caso.
+     */
+    int marcarSuperada(int idMision, long version);
+
+    /**
+     * Marca como inactiva una misión si tiene la versión indicada y no lo estaba ya,
+     * incrementando su versión.
+     *
+     * @param idMision El identificador de la misión.
+     * @param version  La versión que debe tener la misión.
+     * @return 1 si la misión ha cambiado de estado, 0 en otro caso.
+     */
+    int marcarInactiva(int idMision, long version);
+
+    /**
+     * Marca como superadas, en una única sentencia {@code UPDATE}, las misiones indicadas
+     * que no lo estuvieran ya, incrementando su versión.
+     *
+     * @param idsMision Los identificadores de las misiones.
+     * @return El número de misiones que han cambiado de estado.
+     */
+    int marcarSuperadas(Collection<Integer> idsMision);
+
+    /**
+     * Marca como inactivas, en una única sentencia {@code UPDATE}, las misiones indicadas
+     * que no lo estuvieran ya, incrementando su versión.
+     *
+     * @param idsMision Los identificadores de las misiones.
+     * @return El número de misiones que han cambiado de estado.
+     */
+    int marcarInactivas(Collection<Integer> idsMision);
+
+    /**
+     * Obtiene, de entre los identificadores indicados, los que corresponden a misiones
+     * existentes.
+     *
+     * @param idsMision Los identificadores a comprobar.
+     * @return Los identificadores de las misiones existentes.
+     */
+    List<Integer> findIdsExistentes(Collection<Integer> idsMision);
+
+    /**
+     * Calcula, en una única consulta de agregación, el número de misiones, las
+     * activas, las superadas y la suma de recompensas de cada nivel.
+     *
+     * @return Las estadísticas de los niveles con alguna misión, ordenadas por nivel.
+     */
+    List<EstadisticaNivel> agregarPorNivel();
+
+    /**
+     * Obtiene el menor identificador de misión registrado.
+     *
+     * @return El menor identificador, o {@code null} si no hay misiones.
+     */
+    Integer findMinIdMision();
+
+    /**
+     * Obtiene el mayor identificador de misión registrado.
+     *
+     * @return El mayor identificador, o {@code null} si no hay misiones.
+     */
+    Integer findMaxIdMision();
+}
@@ -0,0 +1,29 @@
+package com.viewnext.kidaprojects.apimision.repository;
+
+import java.util.List;
+
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+/**
+ * La interfaz {@code MisionRepositoryCustom} define las operaciones de
+ * {@code MisionRepository} que se implementan directamente sobre JDBC, fuera
+ * del contexto de persistencia de JPA.
+ *
+ * <p>
+ * El autor de esta interfaz es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public interface MisionRepositoryCustom {
+
+    /**
+     * Inserta las misiones indicadas en un único lote JDBC y asigna a cada una el
+     * identificador generado por la base de datos. El lote se ejecuta en una única
+     * transacción.
+     *
+     * @param misiones Las misiones a insertar.
+     */
+    void insertarEnLote(List<Mision> misiones);
+}
@@ -0,0 +1,78 @@
+package com.viewnext.kidaprojects.apimision.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+/**
+ * La clase {@code MisionRepositoryCustomImpl} implementa las operaciones de
+ * {@code MisionRepositoryCustom} con {@code JdbcTemplate}.
+ *
+ * <p>
+ * Hibernate no agrupa inserciones de entidades con identificador
+ * {@code IDENTITY}; aquí las inserciones se envían como un lote JDBC y los
+ * identificadores {@code AUTO_INCREMENT} se recuperan con
+ * {@code getGeneratedKeys()}. Con MySQL, {@code rewriteBatchedStatements=true}
+ * convierte el lote en sentencias {@code INSERT} de varias filas.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public class MisionRepositoryCustomImpl implements MisionRepositoryCustom {
+
+    private static final String INSERT_MISION = "INSERT INTO misiones "
+            + "(nombre, descripcion, nivel, recompensa, superada, activa, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta las misiones indicadas en un único lote JDBC y asigna a cada una el
+     * identificador generado por la base de datos.
+     *
+     * @param misiones Las misiones a insertar.
+     */
+    @Override
+    @Transactional
+    public void insertarEnLote(List<Mision> misiones) {
+        if (misiones.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(INSERT_MISION, Statement.RETURN_GENERATED_KEYS)) {
+                for (Mision mision : misiones) {
+                    ps.setString(1, mision.getNombre());
+                    ps.setString(2, mision.getDescripcion());
+                    ps.setInt(3, mision.getNivel());
+                    ps.setInt(4, mision.getRecompensa());
+                    ps.setBoolean(5, mision.isSuperada());
+                    ps.setBoolean(6, mision.isActiva());
+                    ps.setLong(7, mision.getVersion());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < misiones.size() && claves.next(); i++) {
+                        misiones.get(i).setIdMision(claves.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,433 @@
+package com.viewnext.kidaprojects.apimision.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viewnext.kidaprojects.apimision.model.EstadisticaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.MisionNombre;
+import com.viewnext.kidaprojects.apimision.model.MisionRecompensa;
+
+/**
+ * La clase {@code MisionRepositoryJdbc} implementa {@code MisionRepository} con
+ * {@code JdbcTemplate}, sentencias preparadas escritas a mano y un
+ * {@code RowMapper} propio, sin pasar por el contexto de persistencia de
+ * Hibernate: las misiones leídas no se registran en él ni se comprueban al
+ * confirmar la transacción.
+ *
+ * <p>
+ * Se usa en lugar del repositorio JPA con {@code apimision.repositorio=jdbc}.
+ * Las sentencias son las mismas que las consultas JPQL de
+ * {@code MisionRepositoryJpa}, y las escrituras mantienen la versión igual que
+ * Hibernate: {@link #save(Mision)} de una misión existente la actualiza solo si
+ * conserva su versión y, si no, lanza {@code OptimisticLockingFailureException}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Repository
+@Primary
+@Profile("!reactivo")
+@ConditionalOnProperty(name = "apimision.repositorio", havingValue = "jdbc")
+@Transactional(readOnly = true)
+public class MisionRepositoryJdbc implements MisionRepository {
+
+    private static final String COLUMNAS = "id_mision, nombre, descripcion, nivel, recompensa, superada, activa, version";
+    private static final String SELECT_MISION = "SELECT " + COLUMNAS + " FROM misiones";
+    private static final String INSERT_MISION = "INSERT INTO misiones "
+            + "(nombre, descripcion, nivel, recompensa, superada, activa, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_MISION = "UPDATE misiones SET nombre = ?, descripcion = ?, nivel = ?, "
+            + "recompensa = ?, superada = ?, activa = ?, version = version + 1 WHERE id_mision = ? AND version = ?";
+    private static final String REINICIO = "UPDATE misiones SET activa = true, superada = false, version = version + 1 "
+            + "WHERE (activa = false OR superada = true)";
+
+    /**
+     * Columna de cada propiedad de {@code Mision}, para traducir los
+     * {@code Sort}.
+     */
+    private static final Map<String, String> COLUMNA_PROPIEDAD = Map.of("idMision", "id_mision", "nombre", "nombre",
+            "descripcion", "descripcion", "nivel", "nivel", "recompensa", "recompensa", "superada", "superada",
+            "activa", "activa", "version", "version");
+
+    private static final int TAMANO_FETCH = 500;
+
+    private static final RowMapper<Mision> MISION = (rs, fila) -> {
+        Mision mision = new Mision();
+        mision.setIdMision(rs.getInt(1));
+        mision.setNombre(rs.getString(2));
+        mision.setDescripcion(rs.getString(3));
+        mision.setNivel(rs.getInt(4));
+        mision.setRecompensa(rs.getInt(5));
+        mision.setSuperada(rs.getBoolean(6));
+        mision.setActiva(rs.getBoolean(7));
+        mision.setVersion(rs.getLong(8));
+        return mision;
+    };
+
+    private static final RowMapper<MisionNombre> NOMBRE = (rs, fila) -> new Nombre(rs.getInt(1), rs.getString(2));
+
+    private static final RowMapper<MisionRecompensa> RECOMPENSA = (rs, fila) -> new Recompensa(rs.getInt(1),
+            rs.getInt(2));
+
+    private static final RowMapper<EstadisticaNivel> ESTADISTICA = (rs, fila) -> new EstadisticaNivel(rs.getInt(1),
+            rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Plantilla con un tamaño de lectura anticipada para los recorridos de toda la
+     * tabla, igual que la pista {@code HINT_FETCH_SIZE} de las consultas JPA.
+     */
+    private final JdbcTemplate jdbcTemplateRecorridos;
+
+    public MisionRepositoryJdbc(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+        this.jdbcTemplateRecorridos = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplateRecorridos.setFetchSize(TAMANO_FETCH);
+    }
+
+    // Consultas de MisionRepository
+
+    @Override
+    public List<Mision> findByNombrePrefijo(String prefijo, Pageable pageable) {
+        return jdbcTemplate.query(paginar(SELECT_MISION + " WHERE nombre LIKE ? ESCAPE '!'",
+                Sort.by("nombre"), pageable), MISION, prefijo + "%");
+    }
+
+    @Override
+    public Stream<MisionNombre> streamNombres() {
+        return jdbcTemplateRecorridos.queryForStream("SELECT id_mision, nombre FROM misiones", NOMBRE);
+    }
+
+    @Override
+    public List<Mision> findByNivelEntre(int nivelMin, int nivelMax, boolean soloActivas, Pageable pageable) {
+        return jdbcTemplate.query(paginar(SELECT_MISION + " WHERE nivel BETWEEN ? AND ? AND (? = false OR activa = true)",
+                Sort.unsorted(), pageable), MISION, nivelMin, nivelMax, soloActivas);
+    }
+
+    @Override
+    public Optional<Integer> findRecompensaById(int idMision) {
+        return jdbcTemplate.query("SELECT recompensa FROM misiones WHERE id_mision = ?",
+                (rs, fila) -> rs.getInt(1), idMision).stream().findFirst();
+    }
+
+    @Override
+    public List<MisionRecompensa> findRecompensasByIds(Collection<Integer> idsMision) {
+        return namedJdbcTemplate.query("SELECT id_mision, recompensa FROM misiones WHERE id_mision IN (:ids)",
+                ids(idsMision), RECOMPENSA);
+    }
+
+    @Override
+    public List<Mision> findSiguientes(int cursor, Pageable pageable) {
+        return jdbcTemplate.query(paginar(SELECT_MISION + " WHERE id_mision > ?", Sort.by("idMision"), pageable),
+                MISION, cursor);
+    }
+
+    @Override
+    public Stream<Mision> streamAll() {
+        return jdbcTemplateRecorridos.queryForStream(SELECT_MISION + " ORDER BY id_mision", MISION);
+    }
+
+    @Override
+    @Transactional
+    public int reiniciarTodas() {
+        return jdbcTemplate.update(REINICIO);
+    }
+
+    @Override
+    @Transactional
+    public int reiniciarRango(int desde, int hasta) {
+        return jdbcTemplate.update(REINICIO + " AND id_mision BETWEEN ? AND ?", desde, hasta);
+    }
+
+    @Override
+    @Transactional
+    public int marcarSuperada(int idMision, long version) {
+        return jdbcTemplate.update("UPDATE misiones SET superada = true, version = version + 1 "
+                + "WHERE id_mision = ? AND version = ? AND superada = false", idMision, version);
+    }
+
+    @Override
+    @Transactional
+    public int marcarInactiva(int idMision, long version) {
+        return jdbcTemplate.update("UPDATE misiones SET activa = false, version = version + 1 "
+                + "WHERE id_mision = ? AND version = ? AND activa = true", idMision, version);
+    }
+
+    @Override
+    @Transactional
+    public int marcarSuperadas(Collection<Integer> idsMision) {
+        return namedJdbcTemplate.update("UPDATE misiones SET superada = true, version = version + 1 "
+                + "WHERE id_mision IN (:ids) AND superada = false", ids(idsMision));
+    }
+
+    @Override
+    @Transactional
+    public int marcarInactivas(Collection<Integer> idsMision) {
+        return namedJdbcTemplate.update("UPDATE misiones SET activa = false, version = version + 1 "
+                + "WHERE id_mision IN (:ids) AND activa = true", ids(idsMision));
+    }
+
+    @Override
+    public List<Integer> findIdsExistentes(Collection<Integer> idsMision) {
+        return namedJdbcTemplate.queryForList("SELECT id_mision FROM misiones WHERE id_mision IN (:ids)",
+                ids(idsMision), Integer.class);
+    }
+
+    @Override
+    public List<EstadisticaNivel> agregarPorNivel() {
+        return jdbcTemplate.query("SELECT nivel, COUNT(*), SUM(CASE WHEN activa = true THEN 1 ELSE 0 END), "
+                + "SUM(CASE WHEN superada = true THEN 1 ELSE 0 END), SUM(recompensa) FROM misiones "
+                + "GROUP BY nivel ORDER BY nivel", ESTADISTICA);
+    }
+
+    @Override
+    public Integer findMinIdMision() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id_mision) FROM misiones", Integer.class);
+    }
+
+    @Override
+    public Integer findMaxIdMision() {
+        return jdbcTemplate.queryForObject("SELECT MAX(id_mision) FROM misiones", Integer.class);
+    }
+
+    /**
+     * Inserta las misiones indicadas en un único lote JDBC y asigna a cada una el
+     * identificador generado por la base de datos, igual que
+     * {@code MisionRepositoryCustomImpl}.
+     *
+     * @param misiones Las misiones a insertar.
+     */
+    @Override
+    @Transactional
+    public void insertarEnLote(List<Mision> misiones) {
+        if (misiones.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(INSERT_MISION, Statement.RETURN_GENERATED_KEYS)) {
+                for (Mision mision : misiones) {
+                    valoresInsercion(ps, mision);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < misiones.size() && claves.next(); i++) {
+                        misiones.get(i).setIdMision(claves.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // Lectura y escritura de misiones completas
+
+    /**
+     * Inserta la misión si no tiene identificador y, si lo tiene, la actualiza
+     * comprobando su versión.
+     *
+     * @param mision La misión a guardar.
+     * @return La misma misión, con el identificador generado o la versión nueva.
+     * @throws OptimisticLockingFailureException Si la misión no existe o su versión
+     *                                           ha cambiado.
+     */
+    @Override
+    @Transactional
+    public <S extends Mision> S save(S mision) {
+        if (mision.getIdMision() == 0) {
+            KeyHolder clave = new GeneratedKeyHolder();
+            jdbcTemplate.update(conexion -> {
+                PreparedStatement ps = conexion.prepareStatement(INSERT_MISION, Statement.RETURN_GENERATED_KEYS);
+                valoresInsercion(ps, mision);
+                return ps;
+            }, clave);
+            mision.setIdMision(clave.getKeyAs(Number.class).intValue());
+            return mision;
+        }
+
+        int filas = jdbcTemplate.update(UPDATE_MISION, mision.getNombre(), mision.getDescripcion(), mision.getNivel(),
+                mision.getRecompensa(), mision.isSuperada(), mision.isActiva(), mision.getIdMision(),
+                mision.getVersion());
+        if (filas == 0) {
+            throw new OptimisticLockingFailureException("La misión " + mision.getIdMision()
+                    + " no existe o no tiene la versión " + mision.getVersion());
+        }
+        mision.setVersion(mision.getVersion() + 1);
+        return mision;
+    }
+
+    @Override
+    public Optional<Mision> findById(Integer idMision) {
+        return jdbcTemplate.query(SELECT_MISION + " WHERE id_mision = ?", MISION, idMision).stream().findFirst();
+    }
+
+    @Override
+    public List<Mision> findAll() {
+        return jdbcTemplate.query(SELECT_MISION, MISION);
+    }
+
+    @Override
+    public List<Mision> findAllById(Iterable<Integer> idsMision) {
+        List<Integer> ids = lista(idsMision);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(SELECT_MISION + " WHERE id_mision IN (:ids)", ids(ids), MISION);
+    }
+
+    // Utilidades
+
+    /**
+     * Asigna los parámetros de la inserción de una misión.
+     *
+     * @param ps     La sentencia preparada.
+     * @param mision La misión a insertar.
+     * @throws SQLException Si no se puede asignar algún parámetro.
+     */
+    private static void valoresInsercion(PreparedStatement ps, Mision mision) throws SQLException {
+        ps.setString(1, mision.getNombre());
+        ps.setString(2, mision.getDescripcion());
+        ps.setInt(3, mision.getNivel());
+        ps.setInt(4, mision.getRecompensa());
+        ps.setBoolean(5, mision.isSuperada());
+        ps.setBoolean(6, mision.isActiva());
+        ps.setLong(7, mision.getVersion());
+    }
+
+    /**
+     * Añade a una consulta el orden y la página indicados. El orden de
+     * {@code pageable}, si lo tiene, sustituye al de la consulta, igual que en
+     * Spring Data JPA.
+     *
+     * @param sql      La consulta sin {@code ORDER BY}.
+     * @param orden    El orden propio de la consulta.
+     * @param pageable La página y, opcionalmente, el orden.
+     * @return La consulta con {@code ORDER BY}, {@code LIMIT} y {@code OFFSET}.
+     */
+    private static String paginar(String sql, Sort orden, Pageable pageable) {
+        String consulta = sql + ordenar(pageable.getSort().isSorted() ? pageable.getSort() : orden);
+        if (pageable.isUnpaged()) {
+            return consulta;
+        }
+        return consulta + " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+    }
+
+    /**
+     * Traduce un {@code Sort} sobre propiedades de {@code Mision} a una cláusula
+     * {@code ORDER BY}.
+     *
+     * @param sort El orden.
+     * @return La cláusula, con un espacio delante, o una cadena vacía si no hay
+     *         orden.
+     * @throws InvalidDataAccessApiUsageException Si alguna propiedad no existe.
+     */
+    private static String ordenar(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream().map(orden -> {
+            String columna = COLUMNA_PROPIEDAD.get(orden.getProperty());
+            if (columna == null) {
+                throw new InvalidDataAccessApiUsageException(
+                        "Mision no tiene la propiedad " + orden.getProperty());
+            }
+            return columna + (orden.isAscending() ? " ASC" : " DESC");
+        }).collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static MapSqlParameterSource ids(Collection<Integer> idsMision) {
+        return new MapSqlParameterSource("ids", idsMision);
+    }
+
+    private static List<Integer> lista(Iterable<Integer> ids) {
+        List<Integer> lista = new ArrayList<>();
+        ids.forEach(lista::add);
+        return lista;
+    }
+
+    /**
+     * Identificador y nombre de una misión.
+     */
+    private static final class Nombre implements MisionNombre {
+
+        private final int idMision;
+        private final String nombre;
+
+        Nombre(int idMision, String nombre) {
+            this.idMision = idMision;
+            this.nombre = nombre;
+        }
+
+        @Override
+        public int getIdMision() {
+            return idMision;
+        }
+
+        @Override
+        public String getNombre() {
+            return nombre;
+        }
+
+    }
+
+    /**
+     * Identificador y recompensa de una misión.
+     */
+    private static final class Recompensa implements MisionRecompensa {
+
+        private final int idMision;
+        private final int recompensa;
+
+        Recompensa(int idMision, int recompensa) {
+            this.idMision = idMision;
+            this.recompensa = recompensa;
+        }
+
+        @Override
+        public int getIdMision() {
+            return idMision;
+        }
+
+        @Override
+        public int getRecompensa() {
+            return recompensa;
+        }
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.viewnext.kidaprojects.apimision.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.viewnext.kidaprojects.apimision.model.EstadisticaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.MisionNombre;
+import com.viewnext.kidaprojects.apimision.model.MisionRecompensa;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * La interfaz {@code MisionRepositoryJpa} implementa {@link MisionRepository}
+ * con Spring Data JPA: cada consulta se declara en JPQL y
+ * {@code insertarEnLote} la aporta {@code MisionRepositoryCustomImpl}.
+ *
+ * <p>
+ * Las consultas se ejecutan en transacciones de solo lectura; las que modifican
+ * declaran su propia transacción.
+ * </p>
+ *
+ * <p>
+ * El autor de esta interfaz es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Transactional(readOnly = true)
+public interface MisionRepositoryJpa extends JpaRepository<Mision, Integer>, MisionRepository, MisionRepositoryCustom {
+
+    @Override
+    @Query("SELECT m FROM Mision m WHERE m.nombre LIKE :prefijo% ESCAPE '!' ORDER BY m.nombre")
+    List<Mision> findByNombrePrefijo(@Param("prefijo") String prefijo, Pageable pageable);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m.idMision AS idMision, m.nombre AS nombre FROM Mision m")
+    Stream<MisionNombre> streamNombres();
+
+    @Override
+    @Query("SELECT m FROM Mision m WHERE m.nivel BETWEEN :nivelMin AND :nivelMax "
+            + "AND (:soloActivas = false OR m.activa = true)")
+    List<Mision> findByNivelEntre(@Param("nivelMin") int nivelMin, @Param("nivelMax") int nivelMax,
+            @Param("soloActivas") boolean soloActivas, Pageable pageable);
+
+    @Override
+    @Query("SELECT m.recompensa FROM Mision m WHERE m.idMision = :idMision")
+    Optional<Integer> findRecompensaById(@Param("idMision") int idMision);
+
+    @Override
+    @Query("SELECT m.idMision AS idMision, m.recompensa AS recompensa FROM Mision m "
+            + "WHERE m.idMision IN :idsMision")
+    List<MisionRecompensa> findRecompensasByIds(@Param("idsMision") Collection<Integer> idsMision);
+
+    @Override
+    @Query("SELECT m FROM Mision m WHERE m.idMision > :cursor ORDER BY m.idMision")
+    List<Mision> findSiguientes(@Param("cursor") int cursor, Pageable pageable);
+
+    @Override
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT m FROM Mision m ORDER BY m.idMision")
+    Stream<Mision> streamAll();
+
+    @Override
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mision m SET m.activa = true, m.superada = false, m.version = m.version + 1 "
+            + "WHERE m.activa = false OR m.superada = true")
+    int reiniciarTodas();
+
+    @Override
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mision m SET m.activa = true, m.superada = false, m.version = m.version + 1 "
+            + "WHERE m.idMision BETWEEN :desde AND :hasta AND (m.activa = false OR m.superada = true)")
+    int reiniciarRango(@Param("desde") int desde, @Param("hasta") int hasta);
+
+    @Override
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mision m SET m.superada = true, m.version = m.version + 1 "
+            + "WHERE m.idMision = :idMision AND m.version = :version AND m.superada = false")
+    int marcarSuperada(@Param("idMision") int idMision, @Param("version") long version);
+
+    @Override
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mision m SET m.activa = false, m.version = m.version + 1 "
+            + "WHERE m.idMision = :idMision AND m.version = :version AND m.activa = true")
+    int marcarInactiva(@Param("idMision") int idMision, @Param("version") long version);
+
+    @Override
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mision m SET m.superada = true, m.version = m.version + 1 "
+            + "WHERE m.idMision IN :idsMision AND m.superada = false")
+    int marcarSuperadas(@Param("idsMision") Collection<Integer> idsMision);
+
+    @Override
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Mision m SET m.activa = false, m.version = m.version + 1 "
+            + "WHERE m.idMision IN :idsMision AND m.activa = true")
+    int marcarInactivas(@Param("idsMision") Collection<Integer> idsMision);
+
+    @Override
+    @Query("SELECT m.idMision FROM Mision m WHERE m.idMision IN :idsMision")
+    List<Integer> findIdsExistentes(@Param("idsMision") Collection<Integer> idsMision);
+
+    @Override
+    @Query("SELECT new com.viewnext.kidaprojects.apimision.model.EstadisticaNivel(m.nivel, COUNT(m), "
+            + "SUM(CASE WHEN m.activa = true THEN 1L ELSE 0L END), "
+            + "SUM(CASE WHEN m.superada = true THEN 1L ELSE 0L END), SUM(m.recompensa)) "
+            + "FROM Mision m GROUP BY m.nivel ORDER BY m.nivel")
+    List<EstadisticaNivel> agregarPorNivel();
+
+    @Override
+    @Query("SELECT MIN(m.idMision) FROM Mision m")
+    Integer findMinIdMision();
+
+    @Override
+    @Query("SELECT MAX(m.idMision) FROM Mision m")
+    Integer findMaxIdMision();
+}
@@ -0,0 +1,276 @@
+package com.viewnext.kidaprojects.apimision.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code MisionRepositoryReactivo} es la contrapartida no bloqueante de
+ * {@code MisionRepository} para el perfil {@code reactivo}. Ejecuta las
+ * consultas con {@code DatabaseClient} sobre R2DBC y emite las filas a medida
+ * que el suscriptor las solicita.
+ *
+ * <p>
+ * Las sentencias se escriben en SQL sobre la tabla {@code misiones}, igual que
+ * las de {@code MisionRepositoryCustomImpl}, de modo que la entidad
+ * {@code Mision} no necesita anotaciones de Spring Data R2DBC.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Repository
+@Profile("reactivo")
+public class MisionRepositoryReactivo {
+
+    private static final String SELECT_MISIONES = "SELECT id_mision, nombre, descripcion, nivel, recompensa, "
+            + "superada, activa, version FROM misiones";
+
+    private static final String INSERT_MISION = "INSERT INTO misiones "
+            + "(nombre, descripcion, nivel, recompensa, superada, activa, version) "
+            + "VALUES (:nombre, :descripcion, :nivel, :recompensa, :superada, :activa, :version)";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * @return Todas las misiones, ordenadas por identificador.
+     */
+    public Flux<Mision> findAll() {
+        return databaseClient.sql(SELECT_MISIONES + " ORDER BY id_mision")
+                .map(MisionRepositoryReactivo::mapear)
+                .all();
+    }
+
+    /**
+     * Obtiene las misiones con identificador mayor que el cursor, en orden
+     * ascendente.
+     *
+     * @param cursor El último identificador recibido.
+     * @param limite El número máximo de misiones.
+     * @return Las misiones de la página.
+     */
+    public Flux<Mision> findSiguientes(int cursor, int limite) {
+        return databaseClient.sql(SELECT_MISIONES + " WHERE id_mision > :cursor ORDER BY id_mision LIMIT :limite")
+                .bind("cursor", cursor)
+                .bind("limite", limite)
+                .map(MisionRepositoryReactivo::mapear)
+                .all();
+    }
+
+    /**
+     * @param idMision El identificador de la misión.
+     * @return La misión, o vacío si no existe.
+     */
+    public Mono<Mision> findById(int idMision) {
+        return databaseClient.sql(SELECT_MISIONES + " WHERE id_mision = :idMision")
+                .bind("idMision", idMision)
+                .map(MisionRepositoryReactivo::mapear)
+                .one();
+    }
+
+    /**
+     * Obtiene las misiones cuyo nombre empieza por el prefijo indicado, ordenadas
+     * por nombre.
+     *
+     * @param prefijo El prefijo, con los caracteres comodín ya escapados con
+     *                {@code !}.
+     * @param limite  El número máximo de misiones.
+     * @return Las misiones encontradas.
+     */
+    public Flux<Mision> findByNombrePrefijo(String prefijo, int limite) {
+        return databaseClient.sql(SELECT_MISIONES
+                + " WHERE nombre LIKE CONCAT(:prefijo, '%') ESCAPE '!' ORDER BY nombre LIMIT :limite")
+                .bind("prefijo", prefijo)
+                .bind("limite", limite)
+                .map(MisionRepositoryReactivo::mapear)
+                .all();
+    }
+
+    /**
+     * Obtiene la página de misiones que cumple los criterios de una búsqueda por
+     * nivel.
+     *
+     * @param consulta Los criterios de la búsqueda.
+     * @return Las misiones de la página, en el orden pedido.
+     */
+    public Flux<Mision> findByNivelEntre(ConsultaNivel consulta) {
+        String sql = SELECT_MISIONES + " WHERE nivel BETWEEN :nivelMin AND :nivelMax"
+                + (consulta.isSoloActivas() ? " AND activa = TRUE" : "")
+                + " ORDER BY " + ordenSql(consulta.getOrden())
+                + " LIMIT :limite OFFSET :desplazamiento";
+        return databaseClient.sql(sql)
+                .bind("nivelMin", consulta.getNivelMin())
+                .bind("nivelMax", consulta.getNivelMax())
+                .bind("limite", consulta.getTamano())
+                .bind("desplazamiento", (long) consulta.getPagina() * consulta.getTamano())
+                .map(MisionRepositoryReactivo::mapear)
+                .all();
+    }
+
+    /**
+     * @param idMision El identificador de la misión.
+     * @return La recompensa de la misión, o vacío si no existe.
+     */
+    public Mono<Integer> findRecompensaById(int idMision) {
+        return databaseClient.sql("SELECT recompensa FROM misiones WHERE id_mision = :idMision")
+                .bind("idMision", idMision)
+                .map(fila -> fila.get("recompensa", Integer.class))
+                .one();
+    }
+
+    /**
+     * @param idsMision Los identificadores de las misiones.
+     * @return Pares de identificador y recompensa de las misiones existentes.
+     */
+    public Flux<Map.Entry<Integer, Integer>> findRecompensasByIds(Collection<Integer> idsMision) {
+        return databaseClient.sql("SELECT id_mision, recompensa FROM misiones WHERE id_mision IN (:idsMision)")
+                .bind("idsMision", idsMision)
+                .map(fila -> Map.entry(fila.get("id_mision", Integer.class), fila.get("recompensa", Integer.class)))
+                .all();
+    }
+
+    /**
+     * @param idsMision Los identificadores a comprobar.
+     * @return Los identificadores de las misiones existentes.
+     */
+    public Flux<Integer> findIdsExistentes(Collection<Integer> idsMision) {
+        return databaseClient.sql("SELECT id_mision FROM misiones WHERE id_mision IN (:idsMision)")
+                .bind("idsMision", idsMision)
+                .map(fila -> fila.get("id_mision", Integer.class))
+                .all();
+    }
+
+    /**
+     * Inserta una misión y le asigna el identificador generado por la base de
+     * datos.
+     *
+     * @param mision La misión a insertar.
+     * @return La misma misión, con su identificador.
+     */
+    public Mono<Mision> insertar(Mision mision) {
+        return databaseClient.sql(INSERT_MISION)
+                .filter(sentencia -> sentencia.returnGeneratedValues("id_mision"))
+                .bind("nombre", mision.getNombre())
+                .bind("descripcion", mision.getDescripcion())
+                .bind("nivel", mision.getNivel())
+                .bind("recompensa", mision.getRecompensa())
+                .bind("superada", mision.isSuperada())
+                .bind("activa", mision.isActiva())
+                .bind("version", mision.getVersion())
+                .map(fila -> fila.get(0, Integer.class))
+                .one()
+                .map(idMision -> {
+                    mision.setIdMision(idMision);
+                    return mision;
+                });
+    }
+
+    /**
+     * Marca como superada una misión si tiene la versión indicada y no lo estaba ya,
+     * incrementando su versión.
+     *
+     * @param idMision El identificador de la misión.
+     * @param version  La versión que debe tener la misión.
+     * @return 1 si la misión ha cambiado de estado, 0 en otro caso.
+     */
+    public Mono<Long> marcarSuperada(int idMision, long version) {
+        return databaseClient.sql("UPDATE misiones SET superada = TRUE, version = version + 1 "
+                + "WHERE id_mision = :idMision AND version = :version AND superada = FALSE")
+                .bind("idMision", idMision)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Marca como inactiva una misión si tiene la versión indicada y no lo estaba ya,
+     * incrementando su versión.
+     *
+     * @param idMision El identificador de la misión.
+     * @param version  La versión que debe tener la misión.
+     * @return 1 si la misión ha cambiado de estado, 0 en otro caso.
+     */
+    public Mono<Long> marcarInactiva(int idMision, long version) {
+        return databaseClient.sql("UPDATE misiones SET activa = FALSE, version = version + 1 "
+                + "WHERE id_mision = :idMision AND version = :version AND activa = TRUE")
+                .bind("idMision", idMision)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @param idsMision Los identificadores de las misiones.
+     * @return El número de misiones actualizadas.
+     */
+    public Mono<Long> marcarSuperadas(Collection<Integer> idsMision) {
+        return databaseClient.sql("UPDATE misiones SET superada = TRUE, version = version + 1 "
+                + "WHERE id_mision IN (:idsMision) AND superada = FALSE")
+                .bind("idsMision", idsMision)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @param idsMision Los identificadores de las misiones.
+     * @return El número de misiones actualizadas.
+     */
+    public Mono<Long> marcarInactivas(Collection<Integer> idsMision) {
+        return databaseClient.sql("UPDATE misiones SET activa = FALSE, version = version + 1 "
+                + "WHERE id_mision IN (:idsMision) AND activa = TRUE")
+                .bind("idsMision", idsMision)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Reinicia, en una única sentencia {@code UPDATE}, todas las misiones que no
+     * estén ya activas y sin superar.
+     *
+     * @return El número de misiones modificadas.
+     */
+    public Mono<Long> reiniciarTodas() {
+        return databaseClient.sql("UPDATE misiones SET activa = TRUE, superada = FALSE, version = version + 1 "
+                + "WHERE activa = FALSE OR superada = TRUE")
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String ordenSql(ConsultaNivel.Orden orden) {
+        switch (orden) {
+        case RECOMPENSA_ASC:
+            return "recompensa ASC, id_mision ASC";
+        case RECOMPENSA_DESC:
+            return "recompensa DESC, id_mision ASC";
+        default:
+            return "id_mision ASC";
+        }
+    }
+
+    private static Mision mapear(Readable fila) {
+        Mision mision = new Mision(fila.get("nombre", String.class), fila.get("descripcion", String.class),
+                fila.get("nivel", Integer.class), fila.get("recompensa", Integer.class));
+        mision.setIdMision(fila.get("id_mision", Integer.class));
+        mision.setSuperada(fila.get("superada", Boolean.class));
+        mision.setActiva(fila.get("activa", Boolean.class));
+        mision.setVersion(fila.get("version", Long.class));
+        return mision;
+    }
+
+}
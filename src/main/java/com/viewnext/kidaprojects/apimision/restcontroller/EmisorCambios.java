@@ -0,0 +1,210 @@
+package com.viewnext.kidaprojects.apimision.restcontroller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.viewnext.kidaprojects.apimision.model.EventoCatalogo;
+import com.viewnext.kidaprojects.apimision.service.CanalCambios;
+import com.viewnext.kidaprojects.apimision.service.CatalogoSerializado;
+import com.viewnext.kidaprojects.apimision.service.ConsultasCompartidas;
+import com.viewnext.kidaprojects.apimision.service.MisionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code EmisorCambios} atiende a los suscriptores de
+ * {@code GET /mision/cambios}, enviando a cada uno, como Server-Sent Events, los
+ * eventos de {@link CanalCambios} a partir de su última posición.
+ *
+ * <p>
+ * Cada suscriptor tiene un hilo virtual propio que lee del canal hasta
+ * {@code apimision.cambios.lote} eventos cada vez y los envía en una sola
+ * escritura. Si el cliente lee despacio, la escritura bloquea solo su hilo, que
+ * deja de leer del canal; cuando su posición sale del búfer recibe una
+ * instantánea del catálogo y continúa desde ella. La instantánea sale de
+ * {@link CatalogoSerializado} o, si no está disponible, de una lectura del
+ * catálogo que comparten con {@link ConsultasCompartidas} los suscriptores que
+ * la necesitan a la vez, como los que reconectan tras un reinicio. Sin eventos,
+ * se envía un comentario cada {@code apimision.cambios.latido} para detectar
+ * las conexiones cerradas.
+ * </p>
+ *
+ * <p>
+ * Los eventos se envían con el nombre {@code cambio} y el evento serializado
+ * como datos; la instantánea, con el nombre {@code instantanea} y el array de
+ * misiones. Ambos llevan como {@code id} el de su posición en el canal, que el
+ * cliente devuelve en {@code Last-Event-ID} al reconectar. Sin identificador, o
+ * con uno que ya no está en el búfer, la suscripción empieza con una
+ * instantánea.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class EmisorCambios {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EmisorCambios.class);
+
+	private final CanalCambios canalCambios;
+	private final CatalogoSerializado catalogoSerializado;
+	private final ConsultasCompartidas consultasCompartidas;
+	private final MisionService service;
+
+	private final int maximoSuscriptores;
+	private final int lote;
+	private final long latidoNanos;
+	private final long duracionMaximaMs;
+
+	private final AtomicInteger suscriptores = new AtomicInteger();
+	private final AtomicInteger numeroHilo = new AtomicInteger();
+
+	private final Counter rechazados;
+	private final Counter enviados;
+	private final Counter instantaneas;
+
+	public EmisorCambios(CanalCambios canalCambios, CatalogoSerializado catalogoSerializado,
+			ConsultasCompartidas consultasCompartidas, MisionService service,
+			@Value("${apimision.cambios.maximo-suscriptores:1000}") int maximoSuscriptores,
+			@Value("${apimision.cambios.lote:256}") int lote,
+			@Value("${apimision.cambios.latido:PT15S}") Duration latido,
+			@Value("${apimision.cambios.duracion-maxima:PT30M}") Duration duracionMaxima,
+			MeterRegistry registry) {
+		this.canalCambios = canalCambios;
+		this.catalogoSerializado = catalogoSerializado;
+		this.consultasCompartidas = consultasCompartidas;
+		this.service = service;
+		this.maximoSuscriptores = maximoSuscriptores;
+		this.lote = Math.max(1, lote);
+		this.latidoNanos = latido.toNanos();
+		this.duracionMaximaMs = duracionMaxima.toMillis();
+
+		Gauge.builder("mision.cambios.suscriptores", suscriptores, AtomicInteger::get)
+				.description("Suscriptores conectados al canal de cambios")
+				.register(registry);
+		this.rechazados = Counter.builder("mision.cambios.rechazados")
+				.description("Suscripciones rechazadas por superar el máximo de suscriptores")
+				.register(registry);
+		this.enviados = Counter.builder("mision.cambios.enviados")
+				.description("Eventos enviados a los suscriptores")
+				.register(registry);
+		this.instantaneas = Counter.builder("mision.cambios.instantaneas")
+				.description("Instantáneas del catálogo enviadas a los suscriptores")
+				.register(registry);
+	}
+
+	/**
+	 * Abre una suscripción y arranca el hilo que la atiende.
+	 *
+	 * @param ultimoId El identificador del último evento recibido por el cliente,
+	 *                 o {@code null}.
+	 * @return El emisor de la respuesta, o {@code null} si se ha alcanzado el
+	 *         máximo de suscriptores.
+	 */
+	public SseEmitter suscribir(String ultimoId) {
+		if (suscriptores.incrementAndGet() > maximoSuscriptores) {
+			suscriptores.decrementAndGet();
+			rechazados.increment();
+			return null;
+		}
+
+		SseEmitter emisor = new SseEmitter(duracionMaximaMs);
+		long desde = canalCambios.secuencia(ultimoId);
+		Thread hilo = Thread.ofVirtual().name("cambios-" + numeroHilo.incrementAndGet())
+				.unstarted(() -> emitir(emisor, desde));
+		emisor.onTimeout(emisor::complete);
+		emisor.onCompletion(hilo::interrupt);
+		emisor.onError(e -> hilo.interrupt());
+		hilo.start();
+		return emisor;
+	}
+
+	/**
+	 * Envía al suscriptor los eventos del canal hasta que se cierra la conexión.
+	 *
+	 * @param emisor El emisor de la respuesta.
+	 * @param desde  La secuencia del último evento recibido, o -1 para empezar
+	 *               con una instantánea.
+	 */
+	private void emitir(SseEmitter emisor, long desde) {
+		long posicion = desde;
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				List<EventoCatalogo> leidos = posicion < 0 ? null : canalCambios.leer(posicion, lote, latidoNanos);
+				if (leidos == null) {
+					posicion = enviarInstantanea(emisor);
+				} else if (leidos.isEmpty()) {
+					emisor.send(SseEmitter.event().comment("latido"));
+				} else {
+					Set<DataWithMediaType> datos = new LinkedHashSet<>();
+					for (EventoCatalogo evento : leidos) {
+						datos.addAll(SseEmitter.event()
+								.id(canalCambios.identificador(evento.getSecuencia()))
+								.name("cambio")
+								.data(evento, MediaType.APPLICATION_JSON)
+								.build());
+					}
+					emisor.send(datos);
+					posicion = leidos.get(leidos.size() - 1).getSecuencia();
+					enviados.increment(leidos.size());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | IllegalStateException e) {
+			// El cliente ha cerrado la conexión: el contenedor notifica el error y termina la respuesta
+			LOGGER.debug("Suscripción a los cambios del catálogo terminada: {}", e.getMessage());
+		} catch (RuntimeException e) {
+			LOGGER.warn("Suscripción a los cambios del catálogo interrumpida por un error", e);
+			emisor.completeWithError(e);
+		} finally {
+			suscriptores.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Envía el catálogo completo. La secuencia se toma antes de leer el catálogo,
+	 * de modo que la instantánea incluye al menos los eventos hasta ella; los
+	 * siguientes pueden estar ya incluidos, y aplicarlos de nuevo no cambia el
+	 * resultado.
+	 *
+	 * @param emisor El emisor de la respuesta.
+	 * @return La secuencia desde la que continuar.
+	 * @throws IOException Si no se puede escribir en la respuesta.
+	 */
+	private long enviarInstantanea(SseEmitter emisor) throws IOException {
+		long secuencia = canalCambios.getUltimaSecuencia();
+		CatalogoSerializado.Instantanea actual = catalogoSerializado.getActual();
+		Object catalogo = actual != null ? new String(actual.getJson(), StandardCharsets.UTF_8)
+				: consultasCompartidas.ejecutar("instantanea", List.of(), service::showAll);
+
+		emisor.send(SseEmitter.event()
+				.id(canalCambios.identificador(secuencia))
+				.name("instantanea")
+				.data(catalogo, MediaType.APPLICATION_JSON));
+		instantaneas.increment();
+		return secuencia;
+	}
+
+}
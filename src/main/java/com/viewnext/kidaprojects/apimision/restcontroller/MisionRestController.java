@@ -1,10 +1,20 @@
 package com.viewnext.kidaprojects.apimision.restcontroller;
 
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,99 +24,328 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.apimision.config.FormatosBinariosConfig;
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.EstadisticasCatalogo;
 import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.ResultadoImportacion;
+import com.viewnext.kidaprojects.apimision.model.ResultadoLote;
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
+import com.viewnext.kidaprojects.apimision.service.CatalogoSerializado;
+import com.viewnext.kidaprojects.apimision.service.MisionMetricas;
 import com.viewnext.kidaprojects.apimision.service.MisionService;
-import jakarta.persistence.EntityNotFoundException;
+import com.viewnext.kidaprojects.apimision.service.VersionCatalogo;
 
 @RestController
+@Profile("!reactivo")
 public class MisionRestController {
 
 	@Autowired
 	private MisionService service;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MisionMetricas misionMetricas;
+
+	@Autowired
+	private VersionCatalogo versionCatalogo;
+
+	@Autowired
+	private CatalogoSerializado catalogoSerializado;
+
+	@Autowired
+	private EmisorCambios emisorCambios;
 	
 	private static final String MISION_NOT_FOUND = "Misión/es no encontrada";
+	private static final String COLA_LLENA = "Cola de escritura llena, inténtelo de nuevo más tarde.";
 	
 	/**
-     * Obtiene todas las misiones disponibles.
+     * Formatos de las respuestas con misiones, en orden de preferencia.
+     */
+	private static final List<MediaType> FORMATOS_MISION = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_CBOR, FormatosBinariosConfig.APPLICATION_SMILE);
+	
+	@Value("${apimision.paginacion.limite-maximo:1000}")
+	private int limiteMaximoPagina;
+	
+	@Value("${apimision.http.cache-control.listado:no-cache}")
+	private String cacheControlListado;
+	
+	@Value("${apimision.http.cache-control.mision:no-cache}")
+	private String cacheControlMision;
+	
+	@Value("${apimision.http.cache-control.recompensa:no-cache}")
+	private String cacheControlRecompensa;
+	
+	@Value("${apimision.http.cache-control.nombre:no-cache}")
+	private String cacheControlNombre;
+	
+	@Value("${apimision.http.cache-control.nivel:no-cache}")
+	private String cacheControlNivel;
+	
+	@Value("${apimision.http.cache-control.estadisticas:no-cache}")
+	private String cacheControlEstadisticas;
+	
+	/**
+     * Obtiene todas las misiones disponibles. Si se indica {@code limite}, devuelve
+     * solo una página de misiones a partir del {@code cursor} (el último
+     * identificador recibido) junto con el cursor de la página siguiente.
+     *
+     * <p>
+     * El catálogo completo en JSON se responde con los bytes de
+     * {@code CatalogoSerializado} cuando están al día, comprimidos con gzip si el
+     * cliente lo acepta; si no, o en CBOR y Smile, se serializa la lista en la
+     * petición.
+     * </p>
      *
-     * @return Una lista de todas las misiones.
+     * @param limite El tamaño de página deseado, opcional.
+     * @param cursor El último identificador recibido; 0 para la primera página.
+     * @param peticion La petición, para resolver las cabeceras condicionales.
+     * @return Una lista de todas las misiones, o la página solicitada.
      */
-	@GetMapping(value = "mision", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> showAllMisiones(){
-		try {
+	@GetMapping(value = "mision", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+			FormatosBinariosConfig.APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> showAllMisiones(@RequestParam(value = "limite", required = false) Integer limite,
+			@RequestParam(value = "cursor", defaultValue = "0") int cursor, WebRequest peticion){
+		MediaType formato = formato(peticion);
+		boolean json = MediaType.APPLICATION_JSON.equals(formato);
+		boolean gzip = json && limite == null && aceptaGzip(peticion.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		String etag = versionCatalogo.etag(variante(formato) + (gzip ? "-gzip" : ""));
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlListado)
+					.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+		}
+		if (limite != null) {
+			return cabecerasCache(ResponseEntity.ok(), etag, cacheControlListado)
+					.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).contentType(formato)
+					.body(service.showPagina(cursor, limite));
+		}
+
+		CatalogoSerializado.Instantanea instantanea = json ? catalogoSerializado.getActual() : null;
+		if (instantanea == null) {
+			etag = versionCatalogo.etag(variante(formato));
 			List<Mision> listaMisiones = service.showAll();
-			return ResponseEntity.ok(listaMisiones);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+			if (listaMisiones.isEmpty()) {
+				return noEncontrada("mision");
+			}
+			return cabecerasCache(ResponseEntity.ok(), etag, cacheControlListado)
+					.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).contentType(formato)
+					.body(listaMisiones);
+		}
+		if (instantanea.getMisiones() == 0) {
+			return noEncontrada("mision");
 		}
+
+		ResponseEntity.BodyBuilder respuesta = cabecerasCache(ResponseEntity.ok(), etag, cacheControlListado)
+				.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+				.contentType(MediaType.APPLICATION_JSON);
+		if (gzip) {
+			return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(instantanea.getGzip());
+		}
+		return respuesta.body(instantanea.getJson());
+	}
+	
+	/**
+     * Obtiene todas las misiones en formato NDJSON (una misión JSON por línea). Las
+     * misiones se escriben en la respuesta a medida que se leen de la base de datos,
+     * sin construir la lista completa en memoria.
+     *
+     * @param peticion La petición, para resolver las cabeceras condicionales.
+     * @return El cuerpo de la respuesta, que se escribe de forma asíncrona.
+     */
+	@GetMapping(value = "mision", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAllMisiones(WebRequest peticion){
+		String etag = versionCatalogo.etag("-ndjson");
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlListado).varyBy(HttpHeaders.ACCEPT).build();
+		}
+		StreamingResponseBody cuerpo = salida -> service.recorrerTodas(mision -> {
+			try {
+				salida.write(objectMapper.writeValueAsBytes(mision));
+				salida.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return cabecerasCache(ResponseEntity.ok(), etag, cacheControlListado).varyBy(HttpHeaders.ACCEPT)
+				.contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+	}
+	
+	/**
+     * Se suscribe a los cambios del catálogo como Server-Sent Events: primero una
+     * instantánea con todas las misiones y después un evento por cada escritura,
+     * en orden. Al reconectar, el cliente envía en {@code Last-Event-ID} (o en
+     * {@code desde}) el último identificador recibido y continúa desde él; si ya
+     * no está disponible, recibe otra instantánea.
+     *
+     * @param ultimoId El identificador del último evento recibido, opcional.
+     * @param desde El mismo identificador como parámetro, para los clientes que no
+     *        pueden enviar cabeceras.
+     * @return El flujo de eventos, o 503 si hay demasiados suscriptores.
+     */
+	@GetMapping(value = "mision/cambios", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> suscribirCambios(
+			@RequestHeader(value = "Last-Event-ID", required = false) String ultimoId,
+			@RequestParam(value = "desde", required = false) String desde){
+		SseEmitter emisor = emisorCambios.suscribir(ultimoId != null ? ultimoId : desde);
+		if (emisor == null) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+		}
+		return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-store").body(emisor);
 	}
 	
 	/**
      * Obtiene una misión por su ID.
      *
+     * <p>
+     * El {@code ETag} es la versión de la misión seguida del sufijo del formato,
+     * el mismo que devuelven {@code POST}, {@code PUT} y {@code DELETE}, de modo
+     * que sirve tanto para {@code If-None-Match} como para {@code If-Match}.
+     * </p>
+     *
      * @param idMision El ID de la misión que se desea obtener.
-     * @return La misión con el ID especificado.
+     * @param peticion La petición, para resolver las cabeceras condicionales.
+     * @return La misión con el ID especificado y su versión como {@code ETag}.
      */
-	@GetMapping(value = "mision/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> showMisionById(@PathVariable("idMision") int idMision){
-		try {
-			Mision mision = service.showById(idMision);
-			return ResponseEntity.ok(mision);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+	@GetMapping(value = "mision/{idMision}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+			FormatosBinariosConfig.APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> showMisionById(@PathVariable("idMision") int idMision, WebRequest peticion){
+		MediaType formato = formato(peticion);
+		Optional<Mision> mision = service.showById(idMision);
+		if (mision.isEmpty()) {
+			return noEncontrada("mision/{idMision}");
+		}
+		String etag = etag(mision.get(), formato);
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlMision).build();
 		}
+		return cabecerasCache(ResponseEntity.ok(), etag, cacheControlMision).contentType(formato).body(mision.get());
 	}
 	
 	/**
      * Obtiene la recompensa de una misión por su ID.
      *
      * @param idMision El ID de la misión de la cual se desea obtener la recompensa.
+     * @param peticion La petición, para resolver las cabeceras condicionales.
      * @return La recompensa de la misión especificada.
      */
 	@GetMapping(value = "mision/recompensa/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> getRecompensaByIdMision(@PathVariable("idMision") int idMision){
-		try {
-			int recompensa = service.getRecompensa(idMision);
-			return ResponseEntity.ok(recompensa);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
-		
+	public ResponseEntity<?> getRecompensaByIdMision(@PathVariable("idMision") int idMision, WebRequest peticion){
+		String etag = versionCatalogo.etag("");
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlRecompensa).build();
+		}
+		Optional<Integer> recompensa = service.getRecompensa(idMision);
+		if (recompensa.isEmpty()) {
+			return noEncontrada("mision/recompensa/{idMision}");
+		}
+		return cabecerasCache(ResponseEntity.ok(), etag, cacheControlRecompensa).body(recompensa.get());
+	}
+	
+	/**
+     * Obtiene las recompensas de varias misiones en una sola petición.
+     *
+     * @param idsMision Los IDs de las misiones, separados por comas.
+     * @param peticion La petición, para resolver las cabeceras condicionales.
+     * @return Un mapa de ID de misión a recompensa con las misiones existentes.
+     */
+	@GetMapping(value = "mision/recompensa", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Map<Integer, Integer>> getRecompensasByIdsMision(@RequestParam("ids") List<Integer> idsMision,
+			WebRequest peticion){
+		String etag = versionCatalogo.etag("");
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlRecompensa).build();
+		}
+		Map<Integer, Integer> recompensas = service.getRecompensas(idsMision);
+		return cabecerasCache(ResponseEntity.ok(), etag, cacheControlRecompensa).body(recompensas);
+	}
+	
+	/**
+     * Obtiene el número de misiones, las activas, las superadas y la suma de
+     * recompensas del catálogo, en total y por nivel.
+     *
+     * @param peticion La petición, para resolver las cabeceras condicionales.
+     * @return Las estadísticas del catálogo.
+     */
+	@GetMapping(value = "mision/estadisticas", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<EstadisticasCatalogo> getEstadisticas(WebRequest peticion){
+		String etag = versionCatalogo.etag("-estadisticas");
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlEstadisticas).build();
 		}
+		return cabecerasCache(ResponseEntity.ok(), etag, cacheControlEstadisticas).body(service.getEstadisticas());
 	}
 	
 	/**
-     * Obtiene misiones cuyo nombre contiene un prefijo dado.
+     * Obtiene misiones cuyo nombre comienza por un prefijo dado, sin distinguir
+     * mayúsculas ni acentos.
      *
      * @param prefijo El prefijo que debe coincidir con el nombre de las misiones.
+     * @param limite El número máximo de misiones a devolver.
+     * @param peticion La petición, para resolver las cabeceras condicionales.
      * @return Una lista de misiones cuyos nombres coinciden con el prefijo especificado.
      */
-	@GetMapping(value = "mision/nombre", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> showMisionesByNombreLike(@RequestParam("prefijo") String prefijo){
-		try {
-			List<Mision> listaMisiones = service.showByNombreLike(prefijo);
-			return ResponseEntity.ok(listaMisiones);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+	@GetMapping(value = "mision/nombre", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+			FormatosBinariosConfig.APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> showMisionesByNombreLike(@RequestParam("prefijo") String prefijo,
+			@RequestParam(value = "limite", defaultValue = "${apimision.busqueda.limite-maximo:100}") int limite,
+			WebRequest peticion){
+		MediaType formato = formato(peticion);
+		String etag = versionCatalogo.etag(variante(formato));
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlNombre).build();
 		}
-		
+		return listaONoEncontrada(service.showByNombreLike(prefijo, limite), "mision/nombre", formato, etag,
+				cacheControlNombre);
 	}
 	
 	/**
-     * Obtiene misiones por su nivel.
+     * Obtiene misiones por su nivel. Sin más parámetros, devuelve las misiones de
+     * nivel igual o menor que {@code nivel}; admite además un rango de niveles, un
+     * filtro de misiones activas, el orden por recompensa y la paginación.
      *
-     * @param nivel El nivel de las misiones que se desean obtener.
-     * @return Una lista de misiones con el nivel especificado.
+     * @param nivel El nivel máximo de las misiones; equivale a {@code nivelMax}.
+     * @param nivelMin El nivel mínimo de las misiones, incluido.
+     * @param nivelMax El nivel máximo de las misiones, incluido.
+     * @param soloActivas Si solo deben devolverse misiones activas.
+     * @param orden El orden: {@code ID}, {@code RECOMPENSA_ASC} o {@code RECOMPENSA_DESC}.
+     * @param pagina El número de página, empezando en 0; requiere {@code tamano}.
+     * @param tamano El tamaño de página; sin él se devuelven todas las misiones.
+     * @param peticion La petición, para resolver las cabeceras condicionales.
+     * @return Una lista con las misiones de la página solicitada.
      */
-	@GetMapping(value = "mision/nivel", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> showMisionesByNivel(@RequestParam("nivel") int nivel){
-		try {
-			List<Mision> listaMisiones = service.showByNivel(nivel);
-			return ResponseEntity.ok(listaMisiones);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+	@GetMapping(value = "mision/nivel", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+			FormatosBinariosConfig.APPLICATION_SMILE_VALUE })
+	public ResponseEntity<?> showMisionesByNivel(@RequestParam(value = "nivel", required = false) Integer nivel,
+			@RequestParam(value = "nivelMin", defaultValue = "" + Integer.MIN_VALUE) int nivelMin,
+			@RequestParam(value = "nivelMax", required = false) Integer nivelMax,
+			@RequestParam(value = "soloActivas", defaultValue = "false") boolean soloActivas,
+			@RequestParam(value = "orden", defaultValue = "ID") ConsultaNivel.Orden orden,
+			@RequestParam(value = "pagina", defaultValue = "0") int pagina,
+			@RequestParam(value = "tamano", required = false) Integer tamano, WebRequest peticion){
+		MediaType formato = formato(peticion);
+		String etag = versionCatalogo.etag(variante(formato));
+		if (noModificada(peticion, etag)) {
+			return respuestaNoModificada(cacheControlNivel).build();
 		}
+		int maximo = nivelMax != null ? nivelMax : (nivel != null ? nivel : Integer.MAX_VALUE);
+		int tamanoPagina = tamano != null ? Math.max(1, Math.min(tamano, limiteMaximoPagina)) : Integer.MAX_VALUE;
+		int numeroPagina = tamano != null ? Math.max(0, pagina) : 0;
+		List<Mision> listaMisiones = service.showByNivel(
+				new ConsultaNivel(nivelMin, maximo, soloActivas, orden, numeroPagina, tamanoPagina));
+		return listaONoEncontrada(listaMisiones, "mision/nivel", formato, etag, cacheControlNivel);
 	}
 	
 	
@@ -114,63 +353,351 @@ public class MisionRestController {
      * Crea una nueva misión.
      *
      * @param mision La misión que se desea crear.
+     * @param peticion La petición, para elegir el formato de la respuesta.
      * @return La misión creada y su ubicación en el recurso.
      */
-	@PostMapping(value = "mision", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Mision> createMision(@RequestBody Mision mision){
+	@PostMapping(value = "mision", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+			FormatosBinariosConfig.APPLICATION_SMILE_VALUE },
+			consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+					FormatosBinariosConfig.APPLICATION_SMILE_VALUE })
+	public ResponseEntity<Mision> createMision(@RequestBody Mision mision, WebRequest peticion){
 		 Mision misionCreada = service.createMision(mision);
 
 		    // Utiliza la ruta relativa al recurso
 		    URI location = URI.create("/mision/" + misionCreada.getIdMision());
 
 		    // Devuelve una respuesta con el código 201 Created y la URI del nuevo recurso
-		    return ResponseEntity.created(location).body(misionCreada);
+		    MediaType formato = formato(peticion);
+		    return ResponseEntity.created(location).eTag(etag(misionCreada, formato)).contentType(formato).body(misionCreada);
+	}
+	
+	/**
+     * Crea misiones de forma masiva. El cuerpo puede ser un array JSON o NDJSON (una
+     * misión por línea) y se lee como un flujo, insertando las misiones por lotes a
+     * medida que llegan.
+     *
+     * @param cuerpo El cuerpo de la petición.
+     * @return El resumen de la importación con el tiempo y los fallos de cada lote.
+     * @throws IOException Si no se puede leer el cuerpo de la petición.
+     */
+	@PostMapping(value = "mision/lote", produces = MediaType.APPLICATION_JSON_VALUE,
+			consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public ResponseEntity<ResultadoImportacion> importarMisiones(InputStream cuerpo) throws IOException{
+		try (MappingIterator<Mision> misiones = objectMapper.readerFor(Mision.class).readValues(cuerpo)) {
+			ResultadoImportacion resultado = service.importarMisiones(misiones);
+			return ResponseEntity.ok(resultado);
+		}
 	}
 	
 	/**
-     * Actualiza el estado de una misión a "Superada" por su ID.
+     * Actualiza el estado de una misión a "Superada" por su ID. Con la cabecera
+     * {@code If-Match}, la misión solo se actualiza si su versión coincide; en
+     * caso contrario se responde 412 con la misión y su {@code ETag} actuales.
      *
      * @param idMision El ID de la misión que se desea actualizar.
-     * @return La misión actualizada con el estado "Superada".
+     * @param ifMatch El {@code ETag} esperado de la misión, opcional.
+     * @return La misión actualizada con el estado "Superada" y su nuevo {@code ETag};
+     *         con la escritura diferida y sin {@code If-Match}, 202 con la misión
+     *         como quedará al escribirse, o 503 si la cola está llena.
      */
 	@PutMapping(value = "mision/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> updateEstadoSuperada(@PathVariable("idMision") int idMision){
-		try {
-			Mision misionActualizada = service.setEstadoSuperada(idMision);
-			return ResponseEntity.ok(misionActualizada);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
-		}
+	public ResponseEntity<?> updateEstadoSuperada(@PathVariable("idMision") int idMision,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		CambioEstado cambio = service.setEstadoSuperada(idMision, versionEsperada(ifMatch));
+		return respuestaCambio(cambio, ifMatch != null, "mision/{idMision}");
 	}
 	
 	/**
-     * Establece el estado de una misión a "Inactiva" por su ID.
+     * Establece el estado de una misión a "Inactiva" por su ID. Con la cabecera
+     * {@code If-Match}, la misión solo se actualiza si su versión coincide; en
+     * caso contrario se responde 412 con la misión y su {@code ETag} actuales.
      *
      * @param idMision El ID de la misión que se desea establecer como "Inactiva".
-     * @return La misión con el estado "Inactiva".
+     * @param ifMatch El {@code ETag} esperado de la misión, opcional.
+     * @return La misión con el estado "Inactiva" y su nuevo {@code ETag}.
      */
 	@DeleteMapping(value = "mision/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<?> setEstadoInactiva(@PathVariable("idMision") int idMision){
+	public ResponseEntity<?> setEstadoInactiva(@PathVariable("idMision") int idMision,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		CambioEstado cambio = service.setEstadoInactiva(idMision, versionEsperada(ifMatch));
+		return respuestaCambio(cambio, ifMatch != null, "mision/{idMision}");
+	}
+	
+	/**
+     * Actualiza el estado de varias misiones a "Superada" en una sola petición.
+     *
+     * @param idsMision Los IDs de las misiones que se desean actualizar.
+     * @return Los IDs actualizados y los que no corresponden a ninguna misión.
+     */
+	@PutMapping(value = "mision/superadas", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ResultadoLote> updateEstadoSuperadaLote(@RequestBody List<Integer> idsMision){
+		ResultadoLote resultado = service.setEstadoSuperada(idsMision);
+		return ResponseEntity.ok(resultado);
+	}
+	
+	/**
+     * Establece el estado de varias misiones a "Inactiva" en una sola petición.
+     *
+     * @param idsMision Los IDs de las misiones que se desean establecer como "Inactiva".
+     * @return Los IDs actualizados y los que no corresponden a ninguna misión.
+     */
+	@PutMapping(value = "mision/inactivas", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ResultadoLote> setEstadoInactivaLote(@RequestBody List<Integer> idsMision){
+		ResultadoLote resultado = service.setEstadoInactiva(idsMision);
+		return ResponseEntity.ok(resultado);
+	}
+	
+	/**
+     * Reinicia todas las misiones.
+     *
+     * @return El número de misiones modificadas y la duración del reinicio.
+     */
+	@PostMapping(value = "mision/reinicio", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ResultadoReinicio> reiniciarMisiones(){
+		ResultadoReinicio resultado = service.reiniciarMisiones();
+		return ResponseEntity.ok().body(resultado);
+	}
+	
+	/**
+     * Responde al cambio de estado de una misión. Si la misión ya estaba en el
+     * estado pedido se responde igual que si se hubiera cambiado, de modo que el
+     * cliente puede repetir la petición sin consultar antes la misión.
+     *
+     * @param cambio El resultado del servicio.
+     * @param condicional Si la petición incluía {@code If-Match}.
+     * @param ruta La plantilla de la ruta, para las métricas.
+     * @return Una respuesta 200 con la misión, 412 o 409 con la misión actual si
+     *         su versión no coincide, 202 sin {@code ETag} si el cambio está
+     *         pendiente de escribir, 503 si no se ha podido encolar, o 404.
+     */
+	private ResponseEntity<?> respuestaCambio(CambioEstado cambio, boolean condicional, String ruta){
+		Mision mision = cambio.getMision();
+		if (mision == null) {
+			return noEncontrada(ruta);
+		}
+		if (cambio.getResultado() == CambioEstado.Resultado.PENDIENTE) {
+			return ResponseEntity.accepted().body(mision);
+		}
+		if (cambio.getResultado() == CambioEstado.Resultado.SATURADA) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+					.body(COLA_LLENA);
+		}
+		if (cambio.getResultado() == CambioEstado.Resultado.CONFLICTO) {
+			HttpStatus estado = condicional ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+			return ResponseEntity.status(estado).eTag(etag(mision)).body(mision);
+		}
+		return ResponseEntity.ok().eTag(etag(mision)).body(mision);
+	}
+	
+	/**
+     * Obtiene la versión esperada de una cabecera {@code If-Match} con un único
+     * {@code ETag} de misión, fuerte o débil, sin el sufijo del formato.
+     *
+     * @param ifMatch El valor de la cabecera, o {@code null}.
+     * @return La versión, {@code null} si no hay cabecera o es {@code *}, o -1 si
+     *         el valor no corresponde a ninguna versión.
+     */
+	static Long versionEsperada(String ifMatch){
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String valor = ifMatch.trim();
+		if (valor.startsWith("W/")) {
+			valor = valor.substring(2);
+		}
+		if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+			valor = valor.substring(1, valor.length() - 1);
+		}
+		int sufijo = valor.indexOf('-');
+		if (sufijo > 0) {
+			valor = valor.substring(0, sufijo);
+		}
 		try {
-			Mision misionInactiva = service.setEstadoInactiva(idMision);
-			return ResponseEntity.ok(misionInactiva);
-		} catch (EntityNotFoundException e) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+			return Long.parseLong(valor);
+		} catch (NumberFormatException e) {
+			return -1L;
 		}
-		
 	}
 	
 	/**
-     * Reinicia todas las misiones.
+     * @param mision La misión.
+     * @return El {@code ETag} de la misión en JSON, que es su versión entre
+     *         comillas.
+     */
+	static String etag(Mision mision){
+		return etag(mision, MediaType.APPLICATION_JSON);
+	}
+	
+	/**
+     * @param mision La misión.
+     * @param formato El formato de la respuesta.
+     * @return El {@code ETag} de la misión en ese formato: su versión y el sufijo
+     *         del formato, entre comillas.
+     */
+	private static String etag(Mision mision, MediaType formato){
+		return "\"" + mision.getVersion() + variante(formato) + "\"";
+	}
+	
+	/**
+     * Responde con la lista de misiones o, si está vacía, con un 404.
      *
-     * @return Un mensaje indicando que las misiones han sido reiniciadas.
+     * @param listaMisiones Las misiones encontradas.
+     * @param ruta La plantilla de la ruta, para las métricas.
+     * @param formato El formato de la respuesta.
+     * @param etag El {@code ETag} del catálogo, obtenido antes de la consulta.
+     * @param cacheControl El valor de {@code Cache-Control} de la ruta.
+     * @return Una respuesta 200 con las misiones o una respuesta 404.
      */
-	@PostMapping(value = "mision/reinicio")
-	public ResponseEntity<String> reiniciarMisiones(){
-		service.reiniciarMisiones();
-		return ResponseEntity.ok().body("Misiones reiniciadas");
+	private ResponseEntity<?> listaONoEncontrada(List<Mision> listaMisiones, String ruta, MediaType formato,
+			String etag, String cacheControl){
+		if (listaMisiones.isEmpty()) {
+			return noEncontrada(ruta);
+		}
+		return cabecerasCache(ResponseEntity.ok(), etag, cacheControl).contentType(formato).body(listaMisiones);
 	}
 	
+	/**
+     * Elige el formato de la respuesta entre JSON, CBOR y Smile según la
+     * cabecera {@code Accept}, en orden de calidad y, a igual calidad, en ese
+     * orden. Sin cabecera, JSON.
+     *
+     * @param peticion La petición.
+     * @return El tipo de contenido de la respuesta.
+     */
+	private static MediaType formato(WebRequest peticion){
+		String aceptados = peticion.getHeader(HttpHeaders.ACCEPT);
+		if (aceptados == null || aceptados.isBlank()) {
+			return MediaType.APPLICATION_JSON;
+		}
+		List<MediaType> tipos = new ArrayList<>(MediaType.parseMediaTypes(aceptados));
+		tipos.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+		for (MediaType tipo : tipos) {
+			for (MediaType formato : FORMATOS_MISION) {
+				if (tipo.getQualityValue() > 0 && tipo.includes(formato)) {
+					return formato;
+				}
+			}
+		}
+		return MediaType.APPLICATION_JSON;
+	}
+	
+	/**
+     * @param formato El formato de la respuesta.
+     * @return El sufijo del {@code ETag} que distingue el formato: vacío para
+     *         JSON, {@code -cbor} o {@code -smile}.
+     */
+	private static String variante(MediaType formato){
+		if (MediaType.APPLICATION_CBOR.equals(formato)) {
+			return "-cbor";
+		}
+		if (FormatosBinariosConfig.APPLICATION_SMILE.equals(formato)) {
+			return "-smile";
+		}
+		return "";
+	}
+	
+	/**
+     * Comprueba las cabeceras {@code If-None-Match} e {@code If-Modified-Since}
+     * de una consulta frente al {@code ETag} indicado y la última modificación
+     * del catálogo, y escribe ambos en la respuesta. Debe llamarse antes de leer
+     * los datos, para que {@code Last-Modified} nunca sea posterior a ellos.
+     *
+     * <p>
+     * {@code If-Modified-Since} solo se tiene en cuenta si no hay
+     * {@code If-None-Match}. Como su precisión es de segundos, mientras la última
+     * escritura sea del segundo en curso no se evalúa ni se envía
+     * {@code Last-Modified}: otra escritura en el mismo segundo no cambiaría la
+     * fecha y el cliente recibiría un 304 con datos anteriores a ella.
+     * </p>
+     *
+     * @param peticion La petición.
+     * @param etag El {@code ETag} actual del recurso.
+     * @return {@code true} si el cliente ya tiene la versión actual.
+     */
+	private boolean noModificada(WebRequest peticion, String etag){
+		long ultimaModificacion = versionCatalogo.getUltimaModificacion();
+		if (ultimaModificacion / 1000 >= System.currentTimeMillis() / 1000) {
+			return peticion.checkNotModified(etag);
+		}
+		// checkNotModified ya descarta If-Modified-Since cuando hay If-None-Match
+		return peticion.checkNotModified(etag, ultimaModificacion);
+	}
+	
+	/**
+     * Comprueba si una cabecera {@code Accept-Encoding} admite gzip, por su
+     * nombre o con {@code *}, sin {@code q=0}. Una entrada {@code gzip} explícita
+     * prevalece sobre {@code *}.
+     *
+     * @param aceptadas El valor de la cabecera, o {@code null}.
+     * @return {@code true} si puede responderse con gzip.
+     */
+	private static boolean aceptaGzip(String aceptadas){
+		if (aceptadas == null) {
+			return false;
+		}
+		boolean cualquiera = false;
+		for (String codificacion : aceptadas.split(",")) {
+			String[] partes = codificacion.split(";");
+			String nombre = partes[0].trim();
+			boolean rechazada = false;
+			for (int i = 1; i < partes.length; i++) {
+				String parametro = partes[i].trim();
+				rechazada |= parametro.startsWith("q=") && parametro.substring(2).trim().matches("0(\\.0{0,3})?");
+			}
+			if (nombre.equalsIgnoreCase("gzip")) {
+				return !rechazada;
+			}
+			cualquiera |= nombre.equals("*") && !rechazada;
+		}
+		return cualquiera;
+	}
+	
+	/**
+     * Construye la respuesta 304 con el {@code Cache-Control} de la ruta y
+     * {@code Vary: Accept}, ya que el formato depende de esa cabecera. El
+     * {@code ETag} y {@code Last-Modified} ya los ha escrito
+     * {@code checkNotModified}.
+     *
+     * @param cacheControl El valor de {@code Cache-Control} de la ruta.
+     * @return La respuesta 304, sin cuerpo.
+     */
+	private ResponseEntity.BodyBuilder respuestaNoModificada(String cacheControl){
+		ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT);
+		if (!cacheControl.isBlank()) {
+			respuesta.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+		}
+		return respuesta;
+	}
 	
+	/**
+     * Añade a una respuesta el {@code ETag}, {@code Vary: Accept} y, si está
+     * configurado, el {@code Cache-Control} de la ruta. {@code Last-Modified} ya
+     * lo ha escrito {@link #noModificada(WebRequest, String)} con el instante
+     * leído antes de la consulta.
+     *
+     * @param respuesta La respuesta a completar.
+     * @param etag El {@code ETag} del recurso.
+     * @param cacheControl El valor de {@code Cache-Control}, o vacío para omitirlo.
+     * @return La misma respuesta.
+     */
+	private ResponseEntity.BodyBuilder cabecerasCache(ResponseEntity.BodyBuilder respuesta, String etag,
+			String cacheControl){
+		respuesta.eTag(etag).varyBy(HttpHeaders.ACCEPT);
+		if (!cacheControl.isBlank()) {
+			respuesta.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+		}
+		return respuesta;
+	}
+	
+	/**
+     * Construye la respuesta 404 de una ruta y la contabiliza en las métricas.
+     *
+     * @param ruta La plantilla de la ruta que no ha encontrado misiones.
+     * @return Una respuesta 404 con el mensaje de misión no encontrada.
+     */
+	private ResponseEntity<?> noEncontrada(String ruta){
+		misionMetricas.registrarNoEncontrada(ruta);
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+	}
 	
 }
@@ -0,0 +1,315 @@
+package com.viewnext.kidaprojects.apimision.restcontroller;
+
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.ResultadoImportacion;
+import com.viewnext.kidaprojects.apimision.model.ResultadoLote;
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
+import com.viewnext.kidaprojects.apimision.service.MisionMetricas;
+import com.viewnext.kidaprojects.apimision.service.MisionServiceReactivo;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador WebFlux del perfil {@code reactivo}, con las mismas rutas que
+ * {@code MisionRestController}. Las rutas que devuelven listas admiten además
+ * {@code application/x-ndjson}: las misiones se escriben a medida que llegan de
+ * la base de datos y al ritmo que el cliente las consume.
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@RestController
+@Profile("reactivo")
+public class MisionRestControllerReactivo {
+
+	@Autowired
+	private MisionServiceReactivo service;
+
+	@Autowired
+	private MisionMetricas misionMetricas;
+
+	private static final String MISION_NOT_FOUND = "Misión/es no encontrada";
+
+	@Value("${apimision.paginacion.limite-maximo:1000}")
+	private int limiteMaximoPagina;
+
+	/**
+     * Obtiene todas las misiones disponibles. Si se indica {@code limite}, devuelve
+     * solo una página de misiones a partir del {@code cursor}.
+     *
+     * @param limite El tamaño de página deseado, opcional.
+     * @param cursor El último identificador recibido; 0 para la primera página.
+     * @return Una lista de todas las misiones, o la página solicitada.
+     */
+	@GetMapping(value = "mision", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> showAllMisiones(@RequestParam(value = "limite", required = false) Integer limite,
+			@RequestParam(value = "cursor", defaultValue = "0") int cursor){
+		if (limite != null) {
+			return service.showPagina(cursor, limite).<ResponseEntity<?>>map(ResponseEntity::ok);
+		}
+		return listaONoEncontrada(service.showAll(), "mision");
+	}
+
+	/**
+     * Obtiene todas las misiones en formato NDJSON, respetando la demanda del
+     * cliente.
+     *
+     * @return El flujo de misiones.
+     */
+	@GetMapping(value = "mision", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Mision> streamAllMisiones(){
+		return service.showAll();
+	}
+
+	/**
+     * Obtiene una misión por su ID.
+     *
+     * @param idMision El ID de la misión que se desea obtener.
+     * @return La misión con el ID especificado.
+     */
+	@GetMapping(value = "mision/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> showMisionById(@PathVariable("idMision") int idMision){
+		return okONoEncontrada(service.showById(idMision), "mision/{idMision}");
+	}
+
+	/**
+     * Obtiene la recompensa de una misión por su ID.
+     *
+     * @param idMision El ID de la misión de la cual se desea obtener la recompensa.
+     * @return La recompensa de la misión especificada.
+     */
+	@GetMapping(value = "mision/recompensa/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> getRecompensaByIdMision(@PathVariable("idMision") int idMision){
+		return okONoEncontrada(service.getRecompensa(idMision), "mision/recompensa/{idMision}");
+	}
+
+	/**
+     * Obtiene las recompensas de varias misiones en una sola petición.
+     *
+     * @param idsMision Los IDs de las misiones, separados por comas.
+     * @return Un mapa de ID de misión a recompensa con las misiones existentes.
+     */
+	@GetMapping(value = "mision/recompensa", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Map<Integer, Integer>> getRecompensasByIdsMision(@RequestParam("ids") List<Integer> idsMision){
+		return service.getRecompensas(idsMision);
+	}
+
+	/**
+     * Obtiene misiones cuyo nombre comienza por un prefijo dado.
+     *
+     * @param prefijo El prefijo que debe coincidir con el nombre de las misiones.
+     * @param limite El número máximo de misiones a devolver.
+     * @return Una lista de misiones cuyos nombres coinciden con el prefijo especificado.
+     */
+	@GetMapping(value = "mision/nombre", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> showMisionesByNombreLike(@RequestParam("prefijo") String prefijo,
+			@RequestParam(value = "limite", defaultValue = "${apimision.busqueda.limite-maximo:100}") int limite){
+		return listaONoEncontrada(service.showByNombreLike(prefijo, limite), "mision/nombre");
+	}
+
+	/**
+     * Obtiene misiones por su nivel, con los mismos parámetros que
+     * {@code MisionRestController}.
+     *
+     * @return Una lista con las misiones de la página solicitada.
+     */
+	@GetMapping(value = "mision/nivel", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> showMisionesByNivel(@RequestParam(value = "nivel", required = false) Integer nivel,
+			@RequestParam(value = "nivelMin", defaultValue = "" + Integer.MIN_VALUE) int nivelMin,
+			@RequestParam(value = "nivelMax", required = false) Integer nivelMax,
+			@RequestParam(value = "soloActivas", defaultValue = "false") boolean soloActivas,
+			@RequestParam(value = "orden", defaultValue = "ID") ConsultaNivel.Orden orden,
+			@RequestParam(value = "pagina", defaultValue = "0") int pagina,
+			@RequestParam(value = "tamano", required = false) Integer tamano){
+		ConsultaNivel consulta = consultaNivel(nivel, nivelMin, nivelMax, soloActivas, orden, pagina, tamano);
+		return listaONoEncontrada(service.showByNivel(consulta), "mision/nivel");
+	}
+
+	/**
+     * Obtiene misiones por su nivel en formato NDJSON, respetando la demanda del
+     * cliente.
+     *
+     * @return El flujo de misiones de la página solicitada.
+     */
+	@GetMapping(value = "mision/nivel", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Mision> streamMisionesByNivel(@RequestParam(value = "nivel", required = false) Integer nivel,
+			@RequestParam(value = "nivelMin", defaultValue = "" + Integer.MIN_VALUE) int nivelMin,
+			@RequestParam(value = "nivelMax", required = false) Integer nivelMax,
+			@RequestParam(value = "soloActivas", defaultValue = "false") boolean soloActivas,
+			@RequestParam(value = "orden", defaultValue = "ID") ConsultaNivel.Orden orden,
+			@RequestParam(value = "pagina", defaultValue = "0") int pagina,
+			@RequestParam(value = "tamano", required = false) Integer tamano){
+		return service.showByNivel(consultaNivel(nivel, nivelMin, nivelMax, soloActivas, orden, pagina, tamano));
+	}
+
+	/**
+     * Crea una nueva misión.
+     *
+     * @param mision La misión que se desea crear.
+     * @return La misión creada y su ubicación en el recurso.
+     */
+	@PostMapping(value = "mision", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Mision>> createMision(@RequestBody Mision mision){
+		return service.createMision(mision)
+				.map(misionCreada -> ResponseEntity.created(URI.create("/mision/" + misionCreada.getIdMision()))
+						.body(misionCreada));
+	}
+
+	/**
+     * Crea misiones de forma masiva a partir de un array JSON o de NDJSON, leído
+     * como un flujo.
+     *
+     * @param misiones El flujo de misiones del cuerpo de la petición.
+     * @return El resumen de la importación con el tiempo y los fallos de cada lote.
+     */
+	@PostMapping(value = "mision/lote", produces = MediaType.APPLICATION_JSON_VALUE,
+			consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public Mono<ResultadoImportacion> importarMisiones(@RequestBody Flux<Mision> misiones){
+		return service.importarMisiones(misiones);
+	}
+
+	/**
+     * Actualiza el estado de una misión a "Superada" por su ID. Con la cabecera
+     * {@code If-Match}, la misión solo se actualiza si su versión coincide; en
+     * caso contrario se responde 412 con la misión y su {@code ETag} actuales.
+     *
+     * @param idMision El ID de la misión que se desea actualizar.
+     * @param ifMatch El {@code ETag} esperado de la misión, opcional.
+     * @return La misión actualizada con el estado "Superada" y su nuevo {@code ETag}.
+     */
+	@PutMapping(value = "mision/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> updateEstadoSuperada(@PathVariable("idMision") int idMision,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		return service.setEstadoSuperada(idMision, MisionRestController.versionEsperada(ifMatch))
+				.map(cambio -> respuestaCambio(cambio, ifMatch != null, "mision/{idMision}"));
+	}
+
+	/**
+     * Establece el estado de una misión a "Inactiva" por su ID. Con la cabecera
+     * {@code If-Match}, la misión solo se actualiza si su versión coincide; en
+     * caso contrario se responde 412 con la misión y su {@code ETag} actuales.
+     *
+     * @param idMision El ID de la misión que se desea establecer como "Inactiva".
+     * @param ifMatch El {@code ETag} esperado de la misión, opcional.
+     * @return La misión con el estado "Inactiva" y su nuevo {@code ETag}.
+     */
+	@DeleteMapping(value = "mision/{idMision}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> setEstadoInactiva(@PathVariable("idMision") int idMision,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		return service.setEstadoInactiva(idMision, MisionRestController.versionEsperada(ifMatch))
+				.map(cambio -> respuestaCambio(cambio, ifMatch != null, "mision/{idMision}"));
+	}
+
+	/**
+     * Actualiza el estado de varias misiones a "Superada" en una sola petición.
+     *
+     * @param idsMision Los IDs de las misiones que se desean actualizar.
+     * @return Los IDs actualizados y los que no corresponden a ninguna misión.
+     */
+	@PutMapping(value = "mision/superadas", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResultadoLote> updateEstadoSuperadaLote(@RequestBody List<Integer> idsMision){
+		return service.setEstadoSuperada(idsMision);
+	}
+
+	/**
+     * Establece el estado de varias misiones a "Inactiva" en una sola petición.
+     *
+     * @param idsMision Los IDs de las misiones que se desean establecer como "Inactiva".
+     * @return Los IDs actualizados y los que no corresponden a ninguna misión.
+     */
+	@PutMapping(value = "mision/inactivas", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResultadoLote> setEstadoInactivaLote(@RequestBody List<Integer> idsMision){
+		return service.setEstadoInactiva(idsMision);
+	}
+
+	/**
+     * Reinicia todas las misiones.
+     *
+     * @return El número de misiones modificadas y la duración del reinicio.
+     */
+	@PostMapping(value = "mision/reinicio", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResultadoReinicio> reiniciarMisiones(){
+		return service.reiniciarMisiones();
+	}
+
+	private ConsultaNivel consultaNivel(Integer nivel, int nivelMin, Integer nivelMax, boolean soloActivas,
+			ConsultaNivel.Orden orden, int pagina, Integer tamano){
+		int maximo = nivelMax != null ? nivelMax : (nivel != null ? nivel : Integer.MAX_VALUE);
+		int tamanoPagina = tamano != null ? Math.max(1, Math.min(tamano, limiteMaximoPagina)) : Integer.MAX_VALUE;
+		int numeroPagina = tamano != null ? Math.max(0, pagina) : 0;
+		return new ConsultaNivel(nivelMin, maximo, soloActivas, orden, numeroPagina, tamanoPagina);
+	}
+
+	/**
+     * Responde al cambio de estado de una misión igual que
+     * {@code MisionRestController}: si ya estaba en el estado pedido se responde
+     * como si se hubiera cambiado.
+     *
+     * @return Una respuesta 200 con la misión, 412 o 409 con la misión actual si
+     *         su versión no coincide, o 404.
+     */
+	private ResponseEntity<?> respuestaCambio(CambioEstado cambio, boolean condicional, String ruta){
+		Mision mision = cambio.getMision();
+		if (mision == null) {
+			return noEncontrada(ruta);
+		}
+		if (cambio.getResultado() == CambioEstado.Resultado.CONFLICTO) {
+			HttpStatus estado = condicional ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+			return ResponseEntity.status(estado).eTag(MisionRestController.etag(mision)).body(mision);
+		}
+		return ResponseEntity.ok().eTag(MisionRestController.etag(mision)).body(mision);
+	}
+
+	/**
+     * Responde con el valor emitido o, si el {@code Mono} termina vacío, con un 404
+     * contabilizado en las métricas.
+     */
+	private Mono<ResponseEntity<?>> okONoEncontrada(Mono<?> valor, String ruta){
+		return valor.<ResponseEntity<?>>map(ResponseEntity::ok)
+				.switchIfEmpty(Mono.fromSupplier(() -> noEncontrada(ruta)));
+	}
+
+	/**
+     * Reúne las misiones en una lista o, si no hay ninguna, responde con un 404
+     * contabilizado en las métricas.
+     */
+	private Mono<ResponseEntity<?>> listaONoEncontrada(Flux<Mision> misiones, String ruta){
+		return misiones.collectList()
+				.<ResponseEntity<?>>map(listaMisiones -> listaMisiones.isEmpty() ? noEncontrada(ruta) : ResponseEntity.ok(listaMisiones));
+	}
+
+	private ResponseEntity<?> noEncontrada(String ruta){
+		misionMetricas.registrarNoEncontrada(ruta);
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MISION_NOT_FOUND);
+	}
+
+}
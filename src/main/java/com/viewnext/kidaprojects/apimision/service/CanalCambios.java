@@ -0,0 +1,208 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.viewnext.kidaprojects.apimision.model.EventoCatalogo;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code CanalCambios} guarda los últimos eventos del catálogo en un
+ * búfer circular de {@code apimision.cambios.capacidad} posiciones, numerados
+ * desde 1 en el orden de publicación, para que los suscriptores de
+ * {@code GET /mision/cambios} los lean a su ritmo.
+ *
+ * <p>
+ * Cada suscriptor lleva su propia posición y lee del mismo búfer, así que uno
+ * lento no retiene memoria ni frena a los demás: cuando su posición sale del
+ * búfer, {@link #leer(long, int, long)} se lo indica y debe partir de una
+ * instantánea del catálogo.
+ * </p>
+ *
+ * <p>
+ * {@code MisionServiceImpl} publica cada escritura después de confirmarla y de
+ * registrarla en {@code VersionCatalogo}. Dos escrituras concurrentes sobre la
+ * misma misión pueden publicarse en distinto orden del que se confirmaron; las
+ * misiones de los eventos llevan su versión para distinguirlo. Las
+ * importaciones solo se publican con el intervalo de identificadores del
+ * bloque, de modo que el búfer nunca retiene más de una misión por evento. Los
+ * identificadores de los eventos incluyen el instante de arranque, de modo que
+ * tras un reinicio de la aplicación no se confunden con los de la ejecución
+ * anterior.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class CanalCambios {
+
+	private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+	private final EventoCatalogo[] eventos;
+
+	private final ReentrantLock cerrojo = new ReentrantLock();
+	private final Condition publicado = cerrojo.newCondition();
+
+	/**
+	 * Secuencia del último evento publicado. Se modifica con el cerrojo, pero se
+	 * puede leer sin él.
+	 */
+	private final AtomicLong ultima = new AtomicLong();
+
+	private final Map<EventoCatalogo.Tipo, Counter> publicados = new EnumMap<>(EventoCatalogo.Tipo.class);
+
+	public CanalCambios(@Value("${apimision.cambios.capacidad:1024}") int capacidad, MeterRegistry registry) {
+		this.eventos = new EventoCatalogo[Math.max(1, capacidad)];
+
+		for (EventoCatalogo.Tipo tipo : EventoCatalogo.Tipo.values()) {
+			publicados.put(tipo, Counter.builder("mision.cambios.publicados")
+					.description("Eventos publicados en el canal de cambios del catálogo")
+					.tag("tipo", tipo.name())
+					.register(registry));
+		}
+		Gauge.builder("mision.cambios.secuencia", ultima, AtomicLong::get)
+				.description("Secuencia del último evento publicado")
+				.register(registry);
+	}
+
+	/**
+	 * Publica un evento y despierta a los suscriptores que esperan.
+	 *
+	 * @param tipo     El tipo de escritura.
+	 * @param misiones Las misiones tras la escritura, o {@code null}.
+	 * @param ids      Los identificadores del lote, o {@code null}.
+	 * @return El evento publicado.
+	 */
+	public EventoCatalogo publicar(EventoCatalogo.Tipo tipo, List<Mision> misiones, List<Integer> ids) {
+		return publicar(tipo, secuencia -> new EventoCatalogo(secuencia, tipo, System.currentTimeMillis(), misiones,
+				ids));
+	}
+
+	/**
+	 * Publica la importación de un bloque de misiones sin guardarlas en el búfer,
+	 * solo su número y el intervalo de identificadores que ocupan.
+	 *
+	 * @param total El número de misiones importadas.
+	 * @param desde El menor identificador de las misiones importadas.
+	 * @param hasta El mayor identificador de las misiones importadas.
+	 * @return El evento publicado.
+	 */
+	public EventoCatalogo publicarImportacion(int total, int desde, int hasta) {
+		return publicar(EventoCatalogo.Tipo.IMPORTADAS, secuencia -> new EventoCatalogo(secuencia,
+				EventoCatalogo.Tipo.IMPORTADAS, System.currentTimeMillis(), total, desde, hasta));
+	}
+
+	/**
+	 * @param tipo  El tipo de escritura, para las métricas.
+	 * @param crear Construye el evento con la secuencia que le corresponde.
+	 * @return El evento publicado.
+	 */
+	private EventoCatalogo publicar(EventoCatalogo.Tipo tipo, LongFunction<EventoCatalogo> crear) {
+		EventoCatalogo evento;
+		cerrojo.lock();
+		try {
+			evento = crear.apply(ultima.get() + 1);
+			eventos[(int) (evento.getSecuencia() % eventos.length)] = evento;
+			ultima.set(evento.getSecuencia());
+			publicado.signalAll();
+		} finally {
+			cerrojo.unlock();
+		}
+		publicados.get(tipo).increment();
+		return evento;
+	}
+
+	/**
+	 * Devuelve los eventos posteriores a una secuencia, esperando a que se publique
+	 * alguno si no los hay.
+	 *
+	 * @param desde       La secuencia del último evento recibido, o 0 si no se ha
+	 *                    recibido ninguno.
+	 * @param maximo      El número máximo de eventos a devolver.
+	 * @param esperaNanos La espera máxima si no hay eventos nuevos.
+	 * @return Los eventos en orden, vacía si no se ha publicado ninguno durante la
+	 *         espera, o {@code null} si alguno de los siguientes ya no está en el
+	 *         búfer o la secuencia es posterior a la última publicada.
+	 * @throws InterruptedException Si el hilo se interrumpe durante la espera.
+	 */
+	public List<EventoCatalogo> leer(long desde, int maximo, long esperaNanos) throws InterruptedException {
+		cerrojo.lock();
+		try {
+			long restante = esperaNanos;
+			while (desde == ultima.get() && restante > 0) {
+				restante = publicado.awaitNanos(restante);
+			}
+			long hasta = ultima.get();
+			if (desde > hasta || desde < hasta - eventos.length) {
+				return null;
+			}
+
+			int total = (int) Math.min(hasta - desde, Math.max(1, maximo));
+			List<EventoCatalogo> leidos = new ArrayList<>(total);
+			for (long secuencia = desde + 1; secuencia <= desde + total; secuencia++) {
+				leidos.add(eventos[(int) (secuencia % eventos.length)]);
+			}
+			return leidos;
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * @return La secuencia del último evento publicado, o 0 si no hay ninguno.
+	 */
+	public long getUltimaSecuencia() {
+		return ultima.get();
+	}
+
+	/**
+	 * Construye el identificador de un evento para el campo {@code id} de SSE.
+	 *
+	 * @param secuencia La secuencia del evento.
+	 * @return El identificador, con el instante de arranque como prefijo.
+	 */
+	public String identificador(long secuencia) {
+		return epoca + "-" + secuencia;
+	}
+
+	/**
+	 * Obtiene la secuencia de un identificador construido con
+	 * {@link #identificador(long)}.
+	 *
+	 * @param identificador El identificador, normalmente de la cabecera
+	 *                      {@code Last-Event-ID}.
+	 * @return La secuencia, o -1 si el identificador no es válido o es de una
+	 *         ejecución anterior.
+	 */
+	public long secuencia(String identificador) {
+		if (identificador == null || !identificador.startsWith(epoca + "-")) {
+			return -1;
+		}
+		try {
+			long secuencia = Long.parseLong(identificador.substring(epoca.length() + 1));
+			return secuencia >= 0 ? secuencia : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+}
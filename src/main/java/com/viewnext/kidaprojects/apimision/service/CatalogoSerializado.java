@@ -0,0 +1,225 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * La clase {@code CatalogoSerializado} mantiene una instantánea del catálogo
+ * completo de misiones ya serializada como JSON en UTF-8, junto con una copia
+ * comprimida con gzip, para responder a {@code GET /mision} sin volver a
+ * serializar ni comprimir la lista en cada petición.
+ *
+ * <p>
+ * La instantánea se construye en un único hilo en segundo plano al arrancar la
+ * aplicación y de nuevo tras cada escritura; las escrituras que llegan durante
+ * una construcción se agrupan en la siguiente. Cada instantánea guarda la
+ * versión de {@code VersionCatalogo} leída antes de recorrer la tabla, de modo
+ * que solo se sirve mientras esa versión sea la actual. Se deshabilita con
+ * {@code apimision.catalogo-serializado.habilitado=false}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class CatalogoSerializado {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CatalogoSerializado.class);
+
+	/**
+	 * Catálogo serializado en una versión concreta.
+	 */
+	public static class Instantanea {
+
+		private final long version;
+		private final int misiones;
+		private final byte[] json;
+		private final byte[] gzip;
+
+		/**
+		 * @param version  El número de escrituras del catálogo al construirla.
+		 * @param misiones El número de misiones serializadas.
+		 * @param json     El catálogo como array JSON en UTF-8.
+		 * @param gzip     El mismo array comprimido con gzip.
+		 */
+		Instantanea(long version, int misiones, byte[] json, byte[] gzip) {
+			this.version = version;
+			this.misiones = misiones;
+			this.json = json;
+			this.gzip = gzip;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+
+		public int getMisiones() {
+			return misiones;
+		}
+
+		public byte[] getJson() {
+			return json;
+		}
+
+		public byte[] getGzip() {
+			return gzip;
+		}
+
+	}
+
+	private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+		Thread hilo = new Thread(tarea, "catalogo-serializado");
+		hilo.setDaemon(true);
+		return hilo;
+	});
+
+	private final AtomicBoolean pendiente = new AtomicBoolean();
+
+	private volatile Instantanea instantanea;
+
+	@Value("${apimision.catalogo-serializado.habilitado:true}")
+	private boolean habilitado;
+
+	@Autowired
+	private VersionCatalogo versionCatalogo;
+
+	@Autowired
+	private MisionRepository misionRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Construye la primera instantánea cuando la aplicación está lista para
+	 * atender peticiones.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void construirEnSegundoPlano() {
+		reconstruir();
+	}
+
+	/**
+	 * Programa la construcción de una instantánea nueva. Si ya hay una pendiente
+	 * de empezar, esta llamada no añade otra.
+	 */
+	public void reconstruir() {
+		if (habilitado && pendiente.compareAndSet(false, true)) {
+			ejecutor.execute(this::construir);
+		}
+	}
+
+	/**
+	 * Devuelve la instantánea si corresponde a la versión actual del catálogo.
+	 *
+	 * @return La instantánea al día, o {@code null} si no existe o hay una
+	 *         escritura posterior que aún no incluye.
+	 */
+	public Instantanea getActual() {
+		Instantanea actual = instantanea;
+		if (actual == null || actual.getVersion() != versionCatalogo.getVersion()) {
+			return null;
+		}
+		return actual;
+	}
+
+	/**
+	 * Recorre la tabla de misiones y serializa el catálogo en una instantánea
+	 * nueva.
+	 */
+	void construir() {
+		pendiente.set(false);
+		long inicio = System.nanoTime();
+		long version = versionCatalogo.getVersion();
+
+		try {
+			ByteArrayOutputStream json = new ByteArrayOutputStream(64 * 1024);
+			int misiones = new TransactionTemplate(transactionManager).execute(estado -> {
+				int total = 0;
+				try (Stream<Mision> filas = misionRepository.streamAll();
+						SequenceWriter escritor = objectMapper.writerFor(Mision.class).writeValuesAsArray(json)) {
+					for (Mision mision : (Iterable<Mision>) filas::iterator) {
+						escritor.write(mision);
+						entityManager.detach(mision);
+						total++;
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return total;
+			});
+
+			byte[] bytes = json.toByteArray();
+			instantanea = new Instantanea(version, misiones, bytes, comprimir(bytes));
+			LOGGER.debug("Catálogo serializado: {} misiones, {} bytes JSON, {} bytes gzip, {} ms", misiones,
+					bytes.length, instantanea.getGzip().length, (System.nanoTime() - inicio) / 1_000_000);
+		} catch (RuntimeException e) {
+			LOGGER.warn("No se ha podido serializar el catálogo de misiones; se serializará en cada petición", e);
+		}
+	}
+
+	/**
+	 * Comprime con gzip al nivel máximo, ya que el coste se paga una sola vez por
+	 * escritura y no por petición.
+	 *
+	 * @param datos Los datos a comprimir.
+	 * @return Los datos comprimidos.
+	 */
+	private static byte[] comprimir(byte[] datos) {
+		ByteArrayOutputStream comprimidos = new ByteArrayOutputStream(Math.max(512, datos.length / 4));
+		try (OutputStream gzip = new GZIPOutputStream(comprimidos) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			gzip.write(datos);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return comprimidos.toByteArray();
+	}
+
+	@PreDestroy
+	public void detener() {
+		ejecutor.shutdownNow();
+	}
+
+}
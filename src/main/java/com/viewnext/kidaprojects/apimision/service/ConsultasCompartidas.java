@@ -0,0 +1,163 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code ConsultasCompartidas} agrupa las llamadas concurrentes a una
+ * misma consulta con los mismos argumentos: la primera la ejecuta y las que
+ * llegan mientras está en curso esperan su resultado en lugar de repetirla en
+ * la base de datos.
+ *
+ * <p>
+ * Si la consulta lanza una excepción, la reciben todas las llamadas que la
+ * esperaban. La espera está limitada a
+ * {@code apimision.consultas-compartidas.espera-maxima}; pasado ese tiempo, la
+ * llamada deja de esperar y ejecuta la consulta por su cuenta. El resultado no
+ * se guarda: en cuanto la consulta termina, la siguiente llamada la ejecuta de
+ * nuevo.
+ * </p>
+ *
+ * <p>
+ * La clave incluye la versión de {@code VersionCatalogo}, de modo que una
+ * llamada posterior a una escritura no recibe el resultado de una consulta
+ * empezada antes de ella. Por cada consulta se publican las ejecutadas, las
+ * compartidas y las que han agotado la espera; la proporción de consultas
+ * ahorradas es {@code compartidas / (ejecutadas + compartidas)}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class ConsultasCompartidas {
+
+	private final Map<List<Object>, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+	private final Map<String, Contadores> porConsulta = new ConcurrentHashMap<>();
+
+	private final VersionCatalogo versionCatalogo;
+	private final MeterRegistry registry;
+	private final boolean habilitadas;
+	private final long esperaMaximaNanos;
+
+	public ConsultasCompartidas(VersionCatalogo versionCatalogo,
+			@Value("${apimision.consultas-compartidas.habilitadas:true}") boolean habilitadas,
+			@Value("${apimision.consultas-compartidas.espera-maxima:PT2S}") Duration esperaMaxima,
+			MeterRegistry registry) {
+		this.versionCatalogo = versionCatalogo;
+		this.registry = registry;
+		this.habilitadas = habilitadas;
+		this.esperaMaximaNanos = esperaMaxima.toNanos();
+
+		Gauge.builder("mision.consultas.en-curso", enCurso, Map::size)
+				.description("Consultas compartidas en curso")
+				.register(registry);
+	}
+
+	/**
+	 * Ejecuta una consulta o, si ya hay una en curso con los mismos argumentos,
+	 * espera su resultado.
+	 *
+	 * @param <T>        El tipo del resultado.
+	 * @param consulta   El nombre de la consulta, también usado en las métricas.
+	 * @param argumentos Los argumentos de la consulta, con {@code equals} y
+	 *                   {@code hashCode} por valor.
+	 * @param ejecucion  La consulta.
+	 * @return El resultado de la consulta.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T ejecutar(String consulta, List<?> argumentos, Supplier<T> ejecucion) {
+		if (!habilitadas) {
+			return ejecucion.get();
+		}
+		Contadores contadores = porConsulta.computeIfAbsent(consulta, Contadores::new);
+		List<Object> clave = List.of(consulta, versionCatalogo.getVersion(), argumentos);
+
+		CompletableFuture<Object> propia = new CompletableFuture<>();
+		CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propia);
+		if (existente == null) {
+			contadores.ejecutadas.increment();
+			try {
+				T resultado = ejecucion.get();
+				propia.complete(resultado);
+				return resultado;
+			} catch (RuntimeException | Error e) {
+				propia.completeExceptionally(e);
+				throw e;
+			} finally {
+				enCurso.remove(clave, propia);
+			}
+		}
+
+		try {
+			T resultado = (T) existente.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+			contadores.compartidas.increment();
+			return resultado;
+		} catch (ExecutionException e) {
+			contadores.compartidas.increment();
+			throw relanzar(e.getCause());
+		} catch (TimeoutException e) {
+			contadores.expiradas.increment();
+			return ejecucion.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrumpida la espera de la consulta " + consulta, e);
+		}
+	}
+
+	private static RuntimeException relanzar(Throwable causa) {
+		if (causa instanceof RuntimeException) {
+			return (RuntimeException) causa;
+		}
+		if (causa instanceof Error) {
+			throw (Error) causa;
+		}
+		return new IllegalStateException(causa);
+	}
+
+	/**
+	 * Contadores de una consulta.
+	 */
+	private final class Contadores {
+
+		private final Counter ejecutadas;
+		private final Counter compartidas;
+		private final Counter expiradas;
+
+		Contadores(String consulta) {
+			this.ejecutadas = Counter.builder("mision.consultas.ejecutadas")
+					.description("Consultas ejecutadas en la base de datos por la primera llamada")
+					.tag("consulta", consulta)
+					.register(registry);
+			this.compartidas = Counter.builder("mision.consultas.compartidas")
+					.description("Llamadas que han recibido el resultado de una consulta ya en curso")
+					.tag("consulta", consulta)
+					.register(registry);
+			this.expiradas = Counter.builder("mision.consultas.expiradas")
+					.description("Llamadas que han agotado la espera y han ejecutado la consulta")
+					.tag("consulta", consulta)
+					.register(registry);
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.apimision.model.EstadisticaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * La clase {@code ContadoresNivel} mantiene por nivel el número de misiones,
+ * las activas, las superadas y la suma de recompensas, para responder a
+ * {@code GET /mision/estadisticas} sin recorrer el catálogo.
+ *
+ * <p>
+ * Los contadores son {@code LongAdder}, de modo que las escrituras concurrentes
+ * no compiten por la misma variable. Se actualizan desde {@code IndiceNivel}
+ * cada vez que reemplaza una misión, restando la versión anterior y sumando la
+ * nueva: es el único punto que conoce el estado previo de todas las misiones,
+ * incluidas las de los cambios por lotes y los reinicios. Por eso solo son
+ * válidos una vez construido el índice; hasta entonces, o si el índice está
+ * deshabilitado, las estadísticas se calculan en la base de datos. Una lectura
+ * concurrente con una escritura puede ver solo parte de sus cambios.
+ * </p>
+ *
+ * <p>
+ * Cada {@code apimision.estadisticas.verificacion} se comparan con una consulta
+ * de agregación en la base de datos primaria: con réplicas, dos lecturas
+ * seguidas de una réplica retrasada corregirían los contadores con valores
+ * antiguos. La comparación se descarta si el catálogo cambia mientras se hace,
+ * y un nivel solo se corrige con los valores de la base de datos si no coincide
+ * en dos verificaciones seguidas, ya que una escritura confirmada puede no
+ * haber llegado todavía al índice. Los cambios hechos en la base de datos fuera
+ * de la aplicación se corrigen así en la siguiente verificación.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class ContadoresNivel {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContadoresNivel.class);
+
+	private final ConcurrentSkipListMap<Integer, Contadores> porNivel = new ConcurrentSkipListMap<>();
+
+	private final MisionRepository misionRepository;
+	private final VersionCatalogo versionCatalogo;
+	private final PlatformTransactionManager transactionManager;
+	private final Duration verificacion;
+
+	private final ScheduledExecutorService ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+		Thread hilo = new Thread(tarea, "contadores-nivel");
+		hilo.setDaemon(true);
+		return hilo;
+	});
+
+	/**
+	 * Niveles que no coincidían con la base de datos en la última verificación.
+	 * Solo lo usa el hilo de verificación.
+	 */
+	private Set<Integer> discrepantes = Set.of();
+
+	private volatile boolean listos;
+
+	private final Counter verificaciones;
+	private final Counter discrepancias;
+	private final Counter correcciones;
+
+	public ContadoresNivel(MisionRepository misionRepository, VersionCatalogo versionCatalogo,
+			PlatformTransactionManager transactionManager,
+			@Value("${apimision.estadisticas.verificacion:PT5M}") Duration verificacion, MeterRegistry registry) {
+		this.misionRepository = misionRepository;
+		this.versionCatalogo = versionCatalogo;
+		this.transactionManager = transactionManager;
+		this.verificacion = verificacion;
+
+		this.verificaciones = Counter.builder("mision.estadisticas.verificaciones")
+				.description("Comparaciones de los contadores por nivel con la base de datos")
+				.register(registry);
+		this.discrepancias = Counter.builder("mision.estadisticas.discrepancias")
+				.description("Niveles cuyos contadores no coincidían con la base de datos")
+				.register(registry);
+		this.correcciones = Counter.builder("mision.estadisticas.correcciones")
+				.description("Niveles corregidos con los valores de la base de datos")
+				.register(registry);
+	}
+
+	/**
+	 * Aplica a los contadores el reemplazo de una misión.
+	 *
+	 * @param anterior La versión anterior de la misión, o {@code null} si es nueva.
+	 * @param nueva    La versión nueva de la misión, o {@code null} si se retira.
+	 */
+	void registrar(Mision anterior, Mision nueva) {
+		if (anterior != null) {
+			contadores(anterior.getNivel()).sumar(anterior, -1);
+		}
+		if (nueva != null) {
+			contadores(nueva.getNivel()).sumar(nueva, 1);
+		}
+	}
+
+	/**
+	 * Marca los contadores como válidos, una vez cargadas todas las misiones, y
+	 * programa su verificación periódica.
+	 */
+	void activar() {
+		listos = true;
+		long periodo = verificacion.toMillis();
+		if (periodo > 0) {
+			ejecutor.scheduleWithFixedDelay(this::verificar, periodo, periodo, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * @return {@code true} si los contadores reflejan todo el catálogo.
+	 */
+	public boolean isListos() {
+		return listos;
+	}
+
+	/**
+	 * Devuelve el valor actual de los contadores.
+	 *
+	 * @return Las estadísticas de los niveles con alguna misión, ordenadas por
+	 *         nivel.
+	 */
+	public List<EstadisticaNivel> obtener() {
+		List<EstadisticaNivel> niveles = new ArrayList<>(porNivel.size());
+		for (Map.Entry<Integer, Contadores> entrada : porNivel.entrySet()) {
+			EstadisticaNivel estadistica = entrada.getValue().leer(entrada.getKey());
+			if (estadistica.getMisiones() != 0) {
+				niveles.add(estadistica);
+			}
+		}
+		return niveles;
+	}
+
+	/**
+	 * Compara los contadores con la base de datos y corrige los niveles que no
+	 * coinciden por segunda vez seguida.
+	 */
+	void verificar() {
+		try {
+			long version = versionCatalogo.getVersion();
+			Map<Integer, EstadisticaNivel> enBaseDatos = new HashMap<>();
+			// Una transacción que no es de solo lectura no se envía a una réplica
+			List<EstadisticaNivel> agregadas = new TransactionTemplate(transactionManager)
+					.execute(estado -> misionRepository.agregarPorNivel());
+			for (EstadisticaNivel estadistica : agregadas) {
+				enBaseDatos.put(estadistica.getNivel(), estadistica);
+			}
+			Map<Integer, EstadisticaNivel> enMemoria = new HashMap<>();
+			for (EstadisticaNivel estadistica : obtener()) {
+				enMemoria.put(estadistica.getNivel(), estadistica);
+			}
+			if (version != versionCatalogo.getVersion()) {
+				return;
+			}
+			verificaciones.increment();
+
+			Set<Integer> niveles = new HashSet<>(enBaseDatos.keySet());
+			niveles.addAll(enMemoria.keySet());
+			Set<Integer> noCoinciden = new HashSet<>();
+			for (Integer nivel : niveles) {
+				EstadisticaNivel esperada = enBaseDatos.getOrDefault(nivel, new EstadisticaNivel(nivel, 0, 0, 0, 0));
+				EstadisticaNivel actual = enMemoria.getOrDefault(nivel, new EstadisticaNivel(nivel, 0, 0, 0, 0));
+				if (esperada.mismosTotales(actual)) {
+					continue;
+				}
+				noCoinciden.add(nivel);
+				discrepancias.increment();
+				if (discrepantes.contains(nivel)) {
+					LOGGER.warn("Contadores del nivel {} corregidos: {} en memoria, {} en la base de datos", nivel,
+							actual, esperada);
+					contadores(nivel).corregir(actual, esperada);
+					correcciones.increment();
+				}
+			}
+			discrepantes = noCoinciden;
+		} catch (RuntimeException e) {
+			LOGGER.warn("No se han podido verificar los contadores por nivel", e);
+		}
+	}
+
+	@PreDestroy
+	void detener() {
+		ejecutor.shutdownNow();
+	}
+
+	private Contadores contadores(int nivel) {
+		return porNivel.computeIfAbsent(nivel, n -> new Contadores());
+	}
+
+	/**
+	 * Contadores de un nivel.
+	 */
+	private static final class Contadores {
+
+		private final LongAdder misiones = new LongAdder();
+		private final LongAdder activas = new LongAdder();
+		private final LongAdder superadas = new LongAdder();
+		private final LongAdder recompensa = new LongAdder();
+
+		void sumar(Mision mision, int signo) {
+			misiones.add(signo);
+			if (mision.isActiva()) {
+				activas.add(signo);
+			}
+			if (mision.isSuperada()) {
+				superadas.add(signo);
+			}
+			recompensa.add((long) signo * mision.getRecompensa());
+		}
+
+		/**
+		 * Suma a cada contador la diferencia entre los valores esperados y los
+		 * leídos, sin perder las escrituras aplicadas después de leerlos.
+		 */
+		void corregir(EstadisticaNivel leida, EstadisticaNivel esperada) {
+			misiones.add(esperada.getMisiones() - leida.getMisiones());
+			activas.add(esperada.getActivas() - leida.getActivas());
+			superadas.add(esperada.getSuperadas() - leida.getSuperadas());
+			recompensa.add(esperada.getRecompensa() - leida.getRecompensa());
+		}
+
+		EstadisticaNivel leer(int nivel) {
+			return new EstadisticaNivel(nivel, misiones.sum(), activas.sum(), superadas.sum(), recompensa.sum());
+		}
+	}
+
+}
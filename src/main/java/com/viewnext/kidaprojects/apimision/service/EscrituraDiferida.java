@@ -0,0 +1,325 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * La clase {@code EscrituraDiferida} acumula en memoria las misiones marcadas
+ * como superadas y las escribe en la base de datos por lotes, de modo que un
+ * pico de peticiones {@code PUT /mision/{idMision}} se convierte en unas pocas
+ * sentencias {@code UPDATE ... WHERE idMision IN (...)}.
+ *
+ * <p>
+ * La cola guarda cada identificador una sola vez: marcar de nuevo una misión
+ * pendiente no ocupa más espacio. Se vacía cada
+ * {@code apimision.escritura-diferida.intervalo}, en cuanto acumula
+ * {@code umbral} misiones y al detener la aplicación. Admite como mucho
+ * {@code capacidad} misiones; con la cola llena, {@link #encolar(int)} espera
+ * hasta {@code espera-maxima} a que se vacíe y, si no, la rechaza. Un lote
+ * fallido vuelve a la cola para el siguiente vaciado.
+ * </p>
+ *
+ * <p>
+ * Las misiones aceptadas y aún no escritas se pierden si el proceso termina de
+ * forma abrupta. Se habilita con
+ * {@code apimision.escritura-diferida.habilitada=true}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class EscrituraDiferida {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EscrituraDiferida.class);
+
+	private final boolean habilitada;
+	private final int capacidad;
+	private final int umbral;
+	private final Duration intervalo;
+	private final long esperaMaximaNanos;
+
+	private final ReentrantLock cerrojo = new ReentrantLock();
+	private final Condition hayEspacio = cerrojo.newCondition();
+	private final LinkedHashSet<Integer> pendientes = new LinkedHashSet<>();
+
+	/**
+	 * Serializa los vaciados del hilo propio y los que se piden desde fuera, para
+	 * que un vaciado síncrono no termine antes que otro ya en curso.
+	 */
+	private final ReentrantLock escribiendo = new ReentrantLock();
+	private final AtomicBoolean vaciadoPedido = new AtomicBoolean();
+	private volatile ScheduledExecutorService ejecutor;
+	private volatile Consumer<List<Integer>> escritura;
+	private volatile boolean detenida;
+
+	private final Timer vaciados;
+	private final DistributionSummary lotes;
+	private final Counter fusionadas;
+	private final Counter rechazadas;
+	private final Counter fallidas;
+
+	public EscrituraDiferida(@Value("${apimision.escritura-diferida.habilitada:false}") boolean habilitada,
+			@Value("${apimision.escritura-diferida.capacidad:10000}") int capacidad,
+			@Value("${apimision.escritura-diferida.umbral:1000}") int umbral,
+			@Value("${apimision.escritura-diferida.intervalo:PT0.2S}") Duration intervalo,
+			@Value("${apimision.escritura-diferida.espera-maxima:PT0.5S}") Duration esperaMaxima,
+			MeterRegistry registry) {
+		this.habilitada = habilitada;
+		this.capacidad = Math.max(1, capacidad);
+		this.umbral = Math.max(1, Math.min(umbral, this.capacidad));
+		this.intervalo = intervalo;
+		this.esperaMaximaNanos = esperaMaxima.toNanos();
+
+		// Lectura sin el cerrojo: la métrica admite un valor aproximado
+		Gauge.builder("mision.escritura.diferida.pendientes", pendientes, Set::size)
+				.description("Misiones superadas pendientes de escribir")
+				.register(registry);
+		this.vaciados = Timer.builder("mision.escritura.diferida.vaciado")
+				.description("Duración de cada escritura por lotes de la cola de misiones superadas")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(registry);
+		this.lotes = DistributionSummary.builder("mision.escritura.diferida.lote")
+				.description("Misiones escritas en cada vaciado de la cola")
+				.baseUnit("misiones")
+				.register(registry);
+		this.fusionadas = Counter.builder("mision.escritura.diferida.fusionadas")
+				.description("Misiones marcadas de nuevo mientras estaban pendientes")
+				.register(registry);
+		this.rechazadas = Counter.builder("mision.escritura.diferida.rechazadas")
+				.description("Misiones rechazadas con la cola llena")
+				.register(registry);
+		this.fallidas = Counter.builder("mision.escritura.diferida.fallidas")
+				.description("Misiones de vaciados fallidos")
+				.register(registry);
+	}
+
+	/**
+	 * Crea el hilo de vaciado y empieza a vaciar la cola periódicamente con la
+	 * escritura indicada. No hace nada si la escritura diferida no está
+	 * habilitada.
+	 *
+	 * @param escritura La escritura por lotes de los identificadores pendientes.
+	 */
+	public void iniciar(Consumer<List<Integer>> escritura) {
+		if (!habilitada) {
+			return;
+		}
+		this.escritura = escritura;
+		ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+			Thread hilo = new Thread(tarea, "escritura-diferida");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+		long periodo = intervalo.toMillis();
+		ejecutor.scheduleWithFixedDelay(this::vaciar, periodo, periodo, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return {@code true} si la escritura diferida está habilitada y en marcha.
+	 */
+	public boolean isHabilitada() {
+		return escritura != null && !detenida;
+	}
+
+	/**
+	 * Añade una misión a la cola, esperando hasta {@code espera-maxima} si está
+	 * llena.
+	 *
+	 * @param idMision El identificador de la misión superada.
+	 * @return {@code true} si la misión está en la cola, {@code false} si la cola
+	 *         sigue llena o la escritura diferida se ha detenido.
+	 */
+	public boolean encolar(int idMision) {
+		boolean vaciar;
+		cerrojo.lock();
+		try {
+			if (pendientes.contains(idMision)) {
+				fusionadas.increment();
+				return true;
+			}
+			long espera = esperaMaximaNanos;
+			while (pendientes.size() >= capacidad && !detenida) {
+				if (espera <= 0) {
+					rechazadas.increment();
+					return false;
+				}
+				espera = hayEspacio.awaitNanos(espera);
+			}
+			if (detenida) {
+				rechazadas.increment();
+				return false;
+			}
+			pendientes.add(idMision);
+			vaciar = pendientes.size() >= umbral;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rechazadas.increment();
+			return false;
+		} finally {
+			cerrojo.unlock();
+		}
+
+		ScheduledExecutorService hilo = ejecutor;
+		if (vaciar && hilo != null && vaciadoPedido.compareAndSet(false, true)) {
+			try {
+				hilo.execute(() -> {
+					vaciadoPedido.set(false);
+					vaciar();
+				});
+			} catch (RejectedExecutionException e) {
+				// Detenida entre tanto: detener() escribe la misión al vaciar la cola
+				vaciadoPedido.set(false);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Escribe todas las misiones pendientes en el hilo que llama, después de
+	 * cualquier vaciado en curso.
+	 */
+	public void vaciar() {
+		escribiendo.lock();
+		try {
+			List<Integer> lote = extraer();
+			if (lote.isEmpty() || escritura == null) {
+				return;
+			}
+
+			long inicio = System.nanoTime();
+			try {
+				escritura.accept(lote);
+				lotes.record(lote.size());
+			} catch (RuntimeException e) {
+				fallidas.increment(lote.size());
+				LOGGER.warn("Escritura diferida de {} misiones superadas fallida; se reintentará", lote.size(), e);
+				devolver(lote);
+			} finally {
+				vaciados.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+			}
+		} finally {
+			escribiendo.unlock();
+		}
+	}
+
+	/**
+	 * Deja de aceptar misiones, espera al vaciado en curso y escribe las que
+	 * quedan pendientes.
+	 */
+	public void detener() {
+		if (detenida) {
+			return;
+		}
+		cerrojo.lock();
+		try {
+			detenida = true;
+			hayEspacio.signalAll();
+		} finally {
+			cerrojo.unlock();
+		}
+
+		if (ejecutor != null) {
+			ejecutor.shutdown();
+			try {
+				ejecutor.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		vaciar();
+
+		int perdidas = getPendientes();
+		if (perdidas > 0) {
+			LOGGER.error("Escritura diferida detenida con {} misiones superadas sin escribir", perdidas);
+		}
+	}
+
+	/**
+	 * @return El número de misiones pendientes de escribir.
+	 */
+	public int getPendientes() {
+		cerrojo.lock();
+		try {
+			return pendientes.size();
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * Vacía la cola y despierta a las peticiones que esperan espacio.
+	 *
+	 * @return Las misiones que estaban pendientes, en orden de llegada.
+	 */
+	private List<Integer> extraer() {
+		cerrojo.lock();
+		try {
+			if (pendientes.isEmpty()) {
+				return List.of();
+			}
+			List<Integer> lote = new ArrayList<>(pendientes);
+			pendientes.clear();
+			hayEspacio.signalAll();
+			return lote;
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * Devuelve a la cola las misiones de un vaciado fallido, sin superar la
+	 * capacidad; las que no caben se descartan. Tras detener la aplicación no se
+	 * reintenta.
+	 *
+	 * @param lote Las misiones del vaciado fallido.
+	 */
+	private void devolver(List<Integer> lote) {
+		cerrojo.lock();
+		try {
+			int descartadas = 0;
+			for (Integer idMision : lote) {
+				if (detenida || (pendientes.size() >= capacidad && !pendientes.contains(idMision))) {
+					descartadas++;
+				} else {
+					pendientes.add(idMision);
+				}
+			}
+			if (descartadas > 0) {
+				LOGGER.error("Escritura diferida: {} misiones superadas descartadas tras un vaciado fallido",
+						descartadas);
+			}
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+}
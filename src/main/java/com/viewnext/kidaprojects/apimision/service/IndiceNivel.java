@@ -0,0 +1,503 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * La clase {@code IndiceNivel} mantiene en memoria todas las misiones agrupadas
+ * por nivel para resolver las búsquedas de {@code ConsultaNivel} sin consultar
+ * la base de datos.
+ *
+ * <p>
+ * Las misiones se guardan por identificador y, en un mapa ordenado de nivel a
+ * cubo, sus claves de ordenación: cada cubo guarda, ya ordenadas, una clave por
+ * misión para cada {@link ConsultaNivel.Orden}. Una búsqueda mezcla en orden los
+ * cubos de su rango de niveles y se detiene al completar la página, sin ordenar
+ * todas las misiones del rango; solo recorre las claves de las páginas
+ * anteriores. Las misiones almacenadas no se modifican nunca: cada cambio de
+ * estado reemplaza la entrada por una copia actualizada, salvo que la entrada
+ * tenga ya una versión posterior.
+ * </p>
+ *
+ * <p>
+ * El índice se construye en segundo plano al arrancar la aplicación. Una fila
+ * leída de la base de datos no sustituye a una entrada con versión posterior,
+ * de modo que las escrituras recibidas durante la construcción prevalecen. Las
+ * misiones de un cambio por lotes recibido durante la construcción se retiran
+ * del índice y, al terminar la lectura, se vuelven a leer por identificador,
+ * en rondas hasta que no quede ninguna; solo un reinicio de todas las misiones
+ * obliga a repetir la lectura completa. Si no termina en
+ * {@value #MAX_RECORRIDOS} lecturas completas y {@value #MAX_RECARGAS} rondas,
+ * se abandona la construcción. Mientras no esté listo, o si está deshabilitado
+ * con
+ * {@code apimision.indice-nivel.habilitado=false}, {@link #isListo()} devuelve
+ * {@code false} y las búsquedas deben resolverse en la base de datos.
+ * </p>
+ *
+ * <p>
+ * Cada reemplazo de una misión, incluidos los de la construcción, se aplica
+ * también a {@code ContadoresNivel}, que se activa cuando el índice está listo.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class IndiceNivel {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndiceNivel.class);
+
+	/**
+	 * Lecturas completas de la tabla, como máximo, durante la construcción.
+	 */
+	static final int MAX_RECORRIDOS = 3;
+
+	/**
+	 * Rondas de relectura de misiones cambiadas por lotes, como máximo, durante
+	 * la construcción.
+	 */
+	static final int MAX_RECARGAS = 20;
+
+	private static final int TAMANO_RECARGA = 1000;
+
+	private final Map<Integer, Mision> porId = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListMap<Integer, Cubo> porNivel = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Misiones cambiadas por lotes durante la construcción, pendientes de leer de
+	 * nuevo de la base de datos.
+	 */
+	private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Se activa con un reinicio de todas las misiones durante la construcción.
+	 */
+	private final AtomicBoolean recorrerDeNuevo = new AtomicBoolean();
+
+	/**
+	 * Los cambios por lotes durante la construcción lo toman en modo compartido;
+	 * la construcción, en exclusivo para comprobar que no queda nada pendiente y
+	 * marcar el índice como listo.
+	 */
+	private final ReentrantReadWriteLock construccion = new ReentrantReadWriteLock();
+
+	private volatile boolean listo;
+
+	@Value("${apimision.indice-nivel.habilitado:true}")
+	private boolean habilitado;
+
+	@Autowired
+	private MisionRepository misionRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ContadoresNivel contadoresNivel;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Construye el índice en un hilo en segundo plano cuando la aplicación está
+	 * lista para atender peticiones.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void construirEnSegundoPlano() {
+		if (!habilitado) {
+			return;
+		}
+		Thread hilo = new Thread(this::construir, "indice-nivel");
+		hilo.setDaemon(true);
+		hilo.start();
+	}
+
+	/**
+	 * Carga en el índice todas las misiones y lo marca como listo, volviendo a
+	 * leer las que cambian por lotes mientras tanto.
+	 */
+	void construir() {
+		long inicio = System.nanoTime();
+		try {
+			int recorridos = 0;
+			int recargas = 0;
+			boolean completo = true;
+			while (true) {
+				if (completo) {
+					if (++recorridos > MAX_RECORRIDOS) {
+						throw new IllegalStateException("Reinicios continuos durante la construcción");
+					}
+					recorrer();
+				} else {
+					if (++recargas > MAX_RECARGAS) {
+						throw new IllegalStateException("Cambios por lotes continuos durante la construcción");
+					}
+					recargarPendientes();
+				}
+				if (terminar()) {
+					break;
+				}
+				completo = recorrerDeNuevo.getAndSet(false);
+			}
+
+			contadoresNivel.activar();
+			LOGGER.info("Índice de niveles construido: {} misiones en {} niveles, {} lecturas completas, "
+					+ "{} rondas de relectura, {} ms", porId.size(), porNivel.size(), recorridos, recargas,
+					(System.nanoTime() - inicio) / 1_000_000);
+		} catch (RuntimeException e) {
+			LOGGER.error("No se ha podido construir el índice de niveles; se usará la base de datos", e);
+		}
+	}
+
+	/**
+	 * Lee todas las misiones de la base de datos.
+	 */
+	private void recorrer() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+			try (Stream<Mision> misiones = misionRepository.streamAll()) {
+				misiones.forEach(mision -> {
+					entityManager.detach(mision);
+					cargar(mision);
+				});
+			}
+		});
+	}
+
+	/**
+	 * Vuelve a leer, por bloques de identificadores, las misiones cambiadas por
+	 * lotes. Cada identificador se retira de los pendientes antes de leerlo, así
+	 * que un cambio posterior a la lectura lo vuelve a añadir para la ronda
+	 * siguiente.
+	 */
+	private void recargarPendientes() {
+		List<Integer> ids = List.copyOf(pendientes);
+		TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+		lectura.setReadOnly(true);
+		for (int i = 0; i < ids.size(); i += TAMANO_RECARGA) {
+			List<Integer> bloque = ids.subList(i, Math.min(i + TAMANO_RECARGA, ids.size()));
+			pendientes.removeAll(bloque);
+			lectura.executeWithoutResult(estado -> {
+				for (Mision mision : misionRepository.findAllById(bloque)) {
+					entityManager.detach(mision);
+					cargar(mision);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Carga una misión leída de la base de datos, salvo que esté pendiente de
+	 * volver a leerse o que el índice tenga ya una versión posterior.
+	 *
+	 * @param mision La misión leída.
+	 */
+	private void cargar(Mision mision) {
+		aplicar(mision.getIdMision(), actual -> pendientes.contains(mision.getIdMision())
+				|| actual != null && actual.getVersion() > mision.getVersion() ? actual : mision);
+	}
+
+	/**
+	 * Marca el índice como listo si no quedan misiones pendientes ni un reinicio
+	 * por aplicar, sin que pueda llegar entretanto un cambio por lotes.
+	 *
+	 * @return {@code true} si el índice ha quedado listo.
+	 */
+	private boolean terminar() {
+		construccion.writeLock().lock();
+		try {
+			if (pendientes.isEmpty() && !recorrerDeNuevo.get()) {
+				listo = true;
+			}
+			return listo;
+		} finally {
+			construccion.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Añade o reemplaza una misión en el índice. Si el índice tiene ya una
+	 * versión posterior de la misión, se conserva esa.
+	 *
+	 * @param mision La versión de la misión tras una escritura.
+	 */
+	public void reemplazar(Mision mision) {
+		if (!habilitado) {
+			return;
+		}
+		aplicar(mision.getIdMision(),
+				actual -> actual != null && actual.getVersion() > mision.getVersion() ? actual : mision);
+	}
+
+	/**
+	 * Aplica un cambio a las misiones indicadas que estén en el índice. Durante
+	 * la construcción, en cambio, las retira para volver a leerlas.
+	 *
+	 * @param idsMision Los identificadores de las misiones.
+	 * @param cambio    La función que devuelve una copia actualizada de la misión.
+	 */
+	public void actualizar(Collection<Integer> idsMision, UnaryOperator<Mision> cambio) {
+		if (!habilitado) {
+			return;
+		}
+		if (!listo) {
+			construccion.readLock().lock();
+			try {
+				if (!listo) {
+					for (Integer idMision : idsMision) {
+						pendientes.add(idMision);
+						aplicar(idMision, actual -> null);
+					}
+					return;
+				}
+			} finally {
+				construccion.readLock().unlock();
+			}
+		}
+		for (Integer idMision : idsMision) {
+			aplicar(idMision, actual -> actual != null ? cambio.apply(actual) : null);
+		}
+	}
+
+	/**
+	 * Aplica un cambio a todas las misiones del índice. Durante la construcción,
+	 * en cambio, obliga a repetir la lectura completa.
+	 *
+	 * @param cambio La función que devuelve una copia actualizada de la misión.
+	 */
+	public void actualizarTodas(UnaryOperator<Mision> cambio) {
+		if (!habilitado) {
+			return;
+		}
+		if (!listo) {
+			construccion.readLock().lock();
+			try {
+				if (!listo) {
+					recorrerDeNuevo.set(true);
+					return;
+				}
+			} finally {
+				construccion.readLock().unlock();
+			}
+		}
+		actualizar(List.copyOf(porId.keySet()), cambio);
+	}
+
+	/**
+	 * Resuelve una búsqueda por nivel sobre las misiones del índice.
+	 *
+	 * @param consulta Los criterios de la búsqueda.
+	 * @return La página de misiones que cumplen los criterios.
+	 */
+	public List<Mision> consultar(ConsultaNivel consulta) {
+		ConsultaNivel.Orden orden = consulta.getOrden();
+		PriorityQueue<Recorrido> recorridos = new PriorityQueue<>();
+		for (Map.Entry<Integer, Cubo> cubo : porNivel
+				.subMap(consulta.getNivelMin(), true, consulta.getNivelMax(), true).entrySet()) {
+			Recorrido recorrido = new Recorrido(cubo.getKey(), cubo.getValue().claves(orden).iterator());
+			if (recorrido.avanzar()) {
+				recorridos.add(recorrido);
+			}
+		}
+
+		long saltar = (long) consulta.getPagina() * consulta.getTamano();
+		List<Mision> pagina = new ArrayList<>();
+		while (!recorridos.isEmpty() && pagina.size() < consulta.getTamano()) {
+			Recorrido recorrido = recorridos.poll();
+			Mision mision = porId.get((int) recorrido.clave);
+			// Durante un reemplazo la misión puede estar en dos cubos o con una clave antigua
+			if (mision != null && mision.getNivel() == recorrido.nivel && clave(orden, mision) == recorrido.clave
+					&& (!consulta.isSoloActivas() || mision.isActiva())) {
+				if (saltar > 0) {
+					saltar--;
+				} else {
+					pagina.add(mision);
+				}
+			}
+			if (recorrido.avanzar()) {
+				recorridos.add(recorrido);
+			}
+		}
+		return Collections.unmodifiableList(pagina);
+	}
+
+	/**
+	 * Obtiene una misión del índice sin consultar la base de datos.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @return La misión, o {@code null} si no está en el índice o el índice no
+	 *         está listo.
+	 */
+	public Mision obtener(int idMision) {
+		return listo ? porId.get(idMision) : null;
+	}
+
+	/**
+	 * Indica si el índice ha terminado de construirse.
+	 *
+	 * @return {@code true} si el índice puede atender búsquedas.
+	 */
+	public boolean isListo() {
+		return listo;
+	}
+
+	/**
+	 * Sustituye de forma atómica la entrada de una misión por el resultado de una
+	 * función sobre la actual, manteniendo los cubos y {@code ContadoresNivel}.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @param cambio   La función que recibe la entrada actual, o {@code null}, y
+	 *                 devuelve la nueva, la misma para no cambiarla o
+	 *                 {@code null} para eliminarla.
+	 */
+	private void aplicar(int idMision, UnaryOperator<Mision> cambio) {
+		porId.compute(idMision, (id, actual) -> {
+			Mision nueva = cambio.apply(actual);
+			if (nueva == actual) {
+				return actual;
+			}
+			// Se añade antes de retirar, para que una búsqueda concurrente no pierda la misión
+			if (nueva != null) {
+				cubo(nueva.getNivel()).anadir(nueva);
+			}
+			if (actual != null) {
+				cubo(actual.getNivel()).retirar(actual,
+						nueva != null && nueva.getNivel() == actual.getNivel() ? nueva : null);
+			}
+			contadoresNivel.registrar(actual, nueva);
+			return nueva;
+		});
+	}
+
+	private Cubo cubo(int nivel) {
+		return porNivel.computeIfAbsent(nivel, n -> new Cubo());
+	}
+
+	/**
+	 * Calcula la clave de una misión en un orden. Las claves de distintas misiones
+	 * son distintas y sus 32 bits bajos son el identificador de la misión.
+	 *
+	 * @param orden  El orden.
+	 * @param mision La misión.
+	 * @return La clave, que ordena como el orden indicado.
+	 */
+	private static long clave(ConsultaNivel.Orden orden, Mision mision) {
+		long id = Integer.toUnsignedLong(mision.getIdMision());
+		switch (orden) {
+		case RECOMPENSA_ASC:
+			return (long) mision.getRecompensa() << 32 | id;
+		case RECOMPENSA_DESC:
+			// ~recompensa invierte el orden sin desbordarse; a igual recompensa, por identificador
+			return (long) ~mision.getRecompensa() << 32 | id;
+		default:
+			return id;
+		}
+	}
+
+	/**
+	 * Claves ordenadas de las misiones de un nivel, una por cada orden.
+	 */
+	private static final class Cubo {
+
+		private final Map<ConsultaNivel.Orden, NavigableSet<Long>> porOrden = new EnumMap<>(
+				ConsultaNivel.Orden.class);
+
+		Cubo() {
+			for (ConsultaNivel.Orden orden : ConsultaNivel.Orden.values()) {
+				porOrden.put(orden, new ConcurrentSkipListSet<>());
+			}
+		}
+
+		NavigableSet<Long> claves(ConsultaNivel.Orden orden) {
+			return porOrden.get(orden);
+		}
+
+		void anadir(Mision mision) {
+			porOrden.forEach((orden, claves) -> claves.add(clave(orden, mision)));
+		}
+
+		/**
+		 * @param mision La misión a retirar.
+		 * @param nueva  La versión que la sustituye en este mismo cubo, cuyas
+		 *               claves se conservan, o {@code null}.
+		 */
+		void retirar(Mision mision, Mision nueva) {
+			porOrden.forEach((orden, claves) -> {
+				long clave = clave(orden, mision);
+				if (nueva == null || clave(orden, nueva) != clave) {
+					claves.remove(clave);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Posición de una búsqueda en las claves de un cubo.
+	 */
+	private static final class Recorrido implements Comparable<Recorrido> {
+
+		private final int nivel;
+		private final Iterator<Long> claves;
+		private long clave;
+
+		Recorrido(int nivel, Iterator<Long> claves) {
+			this.nivel = nivel;
+			this.claves = claves;
+		}
+
+		/**
+		 * @return {@code true} si ha pasado a la siguiente clave, o {@code false}
+		 *         si no quedan.
+		 */
+		boolean avanzar() {
+			if (!claves.hasNext()) {
+				return false;
+			}
+			clave = claves.next();
+			return true;
+		}
+
+		@Override
+		public int compareTo(Recorrido otro) {
+			return Long.compare(clave, otro.clave);
+		}
+	}
+
+}
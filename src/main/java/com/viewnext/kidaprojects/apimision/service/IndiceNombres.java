@@ -0,0 +1,154 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.apimision.model.MisionNombre;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+
+/**
+ * La clase {@code IndiceNombres} mantiene en memoria un índice ordenado de los
+ * nombres de las misiones para resolver búsquedas por prefijo sin consultar la
+ * base de datos.
+ *
+ * <p>
+ * Los nombres se normalizan sin mayúsculas ni acentos, de modo que "misión",
+ * "Mision" y "MISIÓN" comparten prefijo. Cada entrada se indexa con la clave
+ * {@code nombreNormalizado + '\0' + idMision}, lo que permite nombres repetidos
+ * y resolver un prefijo como un rango del mapa ordenado.
+ * </p>
+ *
+ * <p>
+ * El índice se construye en segundo plano al arrancar la aplicación. Mientras
+ * no esté listo, {@link #isListo()} devuelve {@code false} y las búsquedas
+ * deben resolverse en la base de datos.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class IndiceNombres {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndiceNombres.class);
+
+	private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+	private static final char SEPARADOR = '\0';
+
+	private final ConcurrentSkipListMap<String, Integer> indice = new ConcurrentSkipListMap<>();
+
+	private volatile boolean listo;
+
+	@Autowired
+	private MisionRepository misionRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Normaliza un texto para su comparación: elimina acentos y lo pasa a
+	 * minúsculas.
+	 *
+	 * @param texto El texto a normalizar.
+	 * @return El texto normalizado.
+	 */
+	public static String normalizar(String texto) {
+		String sinAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+		return sinAcentos.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Construye el índice en un hilo en segundo plano cuando la aplicación está
+	 * lista para atender peticiones.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void construirEnSegundoPlano() {
+		Thread hilo = new Thread(this::construir, "indice-nombres");
+		hilo.setDaemon(true);
+		hilo.start();
+	}
+
+	/**
+	 * Carga en el índice el identificador y el nombre de todas las misiones y lo
+	 * marca como listo.
+	 */
+	void construir() {
+		long inicio = System.nanoTime();
+		try {
+			new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+				try (Stream<MisionNombre> nombres = misionRepository.streamNombres()) {
+					nombres.forEach(fila -> anadir(fila.getIdMision(), fila.getNombre()));
+				}
+			});
+			listo = true;
+			LOGGER.info("Índice de nombres construido: {} misiones, {} ms", indice.size(),
+					(System.nanoTime() - inicio) / 1_000_000);
+		} catch (RuntimeException e) {
+			LOGGER.error("No se ha podido construir el índice de nombres; se usará la base de datos", e);
+		}
+	}
+
+	/**
+	 * Añade una misión al índice.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @param nombre   El nombre de la misión; si es {@code null} no se indexa.
+	 */
+	public void anadir(int idMision, String nombre) {
+		if (nombre != null) {
+			indice.put(normalizar(nombre) + SEPARADOR + idMision, idMision);
+		}
+	}
+
+	/**
+	 * Busca las misiones cuyo nombre normalizado comienza por el prefijo
+	 * normalizado, ordenadas por nombre.
+	 *
+	 * @param prefijo El prefijo a buscar.
+	 * @param limite  El número máximo de resultados.
+	 * @return Los identificadores de las misiones encontradas.
+	 */
+	public List<Integer> buscar(String prefijo, int limite) {
+		String desde = normalizar(prefijo);
+		String hasta = desde + Character.MAX_VALUE;
+		List<Integer> idsMision = new ArrayList<>(Math.min(limite, 64));
+
+		for (Integer idMision : indice.subMap(desde, true, hasta, false).values()) {
+			if (idsMision.size() >= limite) {
+				break;
+			}
+			idsMision.add(idMision);
+		}
+		return idsMision;
+	}
+
+	/**
+	 * Indica si el índice ha terminado de construirse.
+	 *
+	 * @return {@code true} si el índice puede atender búsquedas.
+	 */
+	public boolean isListo() {
+		return listo;
+	}
+
+}
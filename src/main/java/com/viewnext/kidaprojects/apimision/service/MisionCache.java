@@ -0,0 +1,131 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * La clase {@code MisionCache} mantiene en memoria las misiones consultadas por
+ * su identificador, delante de {@code MisionRepository}. La caché está acotada
+ * por número de entradas, caduca las entradas tras un tiempo de vida y registra
+ * aciertos, fallos y desalojos.
+ *
+ * <p>
+ * Las misiones inexistentes no se almacenan. Las operaciones de escritura de
+ * {@code MisionServiceImpl} deben actualizar o invalidar las entradas una vez
+ * confirmada la transacción, para que las lecturas no vean estados obsoletos.
+ * </p>
+ *
+ * <p>
+ * Los contadores se publican como métricas {@code cache.*} con la etiqueta
+ * {@code cache=misiones}.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class MisionCache implements MeterBinder {
+
+	private final Cache<Integer, Mision> cache;
+
+	public MisionCache(@Value("${apimision.cache.tamano-maximo:10000}") long tamanoMaximo,
+			@Value("${apimision.cache.ttl:PT5M}") Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(tamanoMaximo)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Obtiene una misión de la caché o, si no está, la carga con el cargador
+	 * indicado y la almacena. Las cargas concurrentes de un mismo identificador
+	 * se realizan una sola vez.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @param cargador La función que carga la misión, o devuelve {@code null} si
+	 *                 no existe.
+	 * @return La misión, o {@code null} si no existe.
+	 */
+	public Mision obtener(int idMision, IntFunction<Mision> cargador) {
+		return cache.get(idMision, id -> cargador.apply(id));
+	}
+
+	/**
+	 * Obtiene una misión solo si ya está en la caché.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @return La misión, o {@code null} si no está en la caché.
+	 */
+	public Mision obtenerSiPresente(int idMision) {
+		return cache.getIfPresent(idMision);
+	}
+
+	/**
+	 * Almacena o reemplaza una misión, salvo que la caché ya tenga una versión
+	 * posterior: dos escrituras confirmadas en un orden pueden llegar a la caché
+	 * en el contrario.
+	 *
+	 * @param mision La misión ya persistida.
+	 */
+	public void actualizar(Mision mision) {
+		cache.asMap().compute(mision.getIdMision(),
+				(id, actual) -> actual != null && actual.getVersion() > mision.getVersion() ? actual : mision);
+	}
+
+	/**
+	 * Elimina de la caché las misiones indicadas.
+	 *
+	 * @param idsMision Los identificadores de las misiones a eliminar.
+	 */
+	public void invalidar(Collection<Integer> idsMision) {
+		cache.invalidateAll(idsMision);
+	}
+
+	/**
+	 * Elimina todas las misiones de la caché.
+	 */
+	public void invalidarTodo() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Publica los contadores de la caché en el registro de métricas.
+	 *
+	 * @param registry El registro de métricas.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		new CaffeineCacheMetrics<>(cache, "misiones", List.of()).bindTo(registry);
+	}
+
+	/**
+	 * Devuelve los contadores de aciertos, fallos y desalojos acumulados.
+	 *
+	 * @return Las estadísticas de la caché.
+	 */
+	public CacheStats getEstadisticas() {
+		return cache.stats();
+	}
+
+}
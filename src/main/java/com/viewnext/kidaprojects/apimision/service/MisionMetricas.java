@@ -0,0 +1,71 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code MisionMetricas} registra las métricas propias de la API de
+ * misiones que no cubren las métricas automáticas de Spring Boot
+ * ({@code http.server.requests} y {@code spring.data.repository.invocations}):
+ *
+ * <ul>
+ * <li>{@code mision.repositorio.filas}: filas devueltas por cada consulta al
+ * repositorio, etiquetadas por {@code consulta}.</li>
+ * <li>{@code mision.no.encontrada}: respuestas 404 de cada ruta, etiquetadas
+ * por {@code ruta}.</li>
+ * </ul>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+public class MisionMetricas {
+
+	private final MeterRegistry registry;
+	private final Map<String, DistributionSummary> filasPorConsulta = new ConcurrentHashMap<>();
+	private final Map<String, Counter> noEncontradasPorRuta = new ConcurrentHashMap<>();
+
+	public MisionMetricas(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Registra el número de filas devueltas por una consulta al repositorio.
+	 *
+	 * @param consulta El nombre del método del repositorio.
+	 * @param filas    El número de filas devueltas.
+	 */
+	public void registrarFilas(String consulta, int filas) {
+		filasPorConsulta.computeIfAbsent(consulta, c -> DistributionSummary.builder("mision.repositorio.filas")
+				.description("Filas devueltas por consulta al repositorio de misiones")
+				.baseUnit("filas")
+				.tag("consulta", c)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(registry))
+				.record(filas);
+	}
+
+	/**
+	 * Registra una respuesta 404 de una ruta de la API.
+	 *
+	 * @param ruta La plantilla de la ruta, por ejemplo {@code mision/{idMision}}.
+	 */
+	public void registrarNoEncontrada(String ruta) {
+		noEncontradasPorRuta.computeIfAbsent(ruta, r -> Counter.builder("mision.no.encontrada")
+				.description("Respuestas 404 por ruta de la API de misiones")
+				.tag("ruta", r)
+				.register(registry))
+				.increment();
+	}
+
+}
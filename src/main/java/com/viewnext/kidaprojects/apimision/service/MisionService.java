@@ -1,8 +1,20 @@
 package com.viewnext.kidaprojects.apimision.service;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.EstadisticasCatalogo;
 import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.PaginaMisiones;
+import com.viewnext.kidaprojects.apimision.model.ResultadoImportacion;
+import com.viewnext.kidaprojects.apimision.model.ResultadoLote;
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
 
 /**
  * La interfaz {@code MisionService} define las operaciones disponibles para
@@ -10,6 +22,12 @@ import com.viewnext.kidaprojects.apimision.model.Mision;
  * actualizar misiones, así como establecer su estado.
  *
  * <p>
+ * Las búsquedas sin resultados devuelven una lista vacía y las operaciones
+ * sobre una misión inexistente un {@code Optional} vacío o un
+ * {@code CambioEstado} {@code NO_ENCONTRADA}, sin lanzar excepciones.
+ * </p>
+ *
+ * <p>
  * El autor de esta interfaz es Víctor Colorado "Kid A".
  * </p>
  *
@@ -21,17 +39,39 @@ public interface MisionService {
 	/**
 	 * Recupera todas las misiones disponibles en el sistema.
 	 *
-	 * @return Una lista de todas las misiones.
+	 * @return Una lista de todas las misiones, vacía si no hay ninguna.
 	 */
 	List<Mision> showAll();
 
 	/**
-	 * Recupera misiones cuyos nombres coinciden con un prefijo dado.
+	 * Recupera una página de misiones ordenadas por identificador, a partir del
+	 * último identificador recibido por el cliente.
+	 *
+	 * @param cursor El último identificador recibido, o 0 para la primera página.
+	 * @param limite El número máximo de misiones de la página.
+	 * @return La página de misiones y el cursor de la siguiente.
+	 */
+	PaginaMisiones showPagina(int cursor, int limite);
+
+	/**
+	 * Recorre todas las misiones, ordenadas por identificador, entregándolas una a
+	 * una al consumidor a medida que se leen de la base de datos, sin construir
+	 * una lista en memoria.
+	 *
+	 * @param consumidor El consumidor que recibe cada misión.
+	 */
+	void recorrerTodas(Consumer<Mision> consumidor);
+
+	/**
+	 * Recupera misiones cuyos nombres coinciden con un prefijo dado, sin
+	 * distinguir mayúsculas ni acentos.
 	 *
 	 * @param prefijo El prefijo del nombre de la misión a buscar.
-	 * @return Una lista de misiones cuyos nombres coinciden con el prefijo.
+	 * @param limite  El número máximo de misiones a devolver.
+	 * @return Una lista de misiones cuyos nombres coinciden con el prefijo, vacía
+	 *         si no hay ninguna.
 	 */
-	List<Mision> showByNombreLike(String prefijo);
+	List<Mision> showByNombreLike(String prefijo, int limite);
 
 	/**
 	 * Recupera misiones cuyo nivel de dificultad sea igual o menor al nivel
@@ -43,21 +83,49 @@ public interface MisionService {
 	 */
 	List<Mision> showByNivel(int nivel);
 
+	/**
+	 * Recupera misiones cuyo nivel de dificultad esté en un rango, con filtro
+	 * opcional de misiones activas, orden por recompensa y paginación.
+	 *
+	 * @param consulta Los criterios de la búsqueda.
+	 * @return La página de misiones que cumplen los criterios, vacía si no hay
+	 *         ninguna.
+	 */
+	List<Mision> showByNivel(ConsultaNivel consulta);
+
 	/**
 	 * Recupera una misión por su identificador único.
 	 *
 	 * @param idMision El identificador único de la misión a recuperar.
-	 * @return La misión correspondiente al identificador dado.
+	 * @return La misión correspondiente al identificador dado, o vacío si no
+	 *         existe.
 	 */
-	Mision showById(int idMision);
+	Optional<Mision> showById(int idMision);
 	
 	/**
 	 * Obtiene la recompensa asociada a una misión específica identificada por su ID.
 	 *
 	 * @param idMision El ID de la misión de la cual se desea obtener la recompensa.
-	 * @return La cantidad de recompensa asociada a la misión especificada, o -1 si la misión no existe.
+	 * @return La recompensa de la misión especificada, o vacío si no existe.
+	 */
+	Optional<Integer> getRecompensa(int idMision);
+
+	/**
+	 * Obtiene las recompensas de varias misiones en una sola operación.
+	 *
+	 * @param idsMision Los identificadores de las misiones.
+	 * @return Un mapa de identificador a recompensa que contiene solo las
+	 *         misiones existentes.
+	 */
+	Map<Integer, Integer> getRecompensas(Collection<Integer> idsMision);
+
+	/**
+	 * Obtiene los totales del catálogo: número de misiones, activas, superadas y
+	 * suma de recompensas, en total y por nivel.
+	 *
+	 * @return Las estadísticas del catálogo.
 	 */
-	int getRecompensa(int idMision);
+	EstadisticasCatalogo getEstadisticas();
 
 	/**
 	 * Crea una nueva misión en el sistema.
@@ -68,25 +136,62 @@ public interface MisionService {
 	Mision createMision(Mision mision);
 
 	/**
-	 * Establece el estado de una misión como "Superada" mediante su código único.
+	 * Crea de forma masiva las misiones proporcionadas, insertándolas por bloques a
+	 * medida que se leen.
+	 *
+	 * @param misiones Las misiones a crear, que pueden leerse de forma perezosa.
+	 * @return El resumen de la importación con el detalle de cada bloque.
+	 */
+	ResultadoImportacion importarMisiones(Iterator<Mision> misiones);
+
+	/**
+	 * Establece el estado de una misión como "Superada" mediante su código único,
+	 * solo si no lo estaba ya y, si se indica, si la misión tiene la versión
+	 * esperada.
 	 *
-	 * @param codigo El código único de la misión a marcar como "Superada".
-	 * @return La misión con el estado actualizado.
+	 * @param codigo  El código único de la misión a marcar como "Superada".
+	 * @param version La versión esperada de la misión, o {@code null} para
+	 *                cualquiera.
+	 * @return El resultado del cambio y la misión tras la operación.
 	 */
-	Mision setEstadoSuperada(int codigo);
+	CambioEstado setEstadoSuperada(int codigo, Long version);
 
 	/**
-	 * Establece el estado de una misión como "Inactiva" mediante su código único.
+	 * Establece el estado de una misión como "Inactiva" mediante su código único,
+	 * solo si estaba activa y, si se indica, si la misión tiene la versión
+	 * esperada.
 	 *
-	 * @param codigo El código único de la misión a marcar como "Inactiva".
-	 * @return La misión con el estado actualizado.
+	 * @param codigo  El código único de la misión a marcar como "Inactiva".
+	 * @param version La versión esperada de la misión, o {@code null} para
+	 *                cualquiera.
+	 * @return El resultado del cambio y la misión tras la operación.
 	 */
-	Mision setEstadoInactiva(int codigo);
+	CambioEstado setEstadoInactiva(int codigo, Long version);
+
+	/**
+	 * Establece el estado de varias misiones como "Superada" en una sola
+	 * operación.
+	 *
+	 * @param codigos Los códigos únicos de las misiones a marcar como "Superada".
+	 * @return Los códigos actualizados y los que no corresponden a ninguna misión.
+	 */
+	ResultadoLote setEstadoSuperada(Collection<Integer> codigos);
+
+	/**
+	 * Establece el estado de varias misiones como "Inactiva" en una sola
+	 * operación.
+	 *
+	 * @param codigos Los códigos únicos de las misiones a marcar como "Inactiva".
+	 * @return Los códigos actualizados y los que no corresponden a ninguna misión.
+	 */
+	ResultadoLote setEstadoInactiva(Collection<Integer> codigos);
 
 	/**
 	 * Reinicia el estado de todas las misiones, estableciendo su estado como no
 	 * superadas y activas. Este método se utiliza para reiniciar todas las misiones en el
 	 * sistema.
+	 *
+	 * @return El resumen del reinicio: filas modificadas, bloques y duración.
 	 */
-	void reiniciarMisiones();
+	ResultadoReinicio reiniciarMisiones();
 }
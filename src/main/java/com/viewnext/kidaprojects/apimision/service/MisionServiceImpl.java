@@ -1,15 +1,54 @@
 package com.viewnext.kidaprojects.apimision.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.apimision.model.BloqueImportacion;
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.EstadisticasCatalogo;
+import com.viewnext.kidaprojects.apimision.model.EventoCatalogo;
 import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.MisionRecompensa;
+import com.viewnext.kidaprojects.apimision.model.PaginaMisiones;
+import com.viewnext.kidaprojects.apimision.model.ResultadoImportacion;
+import com.viewnext.kidaprojects.apimision.model.ResultadoLote;
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
 import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
 
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 /**
  * La clase {@code MisionServiceImpl} implementa la interfaz
@@ -17,6 +56,13 @@ import jakarta.persistence.EntityNotFoundException;
  * misiones en el sistema.
  *
  * <p>
+ * Cada escritura se registra en {@code VersionCatalogo} después de aplicarla en
+ * la base de datos, en {@code MisionCache} y en los índices en memoria, de modo
+ * que una versión nueva del catálogo nunca se sirve con datos anteriores a ella,
+ * y programa la reconstrucción de {@code CatalogoSerializado}.
+ * </p>
+ *
+ * <p>
  * El autor de esta clase es Víctor Colorado "Kid A".
  * </p>
  *
@@ -24,45 +70,248 @@ import jakarta.persistence.EntityNotFoundException;
  * @since 4 de Octubre de 2023
  */
 @Service
+@Profile("!reactivo")
 public class MisionServiceImpl implements MisionService {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(MisionServiceImpl.class);
+
+	/**
+	 * Número máximo de identificadores por cláusula {@code IN} en las consultas por
+	 * lotes.
+	 */
+	static final int TAMANO_LOTE_IN = 1000;
+
+	/**
+	 * Número máximo de intentos de un cambio de estado condicionado a la versión
+	 * cuando otras peticiones modifican la misma misión.
+	 */
+	static final int MAX_INTENTOS_CAMBIO = 3;
+
 	@Autowired
 	private MisionRepository misionRepository;
 
+	@Autowired
+	private MisionCache misionCache;
+
+	@Autowired
+	private IndiceNombres indiceNombres;
+
+	@Autowired
+	private IndiceNivel indiceNivel;
+
+	@Autowired
+	private ContadoresNivel contadoresNivel;
+
+	@Autowired
+	private ConsultasCompartidas consultasCompartidas;
+
+	@Autowired
+	private MisionMetricas misionMetricas;
+
+	@Autowired
+	private VersionCatalogo versionCatalogo;
+
+	@Autowired
+	private CatalogoSerializado catalogoSerializado;
+
+	@Autowired
+	private CanalCambios canalCambios;
+
+	@Autowired
+	private EscrituraDiferida escrituraDiferida;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Número máximo de misiones que devuelve una búsqueda por prefijo de nombre.
+	 */
+	@Value("${apimision.busqueda.limite-maximo:100}")
+	private int limiteMaximoBusqueda;
+
+	/**
+	 * Número de misiones que se insertan en cada lote JDBC durante una importación.
+	 */
+	@Value("${apimision.importacion.tamano-lote:1000}")
+	private int tamanoLoteImportacion;
+
+	/**
+	 * Número máximo de misiones que se devuelven en una página.
+	 */
+	@Value("${apimision.paginacion.limite-maximo:1000}")
+	private int limiteMaximoPagina;
+
+	/**
+	 * Número de identificadores que abarca cada bloque del reinicio. Con un valor
+	 * igual o menor que cero el reinicio se ejecuta en una única sentencia.
+	 */
+	@Value("${apimision.reinicio.tamano-bloque:0}")
+	private int tamanoBloqueReinicio;
+
+	/**
+	 * Pone en marcha {@code EscrituraDiferida}, si está habilitada, con la
+	 * actualización por lotes de misiones superadas.
+	 */
+	@PostConstruct
+	void iniciarEscrituraDiferida() {
+		escrituraDiferida.iniciar(this::setEstadoSuperada);
+	}
+
+	/**
+	 * Escribe las misiones superadas que queden en {@code EscrituraDiferida} antes
+	 * de que se cierren el repositorio y el pool de conexiones.
+	 */
+	@PreDestroy
+	void detenerEscrituraDiferida() {
+		escrituraDiferida.detener();
+	}
+
 	/**
 	 * Recupera todas las misiones disponibles en el sistema.
 	 *
-	 * @return Una lista de todas las misiones.
-	 * @throws EntityNotFoundException Si no se encuentran misiones en el sistema.
+	 * @return Una lista de todas las misiones, vacía si no hay ninguna.
 	 */
 	@Override
-	public List<Mision> showAll() throws EntityNotFoundException {
-		List<Mision> listaMisiones = misionRepository.findAll();
+	@Transactional(readOnly = true)
+	public List<Mision> showAll() {
+		List<Mision> listaMisiones = contarFilas("findAll", misionRepository.findAll());
 
-		if (listaMisiones.isEmpty()) {
-			throw new EntityNotFoundException();
-		}
 		return listaMisiones;
 	}
 
 	/**
-	 * Recupera misiones cuyos nombres coinciden con un prefijo dado.
+	 * Recupera una página de misiones ordenadas por identificador, a partir del
+	 * último identificador recibido por el cliente. El límite se acota a
+	 * {@code apimision.paginacion.limite-maximo}.
+	 *
+	 * @param cursor El último identificador recibido, o 0 para la primera página.
+	 * @param limite El número máximo de misiones de la página.
+	 * @return La página de misiones y el cursor de la siguiente, que es
+	 *         {@code null} cuando no quedan más misiones.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaMisiones showPagina(int cursor, int limite) {
+		int tamano = Math.max(1, Math.min(limite, limiteMaximoPagina));
+		List<Mision> listaMisiones = contarFilas("findSiguientes",
+				misionRepository.findSiguientes(cursor, PageRequest.of(0, tamano)));
+
+		Integer siguienteCursor = null;
+		if (listaMisiones.size() == tamano) {
+			siguienteCursor = listaMisiones.get(listaMisiones.size() - 1).getIdMision();
+		}
+		return new PaginaMisiones(listaMisiones, siguienteCursor);
+	}
+
+	/**
+	 * Recorre todas las misiones, ordenadas por identificador, entregándolas una a
+	 * una al consumidor a medida que se leen del cursor JDBC. Cada misión se separa
+	 * del contexto de persistencia tras entregarla para que la memoria no crezca con
+	 * el tamaño de la tabla.
+	 *
+	 * @param consumidor El consumidor que recibe cada misión.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void recorrerTodas(Consumer<Mision> consumidor) {
+		int filas = 0;
+		try (Stream<Mision> misiones = misionRepository.streamAll()) {
+			Iterator<Mision> iterador = misiones.iterator();
+			while (iterador.hasNext()) {
+				Mision mision = iterador.next();
+				consumidor.accept(mision);
+				entityManager.detach(mision);
+				filas++;
+			}
+		} finally {
+			misionMetricas.registrarFilas("streamAll", filas);
+		}
+	}
+
+	/**
+	 * Recupera misiones cuyos nombres coinciden con un prefijo dado, sin
+	 * distinguir mayúsculas ni acentos, ordenadas por nombre.
+	 *
+	 * <p>
+	 * La búsqueda se resuelve con {@code IndiceNombres} y las misiones se obtienen
+	 * de {@code MisionCache} o, las que falten, con una única consulta por clave
+	 * primaria. Mientras el índice se construye, se consulta la base de datos con
+	 * el prefijo escapado. El límite se acota a
+	 * {@code apimision.busqueda.limite-maximo}. Las llamadas concurrentes con el
+	 * mismo prefijo y límite comparten la búsqueda con
+	 * {@code ConsultasCompartidas}.
+	 * </p>
 	 *
 	 * @param prefijo El prefijo del nombre de la misión a buscar.
-	 * @return Una lista de misiones cuyos nombres coinciden con el prefijo.
-	 * @throws EntityNotFoundException Si no se encuentran misiones con el nombre
-	 *                                 que coincida con el prefijo.
+	 * @param limite  El número máximo de misiones a devolver.
+	 * @return Una lista de misiones cuyos nombres coinciden con el prefijo, vacía
+	 *         si no hay ninguna.
 	 */
 	@Override
-	public List<Mision> showByNombreLike(String prefijo) throws EntityNotFoundException {
-		List<Mision> listaMisiones = misionRepository.findByNombrePrefijo(prefijo);
+	public List<Mision> showByNombreLike(String prefijo, int limite) {
+		int tamano = Math.max(1, Math.min(limite, limiteMaximoBusqueda));
+
+		return consultasCompartidas.ejecutar("showByNombreLike", List.of(prefijo, tamano), () -> {
+			if (indiceNombres.isListo()) {
+				return buscarPorIds(indiceNombres.buscar(prefijo, tamano));
+			}
+			return contarFilas("findByNombrePrefijo",
+					misionRepository.findByNombrePrefijo(escaparLike(prefijo), PageRequest.of(0, tamano)));
+		});
+	}
+
+	/**
+	 * Obtiene las misiones indicadas en el mismo orden, sirviendo desde
+	 * {@code MisionCache} las que estén en ella y cargando el resto con una única
+	 * consulta.
+	 *
+	 * @param idsMision Los identificadores de las misiones.
+	 * @return Las misiones existentes, en el orden de {@code idsMision}.
+	 */
+	private List<Mision> buscarPorIds(List<Integer> idsMision) {
+		Map<Integer, Mision> misiones = new HashMap<>();
+		List<Integer> pendientes = new ArrayList<>();
+
+		for (Integer idMision : idsMision) {
+			Mision mision = misionCache.obtenerSiPresente(idMision);
+			if (mision != null) {
+				misiones.put(idMision, mision);
+			} else {
+				pendientes.add(idMision);
+			}
+		}
+
+		if (!pendientes.isEmpty()) {
+			for (Mision mision : contarFilas("findAllById", misionRepository.findAllById(pendientes))) {
+				misionCache.actualizar(mision);
+				misiones.put(mision.getIdMision(), mision);
+			}
+		}
 
-		if (listaMisiones.isEmpty()) {
-			throw new EntityNotFoundException();
+		List<Mision> listaMisiones = new ArrayList<>(idsMision.size());
+		for (Integer idMision : idsMision) {
+			Mision mision = misiones.get(idMision);
+			if (mision != null) {
+				listaMisiones.add(mision);
+			}
 		}
 		return listaMisiones;
 	}
 
+	/**
+	 * Escapa con {@code !} los caracteres comodín de {@code LIKE} de un texto
+	 * proporcionado por el usuario.
+	 *
+	 * @param texto El texto a escapar.
+	 * @return El texto con {@code !}, {@code %} y {@code _} escapados.
+	 */
+	static String escaparLike(String texto) {
+		return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
 	/**
 	 * Recupera misiones cuyo nivel de dificultad sea igual o menor al nivel
 	 * especificado.
@@ -70,57 +319,155 @@ public class MisionServiceImpl implements MisionService {
 	 * @param nivel El nivel de dificultad máximo deseado.
 	 * @return Una lista de misiones con niveles de dificultad iguales o menores al
 	 *         nivel especificado.
-	 * @throws EntityNotFoundException Si no se encuentran misiones con el nivel de
-	 *                                 dificultad especificado o menor.
 	 */
 	@Override
-	public List<Mision> showByNivel(int nivel) throws EntityNotFoundException {
-		List<Mision> listaMisiones = misionRepository.findByNivel(nivel);
+	public List<Mision> showByNivel(int nivel) {
+		return showByNivel(
+				new ConsultaNivel(Integer.MIN_VALUE, nivel, false, ConsultaNivel.Orden.ID, 0, Integer.MAX_VALUE));
+	}
 
-		if (listaMisiones.isEmpty()) {
-			throw new EntityNotFoundException();
+	/**
+	 * Recupera misiones cuyo nivel de dificultad esté en un rango, con filtro
+	 * opcional de misiones activas, orden por recompensa y paginación. La búsqueda
+	 * se resuelve con {@code IndiceNivel} y, mientras no esté listo, en la base de
+	 * datos, compartiendo la consulta entre las llamadas concurrentes con los
+	 * mismos criterios.
+	 *
+	 * @param consulta Los criterios de la búsqueda.
+	 * @return La página de misiones que cumplen los criterios, vacía si no hay
+	 *         ninguna.
+	 */
+	@Override
+	public List<Mision> showByNivel(ConsultaNivel consulta) {
+		List<Mision> listaMisiones;
+
+		if (indiceNivel.isListo()) {
+			listaMisiones = indiceNivel.consultar(consulta);
+		} else {
+			listaMisiones = consultasCompartidas.ejecutar("showByNivel", List.of(consulta),
+					() -> contarFilas("findByNivelEntre", misionRepository.findByNivelEntre(consulta.getNivelMin(),
+							consulta.getNivelMax(), consulta.isSoloActivas(), paginacion(consulta))));
 		}
+
 		return listaMisiones;
 	}
 
 	/**
-	 * Recupera una misión por su identificador único.
+	 * Traduce la página y el orden de una búsqueda por nivel a un
+	 * {@code Pageable}, desempatando siempre por identificador.
+	 *
+	 * @param consulta Los criterios de la búsqueda.
+	 * @return La página y el orden para el repositorio.
+	 */
+	private static Pageable paginacion(ConsultaNivel consulta) {
+		Sort porId = Sort.by("idMision");
+		Sort orden;
+
+		switch (consulta.getOrden()) {
+		case RECOMPENSA_ASC:
+			orden = Sort.by(Sort.Direction.ASC, "recompensa").and(porId);
+			break;
+		case RECOMPENSA_DESC:
+			orden = Sort.by(Sort.Direction.DESC, "recompensa").and(porId);
+			break;
+		default:
+			orden = porId;
+		}
+		return PageRequest.of(consulta.getPagina(), consulta.getTamano(), orden);
+	}
+
+	/**
+	 * Recupera una misión por su identificador único. La misión se sirve desde
+	 * {@code MisionCache} y solo se consulta la base de datos en caso de fallo;
+	 * la caché ejecuta una sola carga por misión y las llamadas concurrentes
+	 * esperan a esa carga, por lo que no pasa por {@code ConsultasCompartidas}.
 	 *
 	 * @param idMision El identificador único de la misión a recuperar.
-	 * @return La misión correspondiente al identificador dado.
-	 * @throws EntityNotFoundException Si no se encuentra una misión con el
-	 *                                 identificador especificado.
+	 * @return La misión correspondiente al identificador dado, o vacío si no
+	 *         existe.
 	 */
 	@Override
-	public Mision showById(int idMision) throws EntityNotFoundException {
-		Optional<Mision> optionalMision = misionRepository.findById(idMision);
-
-		if (optionalMision.isEmpty()) {
-			throw new EntityNotFoundException();
-		}
-		return optionalMision.get();
+	public Optional<Mision> showById(int idMision) {
+		Mision mision = misionCache.obtener(idMision, id -> {
+			Optional<Mision> optionalMision = misionRepository.findById(id);
+			misionMetricas.registrarFilas("findById", optionalMision.isPresent() ? 1 : 0);
+			return optionalMision.orElse(null);
+		});
+
+		return Optional.ofNullable(mision);
 	}
 
 	/**
 	 * Obtiene la recompensa asociada a una misión específica identificada por su
-	 * ID.
+	 * ID. Si la misión está en {@code MisionCache} se responde desde ella; en caso
+	 * contrario se consulta solo la columna {@code recompensa}, sin cargar la
+	 * entidad.
 	 *
 	 * @param idMision El ID de la misión de la cual se desea obtener la recompensa.
-	 * @return La cantidad de recompensa asociada a la misión especificada.
-	 * @throws EntityNotFoundException Si no se encuentra una misión con el ID
-	 *                                 especificado.
+	 * @return La recompensa de la misión especificada, o vacío si no existe.
+	 */
+	@Override
+	public Optional<Integer> getRecompensa(int idMision) {
+		Mision mision = misionCache.obtenerSiPresente(idMision);
+
+		if (mision != null) {
+			return Optional.of(mision.getRecompensa());
+		}
+		Optional<Integer> recompensa = misionRepository.findRecompensaById(idMision);
+		misionMetricas.registrarFilas("findRecompensaById", recompensa.isPresent() ? 1 : 0);
+
+		return recompensa;
+	}
+
+	/**
+	 * Obtiene las recompensas de varias misiones. Las misiones presentes en
+	 * {@code MisionCache} se resuelven en memoria y el resto con consultas de
+	 * proyección de, como máximo, {@value #TAMANO_LOTE_IN} identificadores.
+	 *
+	 * @param idsMision Los identificadores de las misiones.
+	 * @return Un mapa de identificador a recompensa, en el orden solicitado, que
+	 *         contiene solo las misiones existentes.
 	 */
 	@Override
-	public int getRecompensa(int idMision) throws EntityNotFoundException {
-		Optional<Mision> optionalMision = misionRepository.findById(idMision);
+	public Map<Integer, Integer> getRecompensas(Collection<Integer> idsMision) {
+		Map<Integer, Integer> recompensas = new LinkedHashMap<>();
+		List<Integer> pendientes = new ArrayList<>();
+
+		for (Integer idMision : idsMision) {
+			Mision mision = misionCache.obtenerSiPresente(idMision);
+			if (mision != null) {
+				recompensas.put(idMision, mision.getRecompensa());
+			} else {
+				recompensas.put(idMision, null);
+				pendientes.add(idMision);
+			}
+		}
 
-		if (optionalMision.isEmpty()) {
-			throw new EntityNotFoundException();
+		for (int i = 0; i < pendientes.size(); i += TAMANO_LOTE_IN) {
+			List<Integer> lote = pendientes.subList(i, Math.min(i + TAMANO_LOTE_IN, pendientes.size()));
+			for (MisionRecompensa fila : contarFilas("findRecompensasByIds", misionRepository.findRecompensasByIds(lote))) {
+				recompensas.put(fila.getIdMision(), fila.getRecompensa());
+			}
 		}
 
-		Mision mision = optionalMision.get();
+		recompensas.values().removeIf(recompensa -> recompensa == null);
+		return recompensas;
+	}
 
-		return mision.getRecompensa();
+	/**
+	 * Obtiene los totales del catálogo de {@code ContadoresNivel}, que se
+	 * actualizan con cada escritura. Mientras no estén listos se calculan con una
+	 * consulta de agregación por nivel.
+	 *
+	 * @return Las estadísticas del catálogo.
+	 */
+	@Override
+	public EstadisticasCatalogo getEstadisticas() {
+		if (contadoresNivel.isListos()) {
+			return new EstadisticasCatalogo(EstadisticasCatalogo.ORIGEN_MEMORIA, contadoresNivel.obtener());
+		}
+		return new EstadisticasCatalogo(EstadisticasCatalogo.ORIGEN_BASE_DATOS,
+				contarFilas("agregarPorNivel", misionRepository.agregarPorNivel()));
 	}
 
 	/**
@@ -131,72 +478,490 @@ public class MisionServiceImpl implements MisionService {
 	 */
 	@Override
 	public Mision createMision(Mision mision) {
+		Mision misionCreada = misionRepository.save(mision);
 
-		return misionRepository.save(mision);
+		misionCache.actualizar(misionCreada);
+		indiceNombres.anadir(misionCreada.getIdMision(), misionCreada.getNombre());
+		indiceNivel.reemplazar(misionCreada);
+		registrarCambio(EventoCatalogo.Tipo.CREADA, List.of(misionCreada), null);
+		return misionCreada;
 	}
 
 	/**
-	 * Establece el estado de una misión como "Superada" mediante su código único.
+	 * Crea de forma masiva las misiones proporcionadas. Las misiones se leen de
+	 * forma perezosa y se insertan en lotes JDBC de
+	 * {@code apimision.importacion.tamano-lote} misiones, cada uno en su propia
+	 * transacción. Un lote fallido no detiene la importación; un error de lectura
+	 * de la entrada sí, tras insertar las misiones ya leídas.
 	 *
-	 * @param codigo El código único de la misión a marcar como "Superada".
-	 * @return La misión con el estado actualizado.
-	 * @throws EntityNotFoundException Si no se encuentra una misión con el código
-	 *                                 especificado.
+	 * @param misiones Las misiones a crear, que pueden leerse de forma perezosa.
+	 * @return El resumen de la importación con el detalle de cada bloque.
 	 */
 	@Override
-	public Mision setEstadoSuperada(int codigo) throws EntityNotFoundException {
-		Optional<Mision> optionalMision = misionRepository.findById(codigo);
+	public ResultadoImportacion importarMisiones(Iterator<Mision> misiones) {
+		long inicio = System.nanoTime();
+		List<BloqueImportacion> bloques = new ArrayList<>();
+		List<Mision> bloque = new ArrayList<>(tamanoLoteImportacion);
+		String errorLectura = null;
+		boolean hayMas = true;
+
+		while (hayMas) {
+			try {
+				hayMas = misiones.hasNext();
+				if (hayMas) {
+					bloque.add(misiones.next());
+				}
+			} catch (RuntimeException e) {
+				errorLectura = e.getMessage();
+				hayMas = false;
+			}
+
+			if (bloque.size() >= tamanoLoteImportacion || (!hayMas && !bloque.isEmpty())) {
+				bloques.add(insertarBloque(bloques.size(), bloque));
+				bloque = new ArrayList<>(tamanoLoteImportacion);
+			}
+		}
+
+		if (errorLectura != null) {
+			bloques.add(new BloqueImportacion(bloques.size(), 0, 0, errorLectura));
+		}
 
-		if (optionalMision.isEmpty()) {
-			throw new EntityNotFoundException();
+		int insertadas = 0;
+		int fallidas = 0;
+		for (BloqueImportacion b : bloques) {
+			if (b.getError() == null) {
+				insertadas += b.getMisiones();
+			} else {
+				fallidas += b.getMisiones();
+			}
 		}
 
-		Mision mision = optionalMision.get();
+		long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+		LOGGER.info("Importación de misiones completada: {} insertadas, {} fallidas en {} bloques, {} ms", insertadas,
+				fallidas, bloques.size(), duracionMs);
 
-		mision.setSuperada(true);
+		return new ResultadoImportacion(insertadas, fallidas, duracionMs, bloques);
+	}
+
+	/**
+	 * Inserta un bloque de misiones en un único lote JDBC y mide el tiempo
+	 * empleado.
+	 *
+	 * @param indice El índice del bloque dentro de la importación.
+	 * @param bloque Las misiones del bloque.
+	 * @return El resultado del bloque, con el motivo del fallo si lo hubo.
+	 */
+	private BloqueImportacion insertarBloque(int indice, List<Mision> bloque) {
+		long inicio = System.nanoTime();
+		String error = null;
+
+		try {
+			misionRepository.insertarEnLote(bloque);
+			for (Mision mision : bloque) {
+				indiceNombres.anadir(mision.getIdMision(), mision.getNombre());
+				indiceNivel.reemplazar(mision);
+			}
+			registrarImportacion(bloque);
+		} catch (DataAccessException e) {
+			error = e.getMostSpecificCause().getMessage();
+			LOGGER.warn("Importación de misiones: bloque {} fallido: {}", indice, error);
+		}
+
+		long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+		LOGGER.debug("Importación de misiones: bloque {} con {} misiones, {} ms", indice, bloque.size(), duracionMs);
 
-		return misionRepository.save(mision);
+		return new BloqueImportacion(indice, bloque.size(), duracionMs, error);
+	}
+
+	/**
+	 * Establece el estado de una misión como "Superada" mediante su código único,
+	 * con una única sentencia {@code UPDATE} condicionada a la versión de la misión
+	 * y a que no estuviera ya superada. Sin versión esperada y con
+	 * {@code EscrituraDiferida} habilitada, el cambio se encola y se escribe en el
+	 * siguiente lote.
+	 *
+	 * @param codigo  El código único de la misión a marcar como "Superada".
+	 * @param version La versión esperada de la misión, o {@code null} para
+	 *                cualquiera.
+	 * @return El resultado del cambio y la misión tras la operación.
+	 */
+	@Override
+	public CambioEstado setEstadoSuperada(int codigo, Long version) {
+		if (version == null && escrituraDiferida.isHabilitada()) {
+			return encolarSuperada(codigo);
+		}
+		return cambiarEstado(codigo, version, Mision::isSuperada, misionRepository::marcarSuperada,
+				MisionServiceImpl::superada, EventoCatalogo.Tipo.SUPERADA);
 	}
 
 	/**
-	 * Establece el estado de una misión como "Inactiva" mediante su código único.
+	 * Establece el estado de una misión como "Inactiva" mediante su código único,
+	 * con una única sentencia {@code UPDATE} condicionada a la versión de la misión
+	 * y a que estuviera activa.
 	 *
-	 * @param codigo El código único de la misión a marcar como "Inactiva".
-	 * @return La misión con el estado actualizado.
-	 * @throws EntityNotFoundException Si no se encuentra una misión con el código
-	 *                                 especificado.
+	 * @param codigo  El código único de la misión a marcar como "Inactiva".
+	 * @param version La versión esperada de la misión, o {@code null} para
+	 *                cualquiera.
+	 * @return El resultado del cambio y la misión tras la operación.
 	 */
 	@Override
-	public Mision setEstadoInactiva(int codigo) throws EntityNotFoundException {
-		Optional<Mision> optionalMision = misionRepository.findById(codigo);
+	public CambioEstado setEstadoInactiva(int codigo, Long version) {
+		return cambiarEstado(codigo, version, mision -> !mision.isActiva(), misionRepository::marcarInactiva,
+				MisionServiceImpl::inactiva, EventoCatalogo.Tipo.INACTIVA);
+	}
+
+	/**
+	 * Aplica un cambio de estado a una misión con una sentencia {@code UPDATE}
+	 * condicionada a su versión, sin cargar la entidad en el contexto de
+	 * persistencia.
+	 *
+	 * <p>
+	 * La versión de partida se toma de {@code MisionCache} si la misión está en
+	 * ella, de modo que en el caso habitual el cambio cuesta una sola sentencia.
+	 * Si la copia en caché está desfasada, o si otra petición modifica la misión
+	 * entre la lectura y la actualización, se vuelve a leer la misión de la base
+	 * de datos y se reintenta hasta {@value #MAX_INTENTOS_CAMBIO} veces.
+	 * </p>
+	 *
+	 * @param codigo        El código de la misión.
+	 * @param version       La versión esperada por el cliente, o {@code null}.
+	 * @param enEstado      Si la misión ya está en el estado pedido.
+	 * @param actualizacion La sentencia condicionada, que devuelve las filas
+	 *                      modificadas.
+	 * @param cambio        El mismo cambio aplicado a una copia de la misión.
+	 * @param tipo          El tipo del evento que se publica en
+	 *                      {@code CanalCambios}.
+	 * @return El resultado del cambio y la misión tras la operación.
+	 */
+	private CambioEstado cambiarEstado(int codigo, Long version, Predicate<Mision> enEstado,
+			ToIntBiFunction<Integer, Long> actualizacion, UnaryOperator<Mision> cambio, EventoCatalogo.Tipo tipo) {
+		Mision actual = misionCache.obtenerSiPresente(codigo);
+		boolean leida = false;
+
+		for (int intento = 0; intento < MAX_INTENTOS_CAMBIO; intento++) {
+			if (actual == null) {
+				actual = leer(codigo);
+				leida = true;
+				if (actual == null) {
+					return new CambioEstado(CambioEstado.Resultado.NO_ENCONTRADA, null);
+				}
+			}
+
+			boolean conflicto = version != null && version != actual.getVersion();
+			if (conflicto || enEstado.test(actual)) {
+				if (leida) {
+					return new CambioEstado(
+							conflicto ? CambioEstado.Resultado.CONFLICTO : CambioEstado.Resultado.SIN_CAMBIOS, actual);
+				}
+				// La copia en caché puede estar desfasada: se comprueba contra la base de datos
+				actual = null;
+				continue;
+			}
+
+			if (actualizacion.applyAsInt(codigo, actual.getVersion()) == 1) {
+				Mision actualizada = cambio.apply(actual);
+				misionCache.actualizar(actualizada);
+				indiceNivel.reemplazar(actualizada);
+				registrarCambio(tipo, List.of(actualizada), null);
+				return new CambioEstado(CambioEstado.Resultado.CAMBIADA, actualizada);
+			}
+			actual = null;
+		}
+
+		LOGGER.warn("Cambio de estado de la misión {} abandonado tras {} intentos", codigo, MAX_INTENTOS_CAMBIO);
+		return new CambioEstado(CambioEstado.Resultado.CONFLICTO, leer(codigo));
+	}
+
+	/**
+	 * Encola en {@code EscrituraDiferida} una misión que no esté ya superada. La
+	 * misión devuelta es la copia superada que resultará de la escritura; hasta
+	 * entonces, las consultas siguen devolviendo la misión sin superar.
+	 *
+	 * <p>
+	 * La misión se toma de {@code MisionCache} o, si no está, de
+	 * {@code IndiceNivel}, que con el índice listo tiene todas las misiones. Solo
+	 * se lee de la base de datos antes de responder si no está en ninguno, como
+	 * antes de construir el índice o con el índice deshabilitado, o si la copia
+	 * en memoria ya está superada; en esos casos la respuesta espera a la
+	 * lectura.
+	 * </p>
+	 *
+	 * @param codigo El código de la misión.
+	 * @return {@code PENDIENTE} si se ha encolado, {@code SATURADA} si la cola está
+	 *         llena, {@code SIN_CAMBIOS} o {@code NO_ENCONTRADA}.
+	 */
+	private CambioEstado encolarSuperada(int codigo) {
+		Mision actual = misionCache.obtenerSiPresente(codigo);
+		if (actual == null) {
+			actual = indiceNivel.obtener(codigo);
+		}
+		if (actual == null || actual.isSuperada()) {
+			// Una copia en memoria superada puede estar desfasada: se comprueba contra la base de datos
+			actual = leer(codigo);
+			if (actual == null) {
+				return new CambioEstado(CambioEstado.Resultado.NO_ENCONTRADA, null);
+			}
+			if (actual.isSuperada()) {
+				return new CambioEstado(CambioEstado.Resultado.SIN_CAMBIOS, actual);
+			}
+		}
 
-		if (optionalMision.isEmpty()) {
-			throw new EntityNotFoundException();
+		if (!escrituraDiferida.encolar(codigo)) {
+			return new CambioEstado(CambioEstado.Resultado.SATURADA, actual);
 		}
+		return new CambioEstado(CambioEstado.Resultado.PENDIENTE, superada(actual));
+	}
+
+	/**
+	 * Lee una misión de la base de datos y refresca con ella {@code MisionCache}.
+	 *
+	 * <p>
+	 * La versión leída decide la siguiente actualización condicionada o el 409
+	 * del cliente, así que la lectura no puede ir a una réplica retrasada: se hace
+	 * en una transacción que no es de solo lectura, que el enrutador de réplicas
+	 * envía siempre a la primaria.
+	 * </p>
+	 *
+	 * @param codigo El código de la misión.
+	 * @return La misión, o {@code null} si no existe.
+	 */
+	private Mision leer(int codigo) {
+		Mision mision = new TransactionTemplate(transactionManager)
+				.execute(estado -> misionRepository.findById(codigo).orElse(null));
+		misionMetricas.registrarFilas("findById", mision != null ? 1 : 0);
+
+		if (mision != null) {
+			misionCache.actualizar(mision);
+		}
+		return mision;
+	}
 
-		Mision mision = optionalMision.get();
+	/**
+	 * Establece el estado de varias misiones como "Superada" mediante sentencias
+	 * {@code UPDATE} de, como máximo, {@value #TAMANO_LOTE_IN} identificadores, sin
+	 * cargar las entidades.
+	 *
+	 * @param codigos Los códigos únicos de las misiones a marcar como "Superada".
+	 * @return Los códigos actualizados y los que no corresponden a ninguna misión.
+	 */
+	@Override
+	public ResultadoLote setEstadoSuperada(Collection<Integer> codigos) {
+		return actualizarEnLote(codigos, misionRepository::marcarSuperadas, MisionServiceImpl::superada,
+				EventoCatalogo.Tipo.SUPERADAS);
+	}
 
-		mision.setActiva(false);
+	/**
+	 * Establece el estado de varias misiones como "Inactiva" mediante sentencias
+	 * {@code UPDATE} de, como máximo, {@value #TAMANO_LOTE_IN} identificadores, sin
+	 * cargar las entidades.
+	 *
+	 * @param codigos Los códigos únicos de las misiones a marcar como "Inactiva".
+	 * @return Los códigos actualizados y los que no corresponden a ninguna misión.
+	 */
+	@Override
+	public ResultadoLote setEstadoInactiva(Collection<Integer> codigos) {
+		return actualizarEnLote(codigos, misionRepository::marcarInactivas, MisionServiceImpl::inactiva,
+				EventoCatalogo.Tipo.INACTIVAS);
+	}
+
+	/**
+	 * Aplica una actualización por lotes a los códigos indicados, invalida en
+	 * {@code MisionCache} las misiones afectadas y aplica el mismo cambio en
+	 * {@code IndiceNivel}. Las misiones nunca se borran, por lo que los códigos
+	 * existentes antes de la actualización son exactamente los actualizados.
+	 *
+	 * @param codigos       Los códigos de las misiones a actualizar.
+	 * @param actualizacion La sentencia de actualización a aplicar a cada lote.
+	 * @param cambio        El mismo cambio aplicado a una copia de la misión.
+	 * @param tipo          El tipo del evento que se publica en
+	 *                      {@code CanalCambios}.
+	 * @return Los códigos actualizados y los que no corresponden a ninguna misión.
+	 */
+	private ResultadoLote actualizarEnLote(Collection<Integer> codigos, ToIntFunction<List<Integer>> actualizacion,
+			UnaryOperator<Mision> cambio, EventoCatalogo.Tipo tipo) {
+		List<Integer> pendientes = new ArrayList<>(new LinkedHashSet<>(codigos));
+		Set<Integer> existentes = new HashSet<>();
+
+		for (int i = 0; i < pendientes.size(); i += TAMANO_LOTE_IN) {
+			List<Integer> lote = pendientes.subList(i, Math.min(i + TAMANO_LOTE_IN, pendientes.size()));
+			List<Integer> encontradas = contarFilas("findIdsExistentes", misionRepository.findIdsExistentes(lote));
+
+			if (!encontradas.isEmpty()) {
+				int filas = actualizacion.applyAsInt(encontradas);
+				misionCache.invalidar(encontradas);
+				indiceNivel.actualizar(encontradas, cambio);
+				if (filas > 0) {
+					registrarCambio(tipo, null, List.copyOf(encontradas));
+				}
+				existentes.addAll(encontradas);
+			}
+		}
 
-		return misionRepository.save(mision);
+		List<Integer> actualizadas = new ArrayList<>();
+		List<Integer> noEncontradas = new ArrayList<>();
+		for (Integer codigo : pendientes) {
+			if (existentes.contains(codigo)) {
+				actualizadas.add(codigo);
+			} else {
+				noEncontradas.add(codigo);
+			}
+		}
+		return new ResultadoLote(actualizadas, noEncontradas);
 	}
 
 	/**
 	 * Reinicia el estado de todas las misiones en el sistema, estableciendo su
 	 * estado como activas y no superadas. Este método se utiliza para reiniciar
 	 * todas las misiones en el sistema.
+	 *
+	 * <p>
+	 * El reinicio se realiza con sentencias {@code UPDATE} sobre la tabla, sin
+	 * cargar las entidades. Si {@code apimision.reinicio.tamano-bloque} es mayor
+	 * que cero, la tabla se recorre por rangos de identificadores y cada bloque se
+	 * confirma en su propia transacción, informando del progreso en el log.
+	 * </p>
+	 *
+	 * @return El resumen del reinicio: filas modificadas, bloques y duración.
 	 */
 	@Override
-	public void reiniciarMisiones() {
-		List<Mision> listaMisiones = misionRepository.findAll();
+	public ResultadoReinicio reiniciarMisiones() {
+		// Las misiones superadas antes del reinicio no deben escribirse después
+		escrituraDiferida.vaciar();
+		long inicio = System.nanoTime();
+		int filasAfectadas = 0;
+		int bloques = 0;
+
+		if (tamanoBloqueReinicio <= 0) {
+			filasAfectadas = misionRepository.reiniciarTodas();
+			misionCache.invalidarTodo();
+			bloques = 1;
+		} else {
+			Integer minId = misionRepository.findMinIdMision();
+			Integer maxId = misionRepository.findMaxIdMision();
+
+			if (minId != null && maxId != null) {
+				long total = (long) maxId - minId + 1;
+
+				for (long desde = minId; desde <= maxId; desde += tamanoBloqueReinicio) {
+					int hasta = (int) Math.min(desde + tamanoBloqueReinicio - 1, maxId);
+					filasAfectadas += misionRepository.reiniciarRango((int) desde, hasta);
+					misionCache.invalidarTodo();
+					bloques++;
+
+					LOGGER.info("Reinicio de misiones: bloque {} hasta id {} ({}%), {} filas modificadas", bloques,
+							hasta, ((long) hasta - minId + 1) * 100 / total, filasAfectadas);
+				}
+			}
+		}
+
+		indiceNivel.actualizarTodas(MisionServiceImpl::reiniciada);
+		registrarCambio(EventoCatalogo.Tipo.REINICIO, null, null);
+
+		long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+		LOGGER.info("Reinicio de misiones completado: {} filas en {} bloques, {} ms", filasAfectadas, bloques,
+				duracionMs);
+
+		return new ResultadoReinicio(filasAfectadas, bloques, duracionMs);
+	}
+
+	/**
+	 * Registra una escritura en {@code VersionCatalogo}, la publica en
+	 * {@code CanalCambios} y programa la reconstrucción de
+	 * {@code CatalogoSerializado}.
+	 *
+	 * @param tipo     El tipo de escritura.
+	 * @param misiones Las misiones tras la escritura, o {@code null}.
+	 * @param ids      Los identificadores del lote, o {@code null}.
+	 */
+	private void registrarCambio(EventoCatalogo.Tipo tipo, List<Mision> misiones, List<Integer> ids) {
+		versionCatalogo.registrarCambio();
+		canalCambios.publicar(tipo, misiones, ids);
+		catalogoSerializado.reconstruir();
+	}
+
+	/**
+	 * Registra la importación de un bloque como {@link #registrarCambio}, pero
+	 * publica en {@code CanalCambios} solo el número de misiones y el intervalo
+	 * de sus identificadores, para que el búfer del canal no retenga las misiones
+	 * de una importación grande.
+	 *
+	 * @param bloque Las misiones insertadas, ya con su identificador.
+	 */
+	private void registrarImportacion(List<Mision> bloque) {
+		int desde = Integer.MAX_VALUE;
+		int hasta = Integer.MIN_VALUE;
+		for (Mision mision : bloque) {
+			desde = Math.min(desde, mision.getIdMision());
+			hasta = Math.max(hasta, mision.getIdMision());
+		}
+		versionCatalogo.registrarCambio();
+		canalCambios.publicarImportacion(bloque.size(), desde, hasta);
+		catalogoSerializado.reconstruir();
+	}
+
+	/**
+	 * Registra en {@code MisionMetricas} el número de filas devueltas por una
+	 * consulta al repositorio.
+	 *
+	 * @param consulta El nombre del método del repositorio.
+	 * @param filas    Las filas devueltas.
+	 * @return Las mismas filas.
+	 */
+	private <T> List<T> contarFilas(String consulta, List<T> filas) {
+		misionMetricas.registrarFilas(consulta, filas.size());
+		return filas;
+	}
 
-		for (Mision m : listaMisiones) {
-			m.setActiva(true);
-			m.setSuperada(false);
+	/**
+	 * Devuelve una copia de la misión en estado reiniciado: activa y no superada,
+	 * con la versión incrementada igual que en la base de datos.
+	 *
+	 * @param mision La misión a copiar.
+	 * @return La copia reiniciada, o la misma misión si ya lo estaba.
+	 */
+	private static Mision reiniciada(Mision mision) {
+		if (mision.isActiva() && !mision.isSuperada()) {
+			return mision;
 		}
+		Mision copia = new Mision(mision);
+		copia.setActiva(true);
+		copia.setSuperada(false);
+		copia.setVersion(mision.getVersion() + 1);
+		return copia;
+	}
 
-		misionRepository.saveAll(listaMisiones);
+	/**
+	 * Devuelve una copia de la misión en estado superada, con la versión
+	 * incrementada igual que en la base de datos.
+	 *
+	 * @param mision La misión a copiar.
+	 * @return La copia superada, o la misma misión si ya lo estaba.
+	 */
+	static Mision superada(Mision mision) {
+		if (mision.isSuperada()) {
+			return mision;
+		}
+		Mision copia = new Mision(mision);
+		copia.setSuperada(true);
+		copia.setVersion(mision.getVersion() + 1);
+		return copia;
+	}
 
+	/**
+	 * Devuelve una copia de la misión en estado inactiva, con la versión
+	 * incrementada igual que en la base de datos.
+	 *
+	 * @param mision La misión a copiar.
+	 * @return La copia inactiva, o la misma misión si ya lo estaba.
+	 */
+	static Mision inactiva(Mision mision) {
+		if (!mision.isActiva()) {
+			return mision;
+		}
+		Mision copia = new Mision(mision);
+		copia.setActiva(false);
+		copia.setVersion(mision.getVersion() + 1);
+		return copia;
 	}
 
 }
@@ -0,0 +1,145 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.PaginaMisiones;
+import com.viewnext.kidaprojects.apimision.model.ResultadoImportacion;
+import com.viewnext.kidaprojects.apimision.model.ResultadoLote;
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * La interfaz {@code MisionServiceReactivo} es la contrapartida no bloqueante de
+ * {@code MisionService} para el perfil {@code reactivo}. Las operaciones
+ * devuelven publicadores de Reactor; una misión inexistente se representa con
+ * un {@code Mono} vacío, o en los cambios de estado con un {@code CambioEstado}
+ * {@code NO_ENCONTRADA}, en lugar de una excepción.
+ *
+ * <p>
+ * El autor de esta interfaz es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+public interface MisionServiceReactivo {
+
+	/**
+	 * Emite todas las misiones, ordenadas por identificador, a medida que el
+	 * suscriptor las solicita.
+	 *
+	 * @return El flujo de misiones.
+	 */
+	Flux<Mision> showAll();
+
+	/**
+	 * Recupera una página de misiones ordenadas por identificador, a partir del
+	 * último identificador recibido por el cliente.
+	 *
+	 * @param cursor El último identificador recibido, o 0 para la primera página.
+	 * @param limite El número máximo de misiones de la página.
+	 * @return La página de misiones y el cursor de la siguiente.
+	 */
+	Mono<PaginaMisiones> showPagina(int cursor, int limite);
+
+	/**
+	 * Emite las misiones cuyo nombre comienza por un prefijo dado.
+	 *
+	 * @param prefijo El prefijo del nombre de la misión a buscar.
+	 * @param limite  El número máximo de misiones a devolver.
+	 * @return El flujo de misiones encontradas.
+	 */
+	Flux<Mision> showByNombreLike(String prefijo, int limite);
+
+	/**
+	 * Emite las misiones que cumplen los criterios de una búsqueda por nivel, a
+	 * medida que el suscriptor las solicita.
+	 *
+	 * @param consulta Los criterios de la búsqueda.
+	 * @return El flujo de misiones de la página solicitada.
+	 */
+	Flux<Mision> showByNivel(ConsultaNivel consulta);
+
+	/**
+	 * @param idMision El identificador de la misión.
+	 * @return La misión, o vacío si no existe.
+	 */
+	Mono<Mision> showById(int idMision);
+
+	/**
+	 * @param idMision El identificador de la misión.
+	 * @return La recompensa de la misión, o vacío si no existe.
+	 */
+	Mono<Integer> getRecompensa(int idMision);
+
+	/**
+	 * @param idsMision Los identificadores de las misiones.
+	 * @return Un mapa de identificador a recompensa con las misiones existentes.
+	 */
+	Mono<Map<Integer, Integer>> getRecompensas(Collection<Integer> idsMision);
+
+	/**
+	 * Crea una nueva misión, activa y sin superar.
+	 *
+	 * @param mision La misión a crear.
+	 * @return La misión creada, con su identificador.
+	 */
+	Mono<Mision> createMision(Mision mision);
+
+	/**
+	 * Crea misiones de forma masiva, insertándolas por lotes a medida que llegan.
+	 * Cada lote se inserta en su propia transacción.
+	 *
+	 * @param misiones El flujo de misiones a crear.
+	 * @return El resumen de la importación.
+	 */
+	Mono<ResultadoImportacion> importarMisiones(Flux<Mision> misiones);
+
+	/**
+	 * Marca una misión como superada, solo si no lo estaba ya y, si se indica, si
+	 * la misión tiene la versión esperada.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @param version  La versión esperada de la misión, o {@code null} para
+	 *                 cualquiera.
+	 * @return El resultado del cambio y la misión tras la operación.
+	 */
+	Mono<CambioEstado> setEstadoSuperada(int idMision, Long version);
+
+	/**
+	 * Marca una misión como inactiva, solo si estaba activa y, si se indica, si la
+	 * misión tiene la versión esperada.
+	 *
+	 * @param idMision El identificador de la misión.
+	 * @param version  La versión esperada de la misión, o {@code null} para
+	 *                 cualquiera.
+	 * @return El resultado del cambio y la misión tras la operación.
+	 */
+	Mono<CambioEstado> setEstadoInactiva(int idMision, Long version);
+
+	/**
+	 * @param idsMision Los identificadores de las misiones.
+	 * @return Los identificadores actualizados y los que no existen.
+	 */
+	Mono<ResultadoLote> setEstadoSuperada(Collection<Integer> idsMision);
+
+	/**
+	 * @param idsMision Los identificadores de las misiones.
+	 * @return Los identificadores actualizados y los que no existen.
+	 */
+	Mono<ResultadoLote> setEstadoInactiva(Collection<Integer> idsMision);
+
+	/**
+	 * Reinicia todas las misiones, dejándolas activas y sin superar.
+	 *
+	 * @return El número de misiones modificadas y la duración del reinicio.
+	 */
+	Mono<ResultadoReinicio> reiniciarMisiones();
+
+}
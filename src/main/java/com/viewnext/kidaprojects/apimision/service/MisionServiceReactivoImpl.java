@@ -0,0 +1,314 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.viewnext.kidaprojects.apimision.model.BloqueImportacion;
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.model.PaginaMisiones;
+import com.viewnext.kidaprojects.apimision.model.ResultadoImportacion;
+import com.viewnext.kidaprojects.apimision.model.ResultadoLote;
+import com.viewnext.kidaprojects.apimision.model.ResultadoReinicio;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepositoryReactivo;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code MisionServiceReactivoImpl} implementa
+ * {@code MisionServiceReactivo} sobre {@code MisionRepositoryReactivo}.
+ *
+ * <p>
+ * Los flujos de {@code showAll} y {@code showByNivel} piden las filas a la base
+ * de datos en tramos de {@code apimision.reactivo.prefetch} misiones según las
+ * solicita el suscriptor, de modo que un cliente lento no obliga a leer ni a
+ * retener en memoria el resto del resultado. Este perfil no usa
+ * {@code MisionCache} ni los índices en memoria: cada lectura consulta la base
+ * de datos.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Service
+@Profile("reactivo")
+public class MisionServiceReactivoImpl implements MisionServiceReactivo {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MisionServiceReactivoImpl.class);
+
+	@Autowired
+	private MisionRepositoryReactivo misionRepository;
+
+	@Autowired
+	private TransactionalOperator transaccion;
+
+	@Value("${apimision.reactivo.prefetch:256}")
+	private int prefetch;
+
+	@Value("${apimision.busqueda.limite-maximo:100}")
+	private int limiteMaximoBusqueda;
+
+	@Value("${apimision.importacion.tamano-lote:1000}")
+	private int tamanoLoteImportacion;
+
+	@Value("${apimision.paginacion.limite-maximo:1000}")
+	private int limiteMaximoPagina;
+
+	@Override
+	public Flux<Mision> showAll() {
+		return misionRepository.findAll().limitRate(prefetch);
+	}
+
+	@Override
+	public Mono<PaginaMisiones> showPagina(int cursor, int limite) {
+		int tamano = Math.max(1, Math.min(limite, limiteMaximoPagina));
+		return misionRepository.findSiguientes(cursor, tamano)
+				.collectList()
+				.map(listaMisiones -> new PaginaMisiones(listaMisiones, listaMisiones.size() == tamano
+						? listaMisiones.get(listaMisiones.size() - 1).getIdMision()
+						: null));
+	}
+
+	@Override
+	public Flux<Mision> showByNombreLike(String prefijo, int limite) {
+		int tamano = Math.max(1, Math.min(limite, limiteMaximoBusqueda));
+		return misionRepository.findByNombrePrefijo(MisionServiceImpl.escaparLike(prefijo), tamano);
+	}
+
+	@Override
+	public Flux<Mision> showByNivel(ConsultaNivel consulta) {
+		return misionRepository.findByNivelEntre(consulta).limitRate(prefetch);
+	}
+
+	@Override
+	public Mono<Mision> showById(int idMision) {
+		return misionRepository.findById(idMision);
+	}
+
+	@Override
+	public Mono<Integer> getRecompensa(int idMision) {
+		return misionRepository.findRecompensaById(idMision);
+	}
+
+	@Override
+	public Mono<Map<Integer, Integer>> getRecompensas(Collection<Integer> idsMision) {
+		List<Integer> pendientes = new ArrayList<>(new LinkedHashSet<>(idsMision));
+		return Flux.fromIterable(pendientes)
+				.buffer(MisionServiceImpl.TAMANO_LOTE_IN)
+				.concatMap(misionRepository::findRecompensasByIds)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+
+	@Override
+	public Mono<Mision> createMision(Mision mision) {
+		return misionRepository.insertar(mision);
+	}
+
+	/**
+	 * Crea de forma masiva las misiones recibidas. Las misiones se agrupan en
+	 * bloques de {@code apimision.importacion.tamano-lote} misiones a medida que
+	 * llegan, y cada bloque se inserta en su propia transacción. Un bloque fallido
+	 * no detiene la importación; un error de lectura de la entrada sí, tras
+	 * insertar las misiones ya leídas.
+	 *
+	 * @param misiones El flujo de misiones a crear.
+	 * @return El resumen de la importación con el detalle de cada bloque.
+	 */
+	@Override
+	public Mono<ResultadoImportacion> importarMisiones(Flux<Mision> misiones) {
+		// El tiempo se mide desde la suscripción, no desde que se construye el flujo
+		return Mono.defer(() -> {
+			long inicio = System.nanoTime();
+			AtomicInteger indice = new AtomicInteger();
+
+			return misiones.buffer(tamanoLoteImportacion)
+					.concatMap(bloque -> insertarBloque(indice.getAndIncrement(), bloque))
+					.onErrorResume(e -> Mono.fromSupplier(() -> new BloqueImportacion(indice.get(), 0, 0, e.getMessage())))
+					.collectList()
+					.map(bloques -> {
+						int insertadas = 0;
+						int fallidas = 0;
+						for (BloqueImportacion b : bloques) {
+							if (b.getError() == null) {
+								insertadas += b.getMisiones();
+							} else {
+								fallidas += b.getMisiones();
+							}
+						}
+
+						long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+						LOGGER.info("Importación de misiones completada: {} insertadas, {} fallidas en {} bloques, {} ms",
+								insertadas, fallidas, bloques.size(), duracionMs);
+						return new ResultadoImportacion(insertadas, fallidas, duracionMs, bloques);
+					});
+		});
+	}
+
+	/**
+	 * Inserta un bloque de misiones en una transacción y mide el tiempo empleado.
+	 *
+	 * @param indice El índice del bloque dentro de la importación.
+	 * @param bloque Las misiones del bloque.
+	 * @return El resultado del bloque, con el error si no se ha podido insertar.
+	 */
+	private Mono<BloqueImportacion> insertarBloque(int indice, List<Mision> bloque) {
+		return Mono.defer(() -> {
+			long inicio = System.nanoTime();
+			return Flux.fromIterable(bloque)
+					.concatMap(misionRepository::insertar)
+					.then()
+					.as(transaccion::transactional)
+					.then(Mono.fromSupplier(() -> new BloqueImportacion(indice, bloque.size(),
+							(System.nanoTime() - inicio) / 1_000_000, null)))
+					.onErrorResume(e -> {
+						LOGGER.warn("No se ha podido importar el bloque {} de misiones: {}", indice, e.getMessage());
+						return Mono.just(new BloqueImportacion(indice, bloque.size(),
+								(System.nanoTime() - inicio) / 1_000_000, e.getMessage()));
+					});
+		});
+	}
+
+	@Override
+	public Mono<CambioEstado> setEstadoSuperada(int idMision, Long version) {
+		return cambiarEstado(idMision, version, Mision::isSuperada, misionRepository::marcarSuperada,
+				MisionServiceImpl::superada);
+	}
+
+	@Override
+	public Mono<CambioEstado> setEstadoInactiva(int idMision, Long version) {
+		return cambiarEstado(idMision, version, mision -> !mision.isActiva(), misionRepository::marcarInactiva,
+				MisionServiceImpl::inactiva);
+	}
+
+	@Override
+	public Mono<ResultadoLote> setEstadoSuperada(Collection<Integer> idsMision) {
+		return actualizarEnLote(idsMision, misionRepository::marcarSuperadas);
+	}
+
+	@Override
+	public Mono<ResultadoLote> setEstadoInactiva(Collection<Integer> idsMision) {
+		return actualizarEnLote(idsMision, misionRepository::marcarInactivas);
+	}
+
+	/**
+	 * Aplica un cambio de estado a una misión con una sentencia {@code UPDATE}
+	 * condicionada a la versión leída, en una misma transacción, igual que
+	 * {@code MisionServiceImpl}. La misión devuelta es la copia con el cambio
+	 * aplicado, de modo que no se vuelve a leer la fila después de actualizarla.
+	 *
+	 * @param idMision      El identificador de la misión.
+	 * @param version       La versión esperada por el cliente, o {@code null}.
+	 * @param enEstado      Si la misión ya está en el estado pedido.
+	 * @param actualizacion La sentencia condicionada, que devuelve las filas
+	 *                      modificadas.
+	 * @param cambio        El mismo cambio aplicado a una copia de la misión.
+	 * @return El resultado del cambio y la misión tras la operación.
+	 */
+	private Mono<CambioEstado> cambiarEstado(int idMision, Long version, Predicate<Mision> enEstado,
+			BiFunction<Integer, Long, Mono<Long>> actualizacion, UnaryOperator<Mision> cambio) {
+		return intentarCambio(idMision, version, enEstado, actualizacion, cambio, 1)
+				.as(transaccion::transactional);
+	}
+
+	/**
+	 * Lee la misión y aplica el cambio condicionado a su versión. Si otra petición
+	 * modifica la misión entre la lectura y la actualización, se vuelve a leer y
+	 * se reintenta hasta {@code MAX_INTENTOS_CAMBIO} veces.
+	 */
+	private Mono<CambioEstado> intentarCambio(int idMision, Long version, Predicate<Mision> enEstado,
+			BiFunction<Integer, Long, Mono<Long>> actualizacion, UnaryOperator<Mision> cambio, int intento) {
+		if (intento > MisionServiceImpl.MAX_INTENTOS_CAMBIO) {
+			LOGGER.warn("Cambio de estado de la misión {} abandonado tras {} intentos", idMision,
+					MisionServiceImpl.MAX_INTENTOS_CAMBIO);
+			return misionRepository.findById(idMision)
+					.map(actual -> new CambioEstado(CambioEstado.Resultado.CONFLICTO, actual))
+					.defaultIfEmpty(new CambioEstado(CambioEstado.Resultado.NO_ENCONTRADA, null));
+		}
+		return misionRepository.findById(idMision)
+				.flatMap(actual -> {
+					boolean conflicto = version != null && version != actual.getVersion();
+					if (conflicto || enEstado.test(actual)) {
+						return Mono.just(new CambioEstado(
+								conflicto ? CambioEstado.Resultado.CONFLICTO : CambioEstado.Resultado.SIN_CAMBIOS, actual));
+					}
+					return actualizacion.apply(idMision, actual.getVersion())
+							.flatMap(filas -> filas == 1
+									? Mono.just(new CambioEstado(CambioEstado.Resultado.CAMBIADA, cambio.apply(actual)))
+									: intentarCambio(idMision, version, enEstado, actualizacion, cambio, intento + 1));
+				})
+				.defaultIfEmpty(new CambioEstado(CambioEstado.Resultado.NO_ENCONTRADA, null));
+	}
+
+	/**
+	 * Aplica un cambio de estado a varias misiones con sentencias {@code UPDATE}
+	 * de como mucho {@code TAMANO_LOTE_IN} identificadores, todas en una misma
+	 * transacción.
+	 *
+	 * @param codigos       Los identificadores de las misiones.
+	 * @param actualizacion La sentencia que aplica el cambio a un lote.
+	 * @return Los identificadores actualizados y los que no existen.
+	 */
+	private Mono<ResultadoLote> actualizarEnLote(Collection<Integer> codigos,
+			Function<List<Integer>, Mono<Long>> actualizacion) {
+		List<Integer> pendientes = new ArrayList<>(new LinkedHashSet<>(codigos));
+
+		return Flux.fromIterable(pendientes)
+				.buffer(MisionServiceImpl.TAMANO_LOTE_IN)
+				.concatMap(lote -> misionRepository.findIdsExistentes(lote)
+						.collectList()
+						.filter(encontradas -> !encontradas.isEmpty())
+						.flatMap(encontradas -> actualizacion.apply(encontradas).thenReturn(encontradas)))
+				.as(transaccion::transactional)
+				.collect(HashSet<Integer>::new, Set::addAll)
+				.map(existentes -> {
+					List<Integer> actualizadas = new ArrayList<>();
+					List<Integer> noEncontradas = new ArrayList<>();
+					for (Integer codigo : pendientes) {
+						if (existentes.contains(codigo)) {
+							actualizadas.add(codigo);
+						} else {
+							noEncontradas.add(codigo);
+						}
+					}
+					return new ResultadoLote(actualizadas, noEncontradas);
+				});
+	}
+
+	@Override
+	public Mono<ResultadoReinicio> reiniciarMisiones() {
+		return Mono.defer(() -> {
+			long inicio = System.nanoTime();
+			return misionRepository.reiniciarTodas()
+					.map(filas -> {
+						long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+						LOGGER.info("Reinicio de misiones completado: {} filas en {} ms", filas, duracionMs);
+						return new ResultadoReinicio(filas.intValue(), 1, duracionMs);
+					});
+		});
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * La clase {@code VersionCatalogo} lleva la versión del catálogo de misiones:
+ * un contador que {@code MisionServiceImpl} incrementa tras cada escritura
+ * confirmada y el instante de la última de ellas. Con ellos se construyen los
+ * {@code ETag} y {@code Last-Modified} de las consultas, de modo que una
+ * petición condicional se resuelve sin consultar la base de datos.
+ *
+ * <p>
+ * El {@code ETag} incluye el instante de arranque de la aplicación, para que
+ * tras un reinicio no se repitan los valores de la ejecución anterior. Los
+ * cambios hechos en la base de datos por otros medios no se detectan.
+ * </p>
+ *
+ * <p>
+ * El autor de esta clase es Víctor Colorado "Kid A".
+ * </p>
+ *
+ * @version 1.0
+ * @since 4 de Octubre de 2023
+ */
+@Component
+@Profile("!reactivo")
+public class VersionCatalogo {
+
+	private final long arranque = System.currentTimeMillis();
+	private final AtomicLong version = new AtomicLong();
+	private volatile long ultimaModificacion = arranque;
+
+	/**
+	 * Registra una escritura en el catálogo. Debe llamarse después de confirmar
+	 * la escritura, para que un {@code ETag} nuevo nunca acompañe a datos
+	 * anteriores a ella.
+	 */
+	public void registrarCambio() {
+		ultimaModificacion = System.currentTimeMillis();
+		version.incrementAndGet();
+	}
+
+	/**
+	 * @return El número de escrituras registradas desde el arranque.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * @return El instante de la última escritura, en milisegundos desde la época,
+	 *         o el del arranque si no ha habido ninguna.
+	 */
+	public long getUltimaModificacion() {
+		return ultimaModificacion;
+	}
+
+	/**
+	 * Construye el {@code ETag} fuerte del catálogo para una representación.
+	 * Debe obtenerse antes de leer los datos que acompaña.
+	 *
+	 * @param variante El sufijo que distingue representaciones de una misma ruta,
+	 *                 o una cadena vacía.
+	 * @return El {@code ETag} entre comillas.
+	 */
+	public String etag(String variante) {
+		return "\"" + Long.toString(arranque, 36) + "-" + version.get() + variante + "\"";
+	}
+
+}
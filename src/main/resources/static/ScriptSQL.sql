@@ -12,9 +12,15 @@ CREATE TABLE misiones (
     nivel INT NOT NULL,
     recompensa INT NOT NULL,
     superada BOOLEAN NOT NULL,
-    activa BOOLEAN NOT NULL
+    activa BOOLEAN NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Índice compuesto para las búsquedas por rango de nivel, filtradas por "activa" y ordenadas por recompensa
+CREATE INDEX idx_misiones_nivel_activa_recompensa ON misiones (nivel, activa, recompensa);
+
+-- Para una tabla existente creada sin la columna de versión:
+-- ALTER TABLE misiones ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
 
 -- Insertar 10 misiones ficticias en la tabla "misiones"
 INSERT INTO misiones (nombre, descripcion, nivel, recompensa, superada, activa) VALUES
@@ -0,0 +1,160 @@
+package com.viewnext.kidaprojects.apimision;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.viewnext.kidaprojects.apimision.model.Mision;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=classpath:schema-misiones.sql" })
+@AutoConfigureWebTestClient
+@ActiveProfiles({ "reactivo", "test" })
+class ApiMisionReactivoTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void creaYConsultaMision() {
+		Mision creada = webTestClient.post().uri("/mision")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(new Mision("Rescate en la montaña", "Rescata a un excursionista.", 101, 500))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(Mision.class).returnResult().getResponseBody();
+
+		webTestClient.get().uri("/mision/{id}", creada.getIdMision())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.nombre").isEqualTo("Rescate en la montaña")
+				.jsonPath("$.activa").isEqualTo(true);
+
+		webTestClient.get().uri("/mision/recompensa/{id}", creada.getIdMision())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(Integer.class).isEqualTo(500);
+
+		webTestClient.get().uri("/mision/{id}", Integer.MAX_VALUE)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void importaYEmiteMisionesPorNivelSegunLaDemanda() {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 1; i <= 50; i++) {
+			ndjson.append("{\"nombre\":\"Patrulla ").append(i).append("\",\"descripcion\":\"Patrulla la zona.\",")
+					.append("\"nivel\":").append(200 + i % 5).append(",\"recompensa\":").append(i * 10)
+					.append(",\"superada\":false,\"activa\":true}\n");
+		}
+
+		webTestClient.post().uri("/mision/lote")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.bodyValue(ndjson.toString())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.insertadas").isEqualTo(50)
+				.jsonPath("$.fallidas").isEqualTo(0);
+
+		Flux<Mision> misiones = webTestClient.get()
+				.uri("/mision/nivel?nivelMin=200&nivelMax=204&orden=RECOMPENSA_DESC")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(Mision.class).getResponseBody();
+
+		StepVerifier.create(misiones, 0)
+				.thenRequest(2)
+				.assertNext(mision -> assertThat(mision.getRecompensa()).isEqualTo(500))
+				.assertNext(mision -> assertThat(mision.getRecompensa()).isEqualTo(490))
+				.thenRequest(Long.MAX_VALUE)
+				.expectNextCount(48)
+				.verifyComplete();
+	}
+
+	@Test
+	void cambiaEstadosEnLoteYReinicia() {
+		List<Integer> ids = List.of(
+				crear(new Mision("Entrega urgente", "Entrega un paquete.", 301, 200)).getIdMision(),
+				crear(new Mision("Caza de tesoros", "Encuentra un tesoro.", 302, 300)).getIdMision());
+
+		webTestClient.put().uri("/mision/inactivas")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(List.of(ids.get(0), ids.get(1), Integer.MAX_VALUE))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.actualizadas[0]").isEqualTo(ids.get(0))
+				.jsonPath("$.actualizadas[1]").isEqualTo(ids.get(1))
+				.jsonPath("$.noEncontradas[0]").isEqualTo(Integer.MAX_VALUE);
+
+		webTestClient.get().uri("/mision/nivel?nivelMin=301&nivelMax=302&soloActivas=true")
+				.exchange()
+				.expectStatus().isNotFound();
+
+		webTestClient.post().uri("/mision/reinicio")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.filasAfectadas").value(filas -> assertThat((Integer) filas).isGreaterThanOrEqualTo(2));
+
+		webTestClient.get().uri("/mision/nivel?nivelMin=301&nivelMax=302&soloActivas=true")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(Mision.class).hasSize(2);
+	}
+
+	@Test
+	void compruebaLaVersionDeIfMatchAlCambiarElEstado() {
+		Mision creada = crear(new Mision("Escolta", "Escolta a un mercader.", 401, 150));
+
+		webTestClient.put().uri("/mision/{id}", creada.getIdMision())
+				.header(HttpHeaders.IF_MATCH, "\"" + (creada.getVersion() + 1) + "\"")
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + creada.getVersion() + "\"")
+				.expectBody().jsonPath("$.superada").isEqualTo(false);
+
+		webTestClient.put().uri("/mision/{id}", creada.getIdMision())
+				.header(HttpHeaders.IF_MATCH, "\"" + creada.getVersion() + "\"")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + (creada.getVersion() + 1) + "\"")
+				.expectBody().jsonPath("$.superada").isEqualTo(true);
+
+		webTestClient.delete().uri("/mision/{id}", creada.getIdMision())
+				.header(HttpHeaders.IF_MATCH, "\"" + creada.getVersion() + "\"")
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+		webTestClient.delete().uri("/mision/{id}", Integer.MAX_VALUE)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private Mision crear(Mision mision) {
+		return webTestClient.post().uri("/mision")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(mision)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(Mision.class).returnResult().getResponseBody();
+	}
+
+}
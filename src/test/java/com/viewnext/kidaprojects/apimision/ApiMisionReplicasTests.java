@@ -0,0 +1,92 @@
+package com.viewnext.kidaprojects.apimision;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.viewnext.kidaprojects.apimision.model.CambioEstado;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.service.MisionService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"apimision.replicas.habilitado=true",
+		"apimision.replicas.urls=" + ApiMisionReplicasTests.REPLICA_0 + "," + ApiMisionReplicasTests.REPLICA_1,
+		"apimision.replicas.ventana-lectura=PT0.5S" })
+@ActiveProfiles("test")
+class ApiMisionReplicasTests {
+
+	static final String REPLICA_0 = "jdbc:h2:mem:replica0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+			+ "INIT=RUNSCRIPT FROM 'classpath:schema-misiones.sql'";
+	static final String REPLICA_1 = "jdbc:h2:mem:replica1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+			+ "INIT=RUNSCRIPT FROM 'classpath:schema-misiones.sql'";
+
+	private static final int ID_REPLICA = 900_001;
+
+	@Autowired
+	private MisionService service;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	/**
+	 * Cada réplica tiene una misión que la primaria no tiene, con un nombre que
+	 * identifica la réplica que ha respondido.
+	 */
+	@BeforeAll
+	static void poblarReplicas() {
+		String[] urls = { REPLICA_0, REPLICA_1 };
+		for (int i = 0; i < urls.length; i++) {
+			new JdbcTemplate(new DriverManagerDataSource(urls[i], "sa", "")).update(
+					"INSERT INTO misiones (id_mision, nombre, descripcion, nivel, recompensa, superada, activa, version) "
+							+ "VALUES (?, ?, 'Solo en la réplica.', 900, ?, false, true, 0)",
+					ID_REPLICA, "Réplica " + i, i);
+		}
+	}
+
+	@Test
+	void leeDeLaPrimariaTrasEscribirYDeLasReplicasDespues() throws InterruptedException {
+		Mision creada = service.createMision(new Mision("Solo en la primaria", "Recién creada.", 900, 10));
+
+		assertThat(service.showPagina(ID_REPLICA - 1, 10).getMisiones()).isEmpty();
+
+		Thread.sleep(700);
+
+		Set<String> nombres = new HashSet<>();
+		for (int i = 0; i < 2; i++) {
+			nombres.add(service.showPagina(ID_REPLICA - 1, 10).getMisiones().get(0).getNombre());
+		}
+		assertThat(nombres).containsExactlyInAnyOrder("Réplica 0", "Réplica 1");
+		assertThat(service.getRecompensa(ID_REPLICA)).isPresent();
+
+		CambioEstado cambio = service.setEstadoInactiva(creada.getIdMision(), null);
+		assertThat(cambio.getResultado()).isEqualTo(CambioEstado.Resultado.CAMBIADA);
+		assertThat(service.showById(creada.getIdMision())).map(Mision::isActiva).contains(false);
+
+		assertThat(registry.get("mision.datasource.conexiones").tag("datasource", "replica-0").functionCounter()
+				.count()).isPositive();
+		assertThat(registry.get("mision.datasource.conexiones").tag("datasource", "replica-1").functionCounter()
+				.count()).isPositive();
+	}
+
+	@Test
+	void compruebaEnLaPrimariaLaVersionDeUnCambioDeEstado() throws InterruptedException {
+		Thread.sleep(700);
+
+		// En una réplica la misión existiría y el cambio acabaría en un conflicto
+		CambioEstado cambio = service.setEstadoInactiva(ID_REPLICA, null);
+
+		assertThat(cambio.getResultado()).isEqualTo(CambioEstado.Resultado.NO_ENCONTRADA);
+	}
+
+}
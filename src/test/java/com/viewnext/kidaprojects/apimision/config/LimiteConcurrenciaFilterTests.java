@@ -0,0 +1,80 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+class LimiteConcurrenciaFilterTests {
+
+	private SimpleMeterRegistry registry;
+	private LimiteConcurrenciaFilter filtro;
+
+	@BeforeEach
+	void crearFiltro() {
+		registry = new SimpleMeterRegistry();
+		filtro = new LimiteConcurrenciaFilter(1, Duration.ZERO, registry);
+	}
+
+	@Test
+	void liberaElPermisoAlTerminarUnaPeticionSincrona() throws Exception {
+		assertThat(filtrar(peticion("/mision/1")).getStatus()).isEqualTo(200);
+		assertThat(filtrar(peticion("/mision/1")).getStatus()).isEqualTo(200);
+		assertThat(disponibles()).isEqualTo(1);
+	}
+
+	@Test
+	void mantieneElPermisoMientrasSigueAbiertaUnaPeticionAsincrona() throws Exception {
+		// El listado en NDJSON sigue leyendo de la base de datos tras salir del filtro
+		MockHttpServletRequest flujo = peticion("/mision");
+		filtro.doFilter(flujo, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+		assertThat(disponibles()).isZero();
+		MockHttpServletResponse rechazada = filtrar(peticion("/mision/1"));
+		assertThat(rechazada.getStatus()).isEqualTo(503);
+		assertThat(rechazada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+		((MockAsyncContext) flujo.getAsyncContext()).complete();
+
+		assertThat(disponibles()).isEqualTo(1);
+		assertThat(filtrar(peticion("/mision/1")).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void noOcupaUnPermisoLaSuscripcionALosCambios() throws Exception {
+		MockHttpServletRequest suscripcion = peticion("/mision/cambios");
+		filtro.doFilter(suscripcion, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+		assertThat(suscripcion.isAsyncStarted()).isTrue();
+		assertThat(disponibles()).isEqualTo(1);
+		assertThat(filtrar(peticion("/mision/1")).getStatus()).isEqualTo(200);
+	}
+
+	private MockHttpServletResponse filtrar(MockHttpServletRequest peticion) throws ServletException, IOException {
+		MockHttpServletResponse respuesta = new MockHttpServletResponse();
+		filtro.doFilter(peticion, respuesta, new MockFilterChain());
+		return respuesta;
+	}
+
+	private double disponibles() {
+		return registry.get("mision.concurrencia.disponibles").gauge().value();
+	}
+
+	private static MockHttpServletRequest peticion(String ruta) {
+		MockHttpServletRequest peticion = new MockHttpServletRequest("GET", ruta);
+		peticion.setAsyncSupported(true);
+		return peticion;
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.viewnext.kidaprojects.apimision.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.viewnext.kidaprojects.apimision.config.LimitePeticionesFilter.Grupo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+class LimitePeticionesFilterTests {
+
+	private SimpleMeterRegistry registry;
+	private LimitePeticionesFilter filtro;
+
+	@BeforeEach
+	void crearFiltro() {
+		registry = new SimpleMeterRegistry();
+		// Un token por segundo: durante la prueba no se repone ninguno
+		filtro = new LimitePeticionesFilter("X-API-Key", Set.of("conocida"), 1, 3, 100,
+				Map.of(Grupo.LECTURA, 1, Grupo.LISTADO, 5, Grupo.CAMBIOS, 1, Grupo.ESCRITURA, 1, Grupo.REINICIO, 3),
+				Map.of(Grupo.LECTURA, 1, Grupo.LISTADO, 1, Grupo.CAMBIOS, 2, Grupo.ESCRITURA, 10, Grupo.REINICIO, 1),
+				registry);
+	}
+
+	@Test
+	void rechazaCon429AlAgotarLaRafaga() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertThat(filtrar(peticion("GET", "/mision/1", "10.0.0.1")).getStatus()).isEqualTo(200);
+		}
+
+		MockHttpServletResponse rechazada = filtrar(peticion("GET", "/mision/1", "10.0.0.1"));
+
+		assertThat(rechazada.getStatus()).isEqualTo(429);
+		assertThat(rechazada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(filtrar(peticion("GET", "/mision/1", "10.0.0.2")).getStatus()).isEqualTo(200);
+		assertThat(registry.get("mision.limite.rechazadas").tag("grupo", "lectura").tag("motivo", "tasa")
+				.counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void cobraElCosteDeCadaGrupoSinSuperarLaRafaga() throws Exception {
+		// El listado cuesta 5 tokens, que se limitan a los 3 de la ráfaga
+		assertThat(filtrar(peticion("GET", "/mision", "10.0.0.1")).getStatus()).isEqualTo(200);
+		assertThat(filtrar(peticion("GET", "/mision/1", "10.0.0.1")).getStatus()).isEqualTo(429);
+	}
+
+	@Test
+	void identificaPorIpLasClavesDesconocidas() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletRequest peticion = peticion("GET", "/mision/1", "10.0.0.1");
+			peticion.addHeader("X-API-Key", "inventada-" + i);
+			assertThat(filtrar(peticion).getStatus()).isEqualTo(200);
+		}
+		MockHttpServletRequest otraClave = peticion("GET", "/mision/1", "10.0.0.1");
+		otraClave.addHeader("X-API-Key", "inventada-3");
+		assertThat(filtrar(otraClave).getStatus()).isEqualTo(429);
+
+		MockHttpServletRequest conocida = peticion("GET", "/mision/1", "10.0.0.1");
+		conocida.addHeader("X-API-Key", "conocida");
+		assertThat(filtrar(conocida).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void rechazaCon503PorEncimaDeLaConcurrenciaDelGrupo() throws Exception {
+		MockHttpServletResponse[] durante = new MockHttpServletResponse[2];
+		filtro.doFilter(peticion("GET", "/mision", "10.0.0.1"), new MockHttpServletResponse(), (req, res) -> {
+			durante[0] = filtrar(peticion("GET", "/mision", "10.0.0.2"));
+			durante[1] = filtrar(peticion("GET", "/mision/1", "10.0.0.3"));
+		});
+
+		assertThat(durante[0].getStatus()).isEqualTo(503);
+		assertThat(durante[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(durante[1].getStatus()).isEqualTo(200);
+		assertThat(disponibles("listado")).isEqualTo(1);
+	}
+
+	@Test
+	void mantieneElPermisoMientrasSigueAbiertaUnaPeticionAsincrona() throws Exception {
+		MockHttpServletRequest flujo = peticion("GET", "/mision", "10.0.0.1");
+		filtro.doFilter(flujo, new MockHttpServletResponse(), iniciarAsincrona());
+
+		assertThat(flujo.isAsyncStarted()).isTrue();
+		assertThat(disponibles("listado")).isZero();
+		assertThat(filtrar(peticion("GET", "/mision", "10.0.0.2")).getStatus()).isEqualTo(503);
+
+		((MockAsyncContext) flujo.getAsyncContext()).complete();
+
+		assertThat(disponibles("listado")).isEqualTo(1);
+		assertThat(filtrar(peticion("GET", "/mision", "10.0.0.3")).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void liberaUnaSolaVezElPermisoDeUnaPeticionAsincronaFallida() throws Exception {
+		MockHttpServletRequest flujo = peticion("GET", "/mision", "10.0.0.1");
+		filtro.doFilter(flujo, new MockHttpServletResponse(), iniciarAsincrona());
+
+		MockAsyncContext contexto = (MockAsyncContext) flujo.getAsyncContext();
+		AsyncEvent evento = new AsyncEvent(contexto, new IOException("Conexión cerrada"));
+		contexto.getListeners().get(0).onError(evento);
+		contexto.complete();
+
+		assertThat(disponibles("listado")).isEqualTo(1);
+	}
+
+	@Test
+	void noOcupanPermisosDeLecturaLasSuscripcionesALosCambios() throws Exception {
+		MockHttpServletRequest[] suscripciones = new MockHttpServletRequest[2];
+		for (int i = 0; i < suscripciones.length; i++) {
+			suscripciones[i] = peticion("GET", "/mision/cambios", "10.0.1." + i);
+			filtro.doFilter(suscripciones[i], new MockHttpServletResponse(), iniciarAsincrona());
+		}
+
+		assertThat(disponibles("cambios")).isZero();
+		assertThat(filtrar(peticion("GET", "/mision/cambios", "10.0.1.2")).getStatus()).isEqualTo(503);
+		assertThat(filtrar(peticion("GET", "/mision/1", "10.0.1.3")).getStatus()).isEqualTo(200);
+		assertThat(disponibles("lectura")).isEqualTo(1);
+
+		((MockAsyncContext) suscripciones[0].getAsyncContext()).complete();
+
+		assertThat(disponibles("cambios")).isEqualTo(1);
+	}
+
+	private static FilterChain iniciarAsincrona() {
+		return (req, res) -> req.startAsync();
+	}
+
+	private MockHttpServletResponse filtrar(MockHttpServletRequest peticion) throws ServletException, IOException {
+		MockHttpServletResponse respuesta = new MockHttpServletResponse();
+		filtro.doFilter(peticion, respuesta, new MockFilterChain());
+		return respuesta;
+	}
+
+	private double disponibles(String grupo) {
+		return registry.get("mision.limite.disponibles").tag("grupo", grupo).gauge().value();
+	}
+
+	private static MockHttpServletRequest peticion(String metodo, String ruta, String ip) {
+		MockHttpServletRequest peticion = new MockHttpServletRequest(metodo, ruta);
+		peticion.setRemoteAddr(ip);
+		peticion.setAsyncSupported(true);
+		return peticion;
+	}
+
+}
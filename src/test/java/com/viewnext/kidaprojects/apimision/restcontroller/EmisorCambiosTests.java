@@ -0,0 +1,144 @@
+package com.viewnext.kidaprojects.apimision.restcontroller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.viewnext.kidaprojects.apimision.model.EventoCatalogo;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.service.CanalCambios;
+import com.viewnext.kidaprojects.apimision.service.CatalogoSerializado;
+import com.viewnext.kidaprojects.apimision.service.ConsultasCompartidas;
+import com.viewnext.kidaprojects.apimision.service.MisionService;
+import com.viewnext.kidaprojects.apimision.service.VersionCatalogo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmisorCambiosTests {
+
+	private final CatalogoSerializado catalogoSerializado = mock(CatalogoSerializado.class);
+	private final MisionService service = mock(MisionService.class);
+	private final List<SseEmitter> abiertos = new ArrayList<>();
+
+	private SimpleMeterRegistry registry;
+	private CanalCambios canal;
+	private EmisorCambios emisor;
+
+	@BeforeEach
+	void crearEmisor() {
+		registry = new SimpleMeterRegistry();
+		canal = new CanalCambios(4, registry);
+		ConsultasCompartidas consultasCompartidas = new ConsultasCompartidas(new VersionCatalogo(), true,
+				Duration.ofSeconds(10), registry);
+		emisor = new EmisorCambios(canal, catalogoSerializado, consultasCompartidas, service, 2, 256,
+				Duration.ofMillis(20), Duration.ofMinutes(1), registry);
+		when(service.showAll()).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void cerrarSuscripciones() throws InterruptedException {
+		// Con la respuesta completada, el siguiente envío falla y el hilo termina
+		abiertos.forEach(SseEmitter::complete);
+		esperar(() -> suscriptores() == 0);
+	}
+
+	@Test
+	void enviaUnaInstantaneaAlSuscriptorQueSeHaQuedadoAtras() throws InterruptedException {
+		for (int i = 0; i < 10; i++) {
+			canal.publicar(EventoCatalogo.Tipo.REINICIO, null, null);
+		}
+
+		suscribir(canal.identificador(1));
+
+		esperar(() -> contador("mision.cambios.instantaneas") == 1);
+		verify(service).showAll();
+	}
+
+	@Test
+	void continuaSinInstantaneaDesdeUnaPosicionDelBufer() throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			canal.publicar(EventoCatalogo.Tipo.REINICIO, null, null);
+		}
+
+		suscribir(canal.identificador(1));
+
+		esperar(() -> contador("mision.cambios.enviados") == 2);
+		assertThat(contador("mision.cambios.instantaneas")).isZero();
+	}
+
+	@Test
+	void compartenUnaSolaLecturaLasInstantaneasSimultaneas() throws InterruptedException {
+		CountDownLatch pedidas = new CountDownLatch(2);
+		CountDownLatch liberar = new CountDownLatch(1);
+		when(catalogoSerializado.getActual()).thenAnswer(invocacion -> {
+			pedidas.countDown();
+			return null;
+		});
+		when(service.showAll()).thenAnswer(invocacion -> {
+			liberar.await(5, TimeUnit.SECONDS);
+			return List.<Mision>of();
+		});
+
+		suscribir(null);
+		suscribir(null);
+		assertThat(pedidas.await(5, TimeUnit.SECONDS)).isTrue();
+		// Da tiempo al segundo suscriptor a sumarse a la lectura en curso
+		Thread.sleep(200);
+		liberar.countDown();
+
+		esperar(() -> contador("mision.cambios.instantaneas") == 2);
+		verify(service, times(1)).showAll();
+	}
+
+	@Test
+	void rechazaLosSuscriptoresPorEncimaDelMaximo() throws InterruptedException {
+		suscribir(null);
+		suscribir(null);
+
+		assertThat(emisor.suscribir(null)).isNull();
+		assertThat(contador("mision.cambios.rechazados")).isEqualTo(1);
+		assertThat(suscriptores()).isEqualTo(2);
+
+		abiertos.remove(0).complete();
+		esperar(() -> suscriptores() == 1);
+
+		suscribir(null);
+	}
+
+	private void suscribir(String ultimoId) {
+		SseEmitter abierto = emisor.suscribir(ultimoId);
+		assertThat(abierto).isNotNull();
+		abiertos.add(abierto);
+	}
+
+	private double contador(String nombre) {
+		return registry.get(nombre).counter().count();
+	}
+
+	private double suscriptores() {
+		return registry.get("mision.cambios.suscriptores").gauge().value();
+	}
+
+	private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condicion.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("Tiempo de espera agotado").isLessThan(limite);
+			Thread.sleep(10);
+		}
+	}
+
+}
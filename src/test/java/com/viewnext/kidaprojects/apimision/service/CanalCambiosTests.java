@@ -0,0 +1,101 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.viewnext.kidaprojects.apimision.model.EventoCatalogo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CanalCambiosTests {
+
+	private CanalCambios canal;
+
+	@BeforeEach
+	void crearCanal() {
+		canal = new CanalCambios(4, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void devuelveLosEventosEnOrdenHastaElMaximo() throws Exception {
+		publicar(3);
+
+		assertThat(canal.leer(0, 2, 0)).extracting(EventoCatalogo::getSecuencia).containsExactly(1L, 2L);
+		assertThat(canal.leer(2, 10, 0)).extracting(EventoCatalogo::getSecuencia).containsExactly(3L);
+		assertThat(canal.leer(3, 10, 0)).isEmpty();
+	}
+
+	@Test
+	void conservaLosUltimosEventosAlDarLaVuelta() throws Exception {
+		publicar(10);
+
+		assertThat(canal.leer(6, 10, 0)).extracting(EventoCatalogo::getSecuencia).containsExactly(7L, 8L, 9L, 10L);
+	}
+
+	@Test
+	void indicaAlSuscriptorLentoQueSuPosicionHaSalidoDelBufer() throws Exception {
+		publicar(2);
+		assertThat(canal.leer(0, 1, 0)).hasSize(1);
+
+		// Mientras el suscriptor no lee, se publican más eventos de los que caben
+		publicar(5);
+
+		assertThat(canal.leer(1, 10, 0)).isNull();
+		assertThat(canal.leer(3, 10, 0)).extracting(EventoCatalogo::getSecuencia).containsExactly(4L, 5L, 6L, 7L);
+	}
+
+	@Test
+	void rechazaUnaSecuenciaPosteriorALaUltima() throws Exception {
+		publicar(1);
+
+		assertThat(canal.leer(5, 10, 0)).isNull();
+	}
+
+	@Test
+	void despiertaAlSuscriptorQueEsperaUnEvento() throws Exception {
+		CompletableFuture<List<EventoCatalogo>> lectura = CompletableFuture.supplyAsync(() -> {
+			try {
+				return canal.leer(0, 10, TimeUnit.SECONDS.toNanos(10));
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(100);
+
+		publicar(1);
+
+		assertThat(lectura.get(5, TimeUnit.SECONDS)).extracting(EventoCatalogo::getSecuencia).containsExactly(1L);
+	}
+
+	@Test
+	void publicaLasImportacionesSinLasMisiones() throws Exception {
+		canal.publicarImportacion(1000, 1, 1000);
+
+		EventoCatalogo evento = canal.leer(0, 10, 0).get(0);
+		assertThat(evento.getTipo()).isEqualTo(EventoCatalogo.Tipo.IMPORTADAS);
+		assertThat(evento.getMisiones()).isNull();
+		assertThat(evento.getTotal()).isEqualTo(1000);
+		assertThat(evento.getDesde()).isEqualTo(1);
+		assertThat(evento.getHasta()).isEqualTo(1000);
+	}
+
+	@Test
+	void soloReconoceLosIdentificadoresDeEstaEjecucion() {
+		assertThat(canal.secuencia(canal.identificador(42))).isEqualTo(42);
+		assertThat(canal.secuencia("otraepoca-42")).isEqualTo(-1);
+		assertThat(canal.secuencia(null)).isEqualTo(-1);
+	}
+
+	private void publicar(int eventos) {
+		for (int i = 0; i < eventos; i++) {
+			canal.publicar(EventoCatalogo.Tipo.REINICIO, null, null);
+		}
+	}
+
+}
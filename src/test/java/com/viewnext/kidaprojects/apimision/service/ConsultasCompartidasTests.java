@@ -0,0 +1,175 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConsultasCompartidasTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final VersionCatalogo versionCatalogo = new VersionCatalogo();
+	private final AtomicInteger ejecuciones = new AtomicInteger();
+
+	@Test
+	void compartenElResultadoLasLlamadasConcurrentes() throws Exception {
+		ConsultasCompartidas consultas = consultas(Duration.ofSeconds(10));
+		CountDownLatch liberar = new CountDownLatch(1);
+		List<Integer> resultado = List.of(1, 2, 3);
+
+		CompletableFuture<List<Integer>> primera = lanzar(consultas, "nivel", bloqueada(liberar, () -> resultado));
+		esperarEnCurso(1);
+		CompletableFuture<List<Integer>> segunda = lanzar(consultas, "nivel", bloqueada(liberar, () -> List.of()));
+		Thread.sleep(100);
+		liberar.countDown();
+
+		assertThat(primera.get(5, TimeUnit.SECONDS)).isSameAs(resultado);
+		assertThat(segunda.get(5, TimeUnit.SECONDS)).isSameAs(resultado);
+		assertThat(ejecuciones).hasValue(1);
+		assertThat(contador("mision.consultas.ejecutadas")).isEqualTo(1);
+		assertThat(contador("mision.consultas.compartidas")).isEqualTo(1);
+	}
+
+	@Test
+	void noCompartenLaConsultaConArgumentosDistintos() throws Exception {
+		ConsultasCompartidas consultas = consultas(Duration.ofSeconds(10));
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		CompletableFuture<List<Integer>> primera = lanzar(consultas, "nivel", 1, bloqueada(liberar, () -> List.of(1)));
+		CompletableFuture<List<Integer>> segunda = lanzar(consultas, "nivel", 2, bloqueada(liberar, () -> List.of(2)));
+		esperarEnCurso(2);
+		liberar.countDown();
+
+		assertThat(primera.get(5, TimeUnit.SECONDS)).containsExactly(1);
+		assertThat(segunda.get(5, TimeUnit.SECONDS)).containsExactly(2);
+		assertThat(ejecuciones).hasValue(2);
+	}
+
+	@Test
+	void noRecibeUnResultadoAnteriorAUnaEscritura() throws Exception {
+		ConsultasCompartidas consultas = consultas(Duration.ofSeconds(10));
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		CompletableFuture<List<Integer>> primera = lanzar(consultas, "nivel", bloqueada(liberar, () -> List.of(1)));
+		esperarEnCurso(1);
+		versionCatalogo.registrarCambio();
+		List<Integer> segunda = consultas.ejecutar("nivel", List.of(0), contada(() -> List.of(2)));
+		liberar.countDown();
+
+		assertThat(segunda).containsExactly(2);
+		assertThat(primera.get(5, TimeUnit.SECONDS)).containsExactly(1);
+		assertThat(ejecuciones).hasValue(2);
+	}
+
+	@Test
+	void ejecutaLaConsultaPorSuCuentaAlAgotarLaEspera() throws Exception {
+		ConsultasCompartidas consultas = consultas(Duration.ofMillis(50));
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		CompletableFuture<List<Integer>> primera = lanzar(consultas, "nivel", bloqueada(liberar, () -> List.of(1)));
+		esperarEnCurso(1);
+		List<Integer> segunda = consultas.ejecutar("nivel", List.of(0), contada(() -> List.of(2)));
+		liberar.countDown();
+
+		assertThat(segunda).containsExactly(2);
+		assertThat(primera.get(5, TimeUnit.SECONDS)).containsExactly(1);
+		assertThat(ejecuciones).hasValue(2);
+		assertThat(contador("mision.consultas.expiradas")).isEqualTo(1);
+	}
+
+	@Test
+	void propagaElErrorATodasLasLlamadasQueEsperan() throws Exception {
+		ConsultasCompartidas consultas = consultas(Duration.ofSeconds(10));
+		CountDownLatch liberar = new CountDownLatch(1);
+		Supplier<List<Integer>> fallida = bloqueada(liberar, () -> {
+			throw new IllegalStateException("Sin conexión");
+		});
+
+		CompletableFuture<List<Integer>> primera = lanzar(consultas, "nivel", fallida);
+		esperarEnCurso(1);
+		CompletableFuture<List<Integer>> segunda = lanzar(consultas, "nivel", fallida);
+		Thread.sleep(100);
+		liberar.countDown();
+
+		for (CompletableFuture<List<Integer>> llamada : List.of(primera, segunda)) {
+			assertThatThrownBy(() -> llamada.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+					.cause().isInstanceOf(IllegalStateException.class).hasMessage("Sin conexión");
+		}
+		assertThat(ejecuciones).hasValue(1);
+
+		// La consulta fallida no queda en curso: la siguiente llamada la repite
+		assertThat(consultas.ejecutar("nivel", List.of(0), contada(() -> List.of(3)))).containsExactly(3);
+		assertThat(ejecuciones).hasValue(2);
+	}
+
+	@Test
+	void ejecutaSiempreLaConsultaSiEstanDeshabilitadas() {
+		ConsultasCompartidas consultas = new ConsultasCompartidas(versionCatalogo, false, Duration.ofSeconds(10),
+				registry);
+
+		consultas.ejecutar("nivel", List.of(0), contada(() -> List.of(1)));
+		consultas.ejecutar("nivel", List.of(0), contada(() -> List.of(1)));
+
+		assertThat(ejecuciones).hasValue(2);
+		assertThat(registry.find("mision.consultas.ejecutadas").counter()).isNull();
+	}
+
+	private ConsultasCompartidas consultas(Duration esperaMaxima) {
+		return new ConsultasCompartidas(versionCatalogo, true, esperaMaxima, registry);
+	}
+
+	private static <T> CompletableFuture<T> lanzar(ConsultasCompartidas consultas, String consulta,
+			Supplier<T> ejecucion) {
+		return lanzar(consultas, consulta, 0, ejecucion);
+	}
+
+	private static <T> CompletableFuture<T> lanzar(ConsultasCompartidas consultas, String consulta, int argumento,
+			Supplier<T> ejecucion) {
+		return CompletableFuture.supplyAsync(() -> consultas.ejecutar(consulta, List.of(argumento), ejecucion));
+	}
+
+	/**
+	 * Consulta que no termina hasta que se abre el cerrojo.
+	 */
+	private <T> Supplier<T> bloqueada(CountDownLatch liberar, Supplier<T> consulta) {
+		return contada(() -> {
+			try {
+				liberar.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return consulta.get();
+		});
+	}
+
+	private <T> Supplier<T> contada(Supplier<T> consulta) {
+		return () -> {
+			ejecuciones.incrementAndGet();
+			return consulta.get();
+		};
+	}
+
+	private void esperarEnCurso(int consultas) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (registry.get("mision.consultas.en-curso").gauge().value() < consultas) {
+			assertThat(System.nanoTime()).as("Tiempo de espera agotado").isLessThan(limite);
+			Thread.sleep(10);
+		}
+	}
+
+	private double contador(String nombre) {
+		return registry.get(nombre).tag("consulta", "nivel").counter().count();
+	}
+
+}
@@ -0,0 +1,192 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EscrituraDiferidaTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	/**
+	 * Lotes recibidos por la escritura, en orden.
+	 */
+	private final List<List<Integer>> escritos = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch liberar = new CountDownLatch(1);
+
+	private EscrituraDiferida escritura;
+
+	@AfterEach
+	void detener() {
+		liberar.countDown();
+		if (escritura != null) {
+			escritura.detener();
+		}
+	}
+
+	@Test
+	void guardaUnaSolaVezCadaMisionPendiente() {
+		iniciar(10, 10, Duration.ofSeconds(1));
+
+		assertThat(escritura.encolar(1)).isTrue();
+		assertThat(escritura.encolar(2)).isTrue();
+		assertThat(escritura.encolar(1)).isTrue();
+
+		assertThat(escritura.getPendientes()).isEqualTo(2);
+		assertThat(contador("mision.escritura.diferida.fusionadas")).isEqualTo(1);
+
+		escritura.vaciar();
+
+		assertThat(escritos).containsExactly(List.of(1, 2));
+		assertThat(escritura.getPendientes()).isZero();
+	}
+
+	@Test
+	void esperaEspacioConLaColaLlena() throws Exception {
+		llenarColaDuranteUnVaciado(Duration.ofSeconds(10));
+
+		CompletableFuture<Boolean> quinta = CompletableFuture.supplyAsync(() -> escritura.encolar(5));
+		Thread.sleep(100);
+		assertThat(quinta).isNotDone();
+
+		liberar.countDown();
+
+		assertThat(quinta.get(5, TimeUnit.SECONDS)).isTrue();
+		esperar(() -> escritos.size() == 2);
+		assertThat(escritos).containsExactly(List.of(1, 2), List.of(3, 4));
+	}
+
+	@Test
+	void rechazaLaMisionSiLaColaSigueLlenaTrasLaEspera() throws Exception {
+		llenarColaDuranteUnVaciado(Duration.ofMillis(50));
+
+		assertThat(escritura.encolar(5)).isFalse();
+
+		assertThat(contador("mision.escritura.diferida.rechazadas")).isEqualTo(1);
+		assertThat(escritura.getPendientes()).isEqualTo(2);
+		liberar.countDown();
+	}
+
+	@Test
+	void vaciaLaColaAlAlcanzarElUmbral() throws Exception {
+		iniciar(10, 2, Duration.ofSeconds(1));
+
+		escritura.encolar(1);
+		escritura.encolar(2);
+
+		esperar(() -> !escritos.isEmpty());
+		assertThat(escritos).containsExactly(List.of(1, 2));
+	}
+
+	@Test
+	void devuelveALaColaUnLoteFallido() {
+		AtomicBoolean fallar = new AtomicBoolean(true);
+		iniciar(10, 10, Duration.ofSeconds(1), lote -> {
+			if (fallar.getAndSet(false)) {
+				throw new IllegalStateException("Sin conexión");
+			}
+			escritos.add(lote);
+		});
+		escritura.encolar(1);
+		escritura.encolar(2);
+
+		escritura.vaciar();
+
+		assertThat(escritos).isEmpty();
+		assertThat(escritura.getPendientes()).isEqualTo(2);
+		assertThat(contador("mision.escritura.diferida.fallidas")).isEqualTo(2);
+
+		escritura.vaciar();
+
+		assertThat(escritos).containsExactly(List.of(1, 2));
+	}
+
+	@Test
+	void escribeLasPendientesAlDetenerse() {
+		iniciar(10, 10, Duration.ofSeconds(1));
+		escritura.encolar(1);
+		escritura.encolar(2);
+
+		escritura.detener();
+
+		assertThat(escritos).containsExactly(List.of(1, 2));
+		assertThat(escritura.isHabilitada()).isFalse();
+		assertThat(escritura.encolar(3)).isFalse();
+		assertThat(escritura.getPendientes()).isZero();
+	}
+
+	@Test
+	void despiertaALasPeticionesQueEsperanAlDetenerse() throws Exception {
+		llenarColaDuranteUnVaciado(Duration.ofSeconds(10));
+		CompletableFuture<Boolean> quinta = CompletableFuture.supplyAsync(() -> escritura.encolar(5));
+		Thread.sleep(100);
+
+		// detener() espera al vaciado en curso, que sigue bloqueado
+		CompletableFuture<Void> detencion = CompletableFuture.runAsync(escritura::detener);
+
+		assertThat(quinta.get(5, TimeUnit.SECONDS)).isFalse();
+		liberar.countDown();
+		detencion.get(5, TimeUnit.SECONDS);
+		assertThat(escritos).containsExactly(List.of(1, 2), List.of(3, 4));
+	}
+
+	/**
+	 * Llena la cola de capacidad 2 mientras la escritura del primer lote sigue
+	 * bloqueada hasta abrir {@code liberar}, de modo que no se libera espacio.
+	 */
+	private void llenarColaDuranteUnVaciado(Duration esperaMaxima) throws InterruptedException {
+		CountDownLatch empezada = new CountDownLatch(1);
+		iniciar(2, 2, esperaMaxima, lote -> {
+			empezada.countDown();
+			try {
+				liberar.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			escritos.add(lote);
+		});
+		escritura.encolar(1);
+		escritura.encolar(2);
+		assertThat(empezada.await(5, TimeUnit.SECONDS)).isTrue();
+		escritura.encolar(3);
+		escritura.encolar(4);
+		assertThat(escritura.getPendientes()).isEqualTo(2);
+	}
+
+	private void iniciar(int capacidad, int umbral, Duration esperaMaxima) {
+		iniciar(capacidad, umbral, esperaMaxima, escritos::add);
+	}
+
+	private void iniciar(int capacidad, int umbral, Duration esperaMaxima, Consumer<List<Integer>> lotes) {
+		// El intervalo no llega a cumplirse durante la prueba: la cola se vacía a mano
+		escritura = new EscrituraDiferida(true, capacidad, umbral, Duration.ofHours(1), esperaMaxima, registry);
+		escritura.iniciar(lotes);
+	}
+
+	private double contador(String nombre) {
+		return registry.get(nombre).counter().count();
+	}
+
+	private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condicion.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("Tiempo de espera agotado").isLessThan(limite);
+			Thread.sleep(10);
+		}
+	}
+
+}
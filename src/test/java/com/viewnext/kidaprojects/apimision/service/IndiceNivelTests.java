@@ -0,0 +1,210 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.viewnext.kidaprojects.apimision.model.ConsultaNivel;
+import com.viewnext.kidaprojects.apimision.model.EstadisticaNivel;
+import com.viewnext.kidaprojects.apimision.model.Mision;
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+class IndiceNivelTests {
+
+	private static final ConsultaNivel TODAS = new ConsultaNivel(Integer.MIN_VALUE, Integer.MAX_VALUE, false,
+			ConsultaNivel.Orden.ID, 0, Integer.MAX_VALUE);
+
+	private final MisionRepository misionRepository = mock(MisionRepository.class);
+
+	/**
+	 * Estado de cada misión en la base de datos simulada.
+	 */
+	private final Map<Integer, Mision> enBaseDatos = new ConcurrentHashMap<>();
+
+	private IndiceNivel indice;
+	private ContadoresNivel contadores;
+
+	@BeforeEach
+	void crearIndice() {
+		contadores = new ContadoresNivel(misionRepository, new VersionCatalogo(),
+				mock(PlatformTransactionManager.class), Duration.ZERO, new SimpleMeterRegistry());
+		indice = new IndiceNivel();
+		ReflectionTestUtils.setField(indice, "habilitado", true);
+		ReflectionTestUtils.setField(indice, "misionRepository", misionRepository);
+		ReflectionTestUtils.setField(indice, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(indice, "entityManager", mock(EntityManager.class));
+		ReflectionTestUtils.setField(indice, "contadoresNivel", contadores);
+
+		for (int id = 1; id <= 3; id++) {
+			enBaseDatos.put(id, mision(id, 0, false));
+		}
+		when(misionRepository.findAllById(anyIterable())).thenAnswer(invocacion -> {
+			List<Mision> misiones = new ArrayList<>();
+			for (Object id : (Iterable<?>) invocacion.getArgument(0)) {
+				misiones.add(new Mision(enBaseDatos.get(id)));
+			}
+			return misiones;
+		});
+	}
+
+	@Test
+	void vuelveALeerLasMisionesCambiadasPorLotesDuranteLaLectura() {
+		// La lectura ve la misión 3 antes del cambio, que llega mientras se lee la 2
+		Mision anterior = new Mision(enBaseDatos.get(3));
+		when(misionRepository.streamAll()).thenAnswer(invocacion -> Stream.of(1, 2, 3).map(id -> {
+			if (id == 2) {
+				superarEnBaseDatos(3);
+			}
+			return id == 3 ? anterior : new Mision(enBaseDatos.get(id));
+		}));
+
+		indice.construir();
+
+		assertThat(indice.isListo()).isTrue();
+		assertThat(indice.consultar(TODAS)).filteredOn(Mision::isSuperada).extracting(Mision::getIdMision)
+				.containsExactly(3);
+		assertThat(contadores.obtener()).singleElement()
+				.returns(3L, EstadisticaNivel::getMisiones)
+				.returns(1L, EstadisticaNivel::getSuperadas);
+		verify(misionRepository, times(1)).streamAll();
+	}
+
+	@Test
+	void noSustituyeUnaEscrituraEnVivoPorUnaFilaAnterior() {
+		when(misionRepository.streamAll()).thenAnswer(invocacion -> Stream.of(1, 2, 3).map(id -> {
+			Mision leida = new Mision(enBaseDatos.get(id));
+			if (id == 1) {
+				indice.reemplazar(mision(2, 1, true));
+			}
+			return leida;
+		}));
+
+		indice.construir();
+
+		assertThat(indice.consultar(TODAS)).filteredOn(Mision::isSuperada).extracting(Mision::getIdMision)
+				.containsExactly(2);
+		assertThat(contadores.obtener()).singleElement().returns(3L, EstadisticaNivel::getMisiones);
+	}
+
+	@Test
+	void repiteLaLecturaCompletaTrasUnReinicio() {
+		when(misionRepository.streamAll()).thenAnswer(invocacion -> {
+			boolean primera = !enBaseDatos.get(1).isSuperada() && enBaseDatos.get(1).getVersion() == 0;
+			return Stream.of(1, 2, 3).map(id -> {
+				Mision leida = new Mision(enBaseDatos.get(id));
+				if (primera && id == 3) {
+					superarEnBaseDatos(1);
+					indice.actualizarTodas(m -> m);
+				}
+				return leida;
+			});
+		});
+
+		indice.construir();
+
+		assertThat(indice.isListo()).isTrue();
+		verify(misionRepository, times(2)).streamAll();
+		assertThat(indice.consultar(TODAS)).filteredOn(Mision::isSuperada).extracting(Mision::getIdMision)
+				.containsExactly(1);
+	}
+
+	@Test
+	void abandonaLaConstruccionConCambiosPorLotesContinuos() {
+		when(misionRepository.streamAll()).thenAnswer(invocacion -> Stream.of(1, 2, 3)
+				.map(id -> new Mision(enBaseDatos.get(id))));
+		when(misionRepository.findAllById(anyIterable())).thenAnswer(invocacion -> {
+			superarEnBaseDatos(3);
+			return List.of(new Mision(enBaseDatos.get(3)));
+		});
+		superarEnBaseDatos(3);
+
+		indice.construir();
+
+		assertThat(indice.isListo()).isFalse();
+		assertThat(contadores.isListos()).isFalse();
+		verify(misionRepository, times(IndiceNivel.MAX_RECARGAS)).findAllById(anyIterable());
+	}
+
+	@Test
+	void conservaLaVersionMasRecienteAunqueLleguenDesordenadas() {
+		when(misionRepository.streamAll()).thenAnswer(invocacion -> Stream.empty());
+		indice.construir();
+
+		indice.reemplazar(mision(7, 2, true));
+		indice.reemplazar(mision(7, 1, false));
+
+		assertThat(indice.consultar(TODAS)).singleElement()
+				.returns(2L, Mision::getVersion)
+				.returns(true, Mision::isSuperada);
+		assertThat(contadores.obtener()).singleElement()
+				.returns(1L, EstadisticaNivel::getMisiones)
+				.returns(1L, EstadisticaNivel::getSuperadas);
+	}
+
+	@Test
+	void paginaEnOrdenLasMisionesDeVariosNiveles() {
+		when(misionRepository.streamAll()).thenAnswer(invocacion -> Stream.empty());
+		indice.construir();
+		int[][] misiones = { { 10, 1, 30 }, { 11, 2, 10 }, { 12, 3, 30 }, { 13, 2, 20 }, { 14, 1, 20 }, { 15, 9, 5 } };
+		for (int[] datos : misiones) {
+			Mision mision = new Mision("Misión " + datos[0], "Descripción.", datos[1], datos[2]);
+			mision.setIdMision(datos[0]);
+			mision.setActiva(datos[0] != 13);
+			indice.reemplazar(mision);
+		}
+
+		assertThat(indice.consultar(new ConsultaNivel(1, 3, false, ConsultaNivel.Orden.ID, 1, 2)))
+				.extracting(Mision::getIdMision).containsExactly(12, 13);
+		assertThat(indice.consultar(new ConsultaNivel(1, 3, false, ConsultaNivel.Orden.RECOMPENSA_ASC, 0, 10)))
+				.extracting(Mision::getIdMision).containsExactly(11, 13, 14, 10, 12);
+		assertThat(indice.consultar(new ConsultaNivel(1, 3, true, ConsultaNivel.Orden.RECOMPENSA_DESC, 0, 3)))
+				.extracting(Mision::getIdMision).containsExactly(10, 12, 14);
+
+		// Un cambio de nivel mueve la misión a su nuevo cubo en todos los órdenes
+		Mision movida = new Mision("Misión 15", "Descripción.", 2, 5);
+		movida.setIdMision(15);
+		movida.setVersion(1);
+		indice.reemplazar(movida);
+
+		assertThat(indice.consultar(new ConsultaNivel(1, 3, false, ConsultaNivel.Orden.RECOMPENSA_ASC, 0, 1)))
+				.extracting(Mision::getIdMision).containsExactly(15);
+		assertThat(indice.consultar(new ConsultaNivel(9, 9, false, ConsultaNivel.Orden.ID, 0, 10))).isEmpty();
+	}
+
+	/**
+	 * Marca una misión como superada en la base de datos y avisa al índice, como
+	 * hace {@code MisionServiceImpl} tras un cambio por lotes.
+	 */
+	private void superarEnBaseDatos(int idMision) {
+		Mision actual = enBaseDatos.get(idMision);
+		enBaseDatos.put(idMision, mision(idMision, actual.getVersion() + 1, true));
+		indice.actualizar(List.of(idMision), m -> mision(m.getIdMision(), m.getVersion() + 1, true));
+	}
+
+	private static Mision mision(int idMision, long version, boolean superada) {
+		Mision mision = new Mision("Misión " + idMision, "Descripción.", 5, 10);
+		mision.setIdMision(idMision);
+		mision.setVersion(version);
+		mision.setSuperada(superada);
+		return mision;
+	}
+
+}
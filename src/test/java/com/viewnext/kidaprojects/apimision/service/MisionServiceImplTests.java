@@ -0,0 +1,68 @@
+package com.viewnext.kidaprojects.apimision.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.viewnext.kidaprojects.apimision.repository.MisionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MisionServiceImplTests {
+
+	private final MisionRepository misionRepository = mock(MisionRepository.class);
+
+	/**
+	 * Escrituras en la base de datos, en orden.
+	 */
+	private final List<String> escrituras = new CopyOnWriteArrayList<>();
+
+	private EscrituraDiferida escrituraDiferida;
+	private MisionServiceImpl service;
+
+	@BeforeEach
+	void crearServicio() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		escrituraDiferida = new EscrituraDiferida(true, 100, 100, Duration.ofHours(1), Duration.ZERO, registry);
+		escrituraDiferida.iniciar(lote -> escrituras.add("superadas " + lote));
+
+		service = new MisionServiceImpl();
+		ReflectionTestUtils.setField(service, "misionRepository", misionRepository);
+		ReflectionTestUtils.setField(service, "escrituraDiferida", escrituraDiferida);
+		ReflectionTestUtils.setField(service, "misionCache", new MisionCache(100, Duration.ofMinutes(5)));
+		ReflectionTestUtils.setField(service, "indiceNivel", mock(IndiceNivel.class));
+		ReflectionTestUtils.setField(service, "versionCatalogo", new VersionCatalogo());
+		ReflectionTestUtils.setField(service, "canalCambios", new CanalCambios(16, registry));
+		ReflectionTestUtils.setField(service, "catalogoSerializado", mock(CatalogoSerializado.class));
+	}
+
+	@AfterEach
+	void detener() {
+		escrituraDiferida.detener();
+	}
+
+	@Test
+	void reiniciarMisionesEscribeAntesLasSuperadasPendientes() {
+		when(misionRepository.reiniciarTodas()).thenAnswer(invocacion -> {
+			escrituras.add("reinicio");
+			return 3;
+		});
+		escrituraDiferida.encolar(1);
+		escrituraDiferida.encolar(2);
+
+		service.reiniciarMisiones();
+
+		assertThat(escrituras).containsExactly("superadas [1, 2]", "reinicio");
+		assertThat(escrituraDiferida.getPendientes()).isZero();
+	}
+
+}
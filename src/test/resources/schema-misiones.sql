@@ -0,0 +1,13 @@
+-- Tabla "misiones" para las pruebas del perfil reactivo, igual que en ScriptSQL.sql
+CREATE TABLE IF NOT EXISTS misiones (
+    id_mision INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(255) NOT NULL,
+    descripcion TEXT,
+    nivel INT NOT NULL,
+    recompensa INT NOT NULL,
+    superada BOOLEAN NOT NULL,
+    activa BOOLEAN NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_misiones_nivel_activa_recompensa ON misiones (nivel, activa, recompensa);